@@ -0,0 +1,60 @@
+package criticalpath.benchmarks;
+
+import criticalpath.CriticalPathGraph;
+import criticalpath.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of adding tasks one at a time, updating the start/finish times after each one. When a task makes the
+ * project longer, the latest finish time of every task that leads to _END_ moves with it, so building a chain or fan
+ * this way takes time proportional to the square of its size and the largest sizes are left out.
+ * @author Cameron Sabuda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class AddTaskBenchmark {
+
+    @Param({"CHAIN", "FAN", "LAYERED"})
+    NetworkShape shape;
+
+    @Param({"100", "1000", "10000"})
+    int size;
+
+    private NetworkShape.Network network;
+
+    @Setup(Level.Trial)
+    public void createNetwork() {
+        this.network = this.shape.create(this.size);
+    }
+
+    /**
+     * Adds the tasks one at a time.
+     * @return The network, so the work isn't optimised away.
+     * @throws Exception Thrown if the network can't be built.
+     */
+    @Benchmark
+    public CriticalPathGraph addTask() throws Exception {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        for (Task task : this.network.createTasks()){
+            graph.addTask(task);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,73 @@
+package criticalpath.benchmarks;
+
+import criticalpath.CriticalPathGraph;
+import criticalpath.CriticalSubgraph;
+import criticalpath.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of finding the critical paths of a network that has already been scheduled.
+ * @author Cameron Sabuda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class CriticalPathBenchmark {
+
+    /**
+     * How many paths the limited listing asks for, about as many as the info dialog shows.
+     */
+    static final int PATH_LIMIT = 20;
+
+    @Param({"CHAIN", "FAN", "LAYERED"})
+    NetworkShape shape;
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private CriticalPathGraph graph;
+
+    @Setup(Level.Trial)
+    public void createGraph() throws Exception {
+        this.graph = new CriticalPathGraph();
+        this.graph.addTasks(this.shape.create(this.size).createTasks());
+    }
+
+    @Benchmark
+    public ArrayList<ArrayList<Task>> getCriticalPaths() {
+        return this.graph.getCriticalPaths();
+    }
+
+    @Benchmark
+    public ArrayList<ArrayList<Task>> getCriticalPathsLimited() {
+        return this.graph.getCriticalPaths(PATH_LIMIT);
+    }
+
+    @Benchmark
+    public BigInteger countCriticalPaths() {
+        return this.graph.countCriticalPaths();
+    }
+
+    @Benchmark
+    public CriticalSubgraph getCriticalSubgraph() {
+        return this.graph.getCriticalSubgraph();
+    }
+}
@@ -0,0 +1,108 @@
+package criticalpath.benchmarks;
+
+import criticalpath.CriticalPathGraph;
+import criticalpath.CyclicDependencyException;
+import criticalpath.DuplicateTaskException;
+import criticalpath.InvalidTaskDeleteException;
+import criticalpath.Task;
+import criticalpath.TaskNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of building and editing a network, which is where the start/finish times are worked out. Adding tasks one
+ * at a time is in {@link AddTaskBenchmark}, as it can't be run on the largest networks.
+ * @author Cameron Sabuda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    /**
+     * How many tasks are deleted in each measured iteration of the delete benchmark.
+     */
+    static final int DELETES_PER_ITERATION = 100;
+
+    @Param({"CHAIN", "FAN", "LAYERED"})
+    NetworkShape shape;
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private NetworkShape.Network network;
+
+    @Setup(Level.Trial)
+    public void createNetwork() {
+        this.network = this.shape.create(this.size);
+    }
+
+    /**
+     * Adds all of the tasks in one update, so the start/finish times are only worked out once.
+     * @return The network, so the work isn't optimised away.
+     * @throws Exception Thrown if the network can't be built.
+     */
+    @Benchmark
+    public CriticalPathGraph addTasks() throws Exception {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        graph.addTasks(this.network.createTasks());
+        return graph;
+    }
+
+    /**
+     * Deletes tasks from a network built before each iteration. Each iteration is timed as a whole, as a deleted task
+     * can't be deleted again.
+     * @param state The network to delete from.
+     * @return The network, so the work isn't optimised away.
+     * @throws InvalidTaskDeleteException Thrown if a task can't be deleted.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 3, batchSize = DELETES_PER_ITERATION)
+    @Measurement(iterations = 5, batchSize = DELETES_PER_ITERATION)
+    public CriticalPathGraph deleteTask(DeleteState state) throws InvalidTaskDeleteException {
+        state.graph.deleteTask(state.victims.get(state.next++));
+        return state.graph;
+    }
+
+    /**
+     * A network that is rebuilt before every iteration, with the tasks that will be deleted from it.
+     */
+    @State(Scope.Thread)
+    public static class DeleteState {
+
+        CriticalPathGraph graph;
+        ArrayList<Task> victims;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void createGraph(EngineBenchmark benchmark)
+                throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
+            ArrayList<Task> tasks = benchmark.network.createTasks();
+            this.graph = new CriticalPathGraph();
+            this.graph.addTasks(tasks);
+
+            this.victims = new ArrayList<>(tasks);
+            Collections.shuffle(this.victims, new Random(NetworkShape.SEED));
+            this.next = 0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package criticalpath.benchmarks;
+
+import criticalpath.DurationDistribution;
+import criticalpath.NetworkGenerator;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a made up network to a .cpg file, for sizing hardware and reproducing large networks. For example
+ * "GenerateNetwork big.cpg 5000000 --depth 2000 --branches 3" writes five million tasks without holding them in memory.
+ * @author Cameron Sabuda
+ */
+public final class GenerateNetwork {
+
+    private static final String USAGE = "usage: GenerateNetwork <file> <tasks> [--seed n] [--depth n] "
+            + "[--average-in-degree x] [--max-in-degree n] [--branches n] [--durations min:max]";
+
+    private GenerateNetwork() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2){
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        // the seed has to be known before anything else is set
+        long seed = NetworkShape.SEED;
+        for (int i = 2; i + 1 < args.length; i += 2){
+            if (args[i].equals("--seed")){
+                seed = Long.parseLong(args[i + 1]);
+            }
+        }
+        NetworkGenerator generator = new NetworkGenerator(seed, Integer.parseInt(args[1]));
+        for (int i = 2; i + 1 < args.length; i += 2){
+            String value = args[i + 1];
+            switch (args[i]){
+                case "--seed":
+                    break;
+                case "--depth":
+                    generator.setDepth(Integer.parseInt(value));
+                    break;
+                case "--average-in-degree":
+                    generator.setAverageInDegree(Double.parseDouble(value));
+                    break;
+                case "--max-in-degree":
+                    generator.setMaxInDegree(Integer.parseInt(value));
+                    break;
+                case "--branches":
+                    generator.setCriticalBranches(Integer.parseInt(value));
+                    break;
+                case "--durations":
+                    String[] range = value.split(":");
+                    generator.setDurationDistribution(DurationDistribution.uniformWhole(
+                            Integer.parseInt(range[0]), Integer.parseInt(range[1])));
+                    break;
+                default:
+                    System.err.println(USAGE);
+                    System.exit(2);
+            }
+        }
+
+        try (Writer writer = new BufferedWriter(new FileWriter(args[0]), 1 << 16)){
+            generator.writeTo(writer);
+        }
+    }
+}
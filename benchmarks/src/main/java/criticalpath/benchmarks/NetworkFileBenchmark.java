@@ -0,0 +1,62 @@
+package criticalpath.benchmarks;
+
+import criticalpath.CriticalPathGraph;
+import criticalpath.NetworkFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of saving and opening .cpg files, the same way the Save and Open buttons do.
+ * @author Cameron Sabuda
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class NetworkFileBenchmark {
+
+    @Param({"CHAIN", "FAN", "LAYERED"})
+    NetworkShape shape;
+
+    @Param({"100", "10000", "1000000"})
+    int size;
+
+    private CriticalPathGraph graph;
+    private String file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws Exception {
+        this.graph = new CriticalPathGraph();
+        this.graph.addTasks(this.shape.create(this.size).createTasks());
+        this.file = NetworkFile.write(this.graph);
+    }
+
+    @Benchmark
+    public String write() {
+        return NetworkFile.write(this.graph);
+    }
+
+    @Benchmark
+    public CriticalPathGraph read() throws Exception {
+        return NetworkFile.read(this.file);
+    }
+
+    @Benchmark
+    public CriticalPathGraph roundTrip() throws Exception {
+        return NetworkFile.read(NetworkFile.write(this.graph));
+    }
+}
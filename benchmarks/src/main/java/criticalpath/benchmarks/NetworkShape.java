@@ -0,0 +1,152 @@
+package criticalpath.benchmarks;
+
+import criticalpath.NetworkGenerator;
+import criticalpath.Task;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The shapes of network the benchmarks are run against. Each shape makes the same network every time for a given
+ * size, so results can be compared between runs.
+ * @author Cameron Sabuda
+ */
+public enum NetworkShape {
+
+    /**
+     * Every task depends on the one before it, so every change reaches the whole network.
+     */
+    CHAIN {
+        @Override
+        public Network create(int size) {
+            int[][] predecessors = new int[size][];
+            predecessors[0] = new int[0];
+            for (int i = 1; i < size; i++){
+                predecessors[i] = new int[]{i - 1};
+            }
+            return withRandomDurations(predecessors);
+        }
+    },
+
+    /**
+     * One task that every other task depends on, and one last task that depends on all of them.
+     */
+    FAN {
+        @Override
+        public Network create(int size) {
+            if (size < 3){
+                return CHAIN.create(size);
+            }
+            int[][] predecessors = new int[size][];
+            predecessors[0] = new int[0];
+            for (int i = 1; i < size - 1; i++){
+                predecessors[i] = new int[]{0};
+            }
+            int[] middle = new int[size - 2];
+            for (int i = 0; i < middle.length; i++){
+                middle[i] = i + 1;
+            }
+            predecessors[size - 1] = middle;
+            return withRandomDurations(predecessors);
+        }
+    },
+
+    /**
+     * Random layers of about the square root of the size from {@link NetworkGenerator}, where each task depends on one
+     * to three tasks in the layer before it and one branch through every layer is critical.
+     */
+    LAYERED {
+        @Override
+        public Network create(int size) {
+            NetworkGenerator generator = new NetworkGenerator(SEED, size);
+            generator.setMaxInDegree(3);
+            float[] durations = new float[size];
+            int[][] predecessors = new int[size][];
+            try {
+                generator.generate((task, duration, preds, predecessorCount) -> {
+                    durations[task] = duration;
+                    predecessors[task] = Arrays.copyOf(preds, predecessorCount);
+                });
+            } catch (IOException e){
+                throw new IllegalStateException(e);
+            }
+            return new Network(durations, predecessors);
+        }
+    };
+
+    /**
+     * The seed used for the random parts of the networks.
+     */
+    static final long SEED = 42;
+
+    /**
+     * Creates the description of a network of this shape.
+     * @param size The number of tasks, not counting _START_ and _END_.
+     * @return The description of the network.
+     */
+    public abstract Network create(int size);
+
+    /**
+     * Gives each task a random whole number duration from 1 to 10. Whole numbers add up without rounding, so every
+     * critical path is found.
+     * @param predecessors The indices of the predecessors of each task, which always come before the task itself.
+     * @return The description of the network.
+     */
+    private static Network withRandomDurations(int[][] predecessors) {
+        Random random = new Random(SEED);
+        float[] durations = new float[predecessors.length];
+        for (int i = 0; i < durations.length; i++){
+            durations[i] = 1 + random.nextInt(10);
+        }
+        return new Network(durations, predecessors);
+    }
+
+    /**
+     * The description of a network, from which new tasks can be made as many times as a benchmark needs them.
+     */
+    public static final class Network {
+
+        private final float[] durations;
+        private final int[][] predecessors;
+
+        private Network(float[] durations, int[][] predecessors) {
+            this.durations = durations;
+            this.predecessors = predecessors;
+        }
+
+        /**
+         * Gets the number of tasks.
+         * @return The number of tasks, not counting _START_ and _END_.
+         */
+        public int size() {
+            return this.durations.length;
+        }
+
+        /**
+         * Gets the id given to a task.
+         * @param index The index of the task.
+         * @return The id of the task.
+         */
+        public static String id(int index) {
+            return "T" + index;
+        }
+
+        /**
+         * Creates new tasks for the network. A task can only be in one network, so each graph needs its own.
+         * @return The tasks, each of which comes after its predecessors.
+         */
+        public ArrayList<Task> createTasks() {
+            ArrayList<Task> tasks = new ArrayList<>(this.durations.length);
+            for (int i = 0; i < this.durations.length; i++){
+                ArrayList<Task> preds = new ArrayList<>(this.predecessors[i].length);
+                for (int pred : this.predecessors[i]){
+                    preds.add(tasks.get(pred));
+                }
+                tasks.add(new Task(id(i), this.durations[i], preds));
+            }
+            return tasks;
+        }
+    }
+}
@@ -8,6 +8,9 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
@@ -19,12 +22,17 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class App extends Application {
 
     CriticalPathGraph criticalpathgraph;
     Graph graph;
+    EditHistory history;
+    ResultCache results;
 
     @Override
     public void start(final Stage primaryStage) {
@@ -39,11 +47,27 @@ public class App extends Application {
         // Initialise the data graph and the view graph
         criticalpathgraph = new CriticalPathGraph();
         graph = new Graph();
+        criticalpathgraph.addScheduleChangeListener(graph.getModel());
+        // every change to the network, whether made here or by an undo or redo, is drawn the same way
+        criticalpathgraph.addScheduleChangeListener(this::showChange);
+        history = new EditHistory(criticalpathgraph);
+        results = new ResultCache(criticalpathgraph);
 
         userInterface.setCenter(graph.getCellLayer());
 
         // Create the window
         Scene scene = new Scene(userInterface, 1280, 720);
+        // Ctrl+Z undoes the last change to the network and Ctrl+Y redoes it
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Z, KeyCombination.SHORTCUT_DOWN), () -> {
+            if (this.history.canUndo()) {
+                this.history.undo();
+            }
+        });
+        scene.getAccelerators().put(new KeyCodeCombination(KeyCode.Y, KeyCombination.SHORTCUT_DOWN), () -> {
+            if (this.history.canRedo()) {
+                this.history.redo();
+            }
+        });
         //buttonGrid.setGridLinesVisible(true);
         primaryStage.setScene(scene);
         primaryStage.show();
@@ -82,16 +106,16 @@ public class App extends Application {
             // try to open the file
             if (file != null) {
                 try {
-                    String fileContents = "";
+                    StringBuilder fileContents = new StringBuilder();
                     BufferedReader reader = new BufferedReader(new FileReader(file));
                     String line;
                     while ((line = reader.readLine()) != null) {
-                        fileContents += line;
+                        fileContents.append(line);
                     }
                     reader.close();
 
                     this.start(primaryStage);
-                    openFile(fileContents);
+                    openFile(fileContents.toString());
 
                 } catch (Exception ex) {
                     System.err.format("Exception occurred trying to read '%s'.", file.getPath());
@@ -191,7 +215,6 @@ public class App extends Application {
                     }
                     Task task = new Task(activityStr, Float.parseFloat(durationStr), predecessors);
                     criticalpathgraph.addTask(task);
-                    this.addTaskToGraph(task);
                     dialog.close();
                 }
                 catch (Exception ex){
@@ -251,7 +274,6 @@ public class App extends Application {
                     if (task == null){
                         throw new Exception();
                     }
-                    removeTaskFromGraph(task);
                     this.criticalpathgraph.deleteTask(task);
                     dialog.close();
                 } catch(Exception ex) {
@@ -279,17 +301,22 @@ public class App extends Application {
             dialogVBox.setPadding(new Insets(10));
 
             String str = "The critical paths of the project are:";
+            // Only list the first few critical paths, as there can be far too many to show
+            List<List<Task>> criticalPaths = this.results.getCriticalPaths(20);
             // Convert the critical paths into strings (could be implemented as a separate method)
-            ArrayList<ArrayList<Task>> criticalPaths = this.criticalpathgraph.getCriticalPaths();
-            for (ArrayList<Task> cp : criticalPaths){
+            for (List<Task> cp : criticalPaths){
                 str += "\n";
                 for (Task task : cp){
                     str += task.getId() + ", ";
                 }
                 str = str.trim().substring(0, str.length() - 2);
             }
+            BigInteger pathCount = this.results.countCriticalPaths();
+            if (pathCount.compareTo(BigInteger.valueOf(criticalPaths.size())) > 0){
+                str += "\n(and " + pathCount.subtract(BigInteger.valueOf(criticalPaths.size())) + " more)";
+            }
             Text txt1 = new Text(str);
-            Text txt2 = new Text("The minimum completion time is: " + this.criticalpathgraph.getEndTask().getLatestFinishTime());
+            Text txt2 = new Text("The minimum completion time is: " + this.results.getProjectDuration());
 
             dialogVBox.getChildren().addAll(txt1, txt2);
 
@@ -324,35 +351,16 @@ public class App extends Application {
             GridPane.setConstraints(rightTableHeading, 1, 0);
             table.getChildren().addAll(leftTableHeading, rightTableHeading);
 
-            // Iterate through all the tasks and add them to the table with the predecessors being displayed in the
-            // right column.
-            for (int i = 2; i < this.criticalpathgraph.getTasks().size(); i++){
-                try{
-                    Task task = this.criticalpathgraph.getTasks().get(i);//+1 to avoid _START_ and _END_ activities
-                    String preStr = "";
-
-                    if (task.getPredecessors().get(0).getId() == "_START_"){
-                        preStr += "None";
-                    } else {
-                        for (Task tsk : task.getPredecessors()){
-                            preStr += tsk.getId() + " ";
-                        }
-                        preStr = preStr.trim();
-                        preStr = preStr.replace(" ", ", ");
-                    }
-
-                    Text textLeft = new Text(" " + task.getId());
-                    Text textRight = new Text(" " + preStr); //leading whitespace to avoid text cutting into column lines
-
-                    GridPane.setConstraints(textLeft, 0, i+1);
-                    GridPane.setConstraints(textRight, 1 , i+1);
-                    table.getChildren().addAll(textLeft, textRight);
-                }
-                catch (Exception ex){
-                    ex.printStackTrace();
-                }
-
+            // Add every task to the table with its predecessors displayed in the right column.
+            int row = 1;
+            for (Map.Entry<String, String> entry : this.results.getPrecedenceTable().entrySet()){
+                Text textLeft = new Text(" " + entry.getKey());
+                Text textRight = new Text(" " + entry.getValue()); //leading whitespace to avoid text cutting into column lines
 
+                GridPane.setConstraints(textLeft, 0, row);
+                GridPane.setConstraints(textRight, 1 , row);
+                table.getChildren().addAll(textLeft, textRight);
+                row++;
             }
 
             dialogVbox.getChildren().add(table);
@@ -381,38 +389,29 @@ public class App extends Application {
     }
 
     /**
-     * Adds a task to the graph.
-     * @param task The task to be added to the graph.
+     * Adds and removes the cells and edges of the graph to match a change to the network. Called by the network after
+     * every change, including undos and redos, so the graph always shows what is in the network.
+     * @param change The change made to the network.
      */
-    private void addTaskToGraph(Task task){
-
+    private void showChange(ScheduleChange change){
         this.graph.beginUpdate();
-        // make sure task to be added doesn't share id with required start and end nodes.
-        if (!(task.getId().equals("_START_") || task.getId().equals("_END_"))){
+        for (Task task : change.getDeletedTasks()){
+            graph.getModel().removeCell(task.getId());
+        }
+        for (Dependency dependency : change.getRemovedDependencies()){
+            graph.getModel().removeEdge(dependency.getPredecessor().getId(), dependency.getTask().getId());
+        }
+        for (Task task : change.getAddedTasks()){
             graph.getModel().addCell(task);
-            for (Task tsk : task.getPredecessors()){
-                if (!tsk.getId().equals("_START_")){
-                    graph.getModel().addEdge(tsk.getId(), task.getId());
-                }
-            }
         }
-
-        this.graph.endUpdate();
-    }
-
-    /**
-     * Removes a task from the graph.
-     * @param task The task to be removed.
-     */
-    private void removeTaskFromGraph(Task task){
-        this.graph.beginUpdate();
-        // Ensure that the start/end nodes aren't removed
-        if (!(task.getId().equals("_START_") || task.getId().equals("_END_"))){
-            graph.getModel().removeCell(task, this.criticalpathgraph);
+        // _START_ and _END_ aren't shown, so neither are their edges
+        for (Dependency dependency : change.getAddedDependencies()){
+            if (dependency.getPredecessor() != this.criticalpathgraph.getStartTask()
+                    && dependency.getTask() != this.criticalpathgraph.getEndTask()){
+                graph.getModel().addEdge(dependency.getPredecessor().getId(), dependency.getTask().getId());
+            }
         }
-
         this.graph.endUpdate();
-
     }
 
     /**
@@ -420,21 +419,7 @@ public class App extends Application {
      * @return A string version of the criticalPathGraph object.
      */
     private String createFile(){
-        String file = "";//[
-        for (Task task : this.criticalpathgraph.getTasks()){
-            if (!(task.getId().equals("_START_") || task.getId().equals("_END_"))){
-                file += task.getId();
-                file += ":";
-                file += task.getDuration();
-                file += ":";//{
-                for (Task tsk : task.getPredecessors()){
-                    file += tsk.getId();
-                    file += ";";
-                }
-                file += ",";
-            }
-        }
-        return file;
+        return NetworkFile.write(this.criticalpathgraph);
     }
 
     /**
@@ -443,18 +428,38 @@ public class App extends Application {
      * @throws Exception Thrown if the file can not be opened.
      */
     private void openFile(String file) throws Exception {
-        for (String task: file.split(",")){
-            String[] data = task.split(":");
-            String id = data[0];
-            Float duration = Float.parseFloat(data[1]);
-            ArrayList<Task> predecessors = new ArrayList<>();
-            for (String preTask:data[2].split(";")){
-                predecessors.add(criticalpathgraph.getTask(preTask));
-            }
-            Task tsk = new Task(id, duration, predecessors);
-            criticalpathgraph.addTask(tsk);
-            addTaskToGraph(tsk);
+        // add all the tasks in one update so the start/finish times are only calculated once, and they are drawn once
+        NetworkFile.read(file, criticalpathgraph);
+        // opening a file can't be undone
+        this.history.clear();
+        this.offerToRemoveRedundantDependencies();
+    }
+
+    /**
+     * Lists the dependencies that are implied by other dependencies and asks the user if they should be removed. They
+     * are only removed if the user agrees, and removing them can be undone.
+     */
+    private void offerToRemoveRedundantDependencies(){
+        ArrayList<Dependency> redundant = this.criticalpathgraph.getRedundantDependencies();
+        if (redundant.isEmpty()){
+            return;
+        }
+        // Only list the first few, as a large file can have a lot of them
+        String str = "These predecessors are already implied by other predecessors:";
+        for (int i = 0; i < Math.min(20, redundant.size()); i++){
+            str += "\n" + redundant.get(i);
+        }
+        if (redundant.size() > 20){
+            str += "\n(and " + (redundant.size() - 20) + " more)";
         }
+        str += "\n\nRemoving them doesn't change the schedule. Remove them?";
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION, str, ButtonType.YES, ButtonType.NO);
+        alert.setHeaderText("Redundant predecessors found");
+        if (alert.showAndWait().orElse(ButtonType.NO) != ButtonType.YES){
+            return;
+        }
+
+        this.criticalpathgraph.removeRedundantDependencies();
     }
 
 
@@ -0,0 +1,576 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A compact, read mostly form of a critical path network for very large networks. The tasks are numbered in
+ * topological order (_START_ is always 0 and _END_ is always the last task) and their durations and start/finish
+ * times are kept in arrays. The predecessors and successors of every task are packed into shared int arrays, with an
+ * offsets array saying where each task's entries begin, so the scheduling passes are simple loops over arrays.
+ * @author Cameron Sabuda
+ */
+public class CompactNetwork {
+
+    /**
+     * Levels with fewer tasks than this are scheduled on the calling thread by schedule(ForkJoinPool), as splitting
+     * them up between threads would cost more than it saves.
+     */
+    public static final int PARALLEL_THRESHOLD = 2048;
+
+    private final String[] ids;
+    private final float[] durations;
+    private final float[] earlyStartTimes;
+    private final float[] latestFinishTimes;
+
+    /**
+     * The predecessors of task i are predecessors[predecessorOffsets[i]] to predecessors[predecessorOffsets[i+1]-1].
+     */
+    final int[] predecessorOffsets;
+    final int[] predecessors;
+
+    /**
+     * The successors of task i are successors[successorOffsets[i]] to successors[successorOffsets[i+1]-1].
+     */
+    final int[] successorOffsets;
+    final int[] successors;
+
+    /**
+     * The tasks the network was built from, or null if it was built from arrays.
+     */
+    private final Task[] tasks;
+
+    /**
+     * Maps ids to task numbers. Only created when a task is first looked up by its id.
+     */
+    private HashMap<String, Integer> idIndex;
+
+    /**
+     * The tasks grouped by level, where the level of a task is one more than the highest level of its predecessors.
+     * No two tasks in the same level depend on each other. The tasks in level l are levelTasks[levelOffsets[l]] to
+     * levelTasks[levelOffsets[l+1]-1]. Only created when the network is first scheduled in parallel.
+     */
+    private int[] levelOffsets;
+    private int[] levelTasks;
+
+    /**
+     * Creates a compact copy of a critical path network. The start/finish times are copied as well, so they don't
+     * need to be scheduled again.
+     * @param graph The network to copy.
+     */
+    public CompactNetwork(CriticalPathGraph graph) {
+        ArrayList<Task> order = graph.getTopologicalOrder();
+        int size = order.size();
+        this.ids = new String[size];
+        this.durations = new float[size];
+        this.earlyStartTimes = new float[size];
+        this.latestFinishTimes = new float[size];
+        this.tasks = new Task[size];
+        this.predecessorOffsets = new int[size + 1];
+        this.successorOffsets = new int[size + 1];
+
+        // number the tasks in topological order
+        int edges = 0;
+        for (int i = 0; i < size; i++){
+            Task task = order.get(i);
+            task.index = i;
+            this.tasks[i] = task;
+            this.ids[i] = task.getId();
+            this.durations[i] = task.getDuration();
+            this.earlyStartTimes[i] = task.getEarlyStartTime();
+            this.latestFinishTimes[i] = task.getLatestFinishTime();
+            edges += task.getPredecessors().size();
+        }
+
+        this.predecessors = new int[edges];
+        this.successors = new int[edges];
+        int predecessorCount = 0;
+        int successorCount = 0;
+        for (int i = 0; i < size; i++){
+            this.predecessorOffsets[i] = predecessorCount;
+            for (Task tsk : this.tasks[i].getPredecessors()){
+                this.predecessors[predecessorCount++] = tsk.index;
+            }
+            this.successorOffsets[i] = successorCount;
+            for (Task tsk : this.tasks[i].getSuccessors()){
+                this.successors[successorCount++] = tsk.index;
+            }
+        }
+        this.predecessorOffsets[size] = predecessorCount;
+        this.successorOffsets[size] = successorCount;
+    }
+
+    /**
+     * Creates a compact network straight from arrays, without building a CriticalPathGraph first. The tasks must be in
+     * topological order, with _START_ as the first task and _END_ as the last, and the predecessors are given in the
+     * same packed form the network uses. The start/finish times are calculated straight away.
+     * @param ids The ids of the tasks.
+     * @param durations The durations of the tasks.
+     * @param predecessorOffsets Where the predecessors of each task begin in the predecessors array, with one extra
+     * entry at the end giving the total number of predecessors.
+     * @param predecessors The numbers of the predecessors of every task, one task after another.
+     */
+    public CompactNetwork(String[] ids, float[] durations, int[] predecessorOffsets, int[] predecessors) {
+        int size = ids.length;
+        if (size < 2 || durations.length != size || predecessorOffsets.length != size + 1){
+            throw new IllegalArgumentException(" an invalid network size");
+        }
+        this.ids = ids;
+        this.durations = durations;
+        this.earlyStartTimes = new float[size];
+        this.latestFinishTimes = new float[size];
+        this.tasks = null;
+        this.predecessorOffsets = predecessorOffsets;
+        this.predecessors = predecessors;
+
+        // count the successors of each task, then fill them in
+        int[] successorCounts = new int[size];
+        for (int i = 0; i < size; i++){
+            if (durations[i] < 0){
+                throw new IllegalArgumentException(" an invalid duration on task");
+            }
+            for (int k = predecessorOffsets[i]; k < predecessorOffsets[i + 1]; k++){
+                if (predecessors[k] >= i){
+                    throw new IllegalArgumentException(" a predecessor that isn't before its task");
+                }
+                successorCounts[predecessors[k]]++;
+            }
+        }
+        this.successorOffsets = new int[size + 1];
+        for (int i = 0; i < size; i++){
+            // only _START_ may have no predecessors and only _END_ may have no successors
+            boolean hasPredecessors = predecessorOffsets[i + 1] > predecessorOffsets[i];
+            if (hasPredecessors == (i == 0) || (successorCounts[i] > 0) == (i == size - 1)){
+                throw new IllegalArgumentException(" a task that isn't linked to _START_/_END_");
+            }
+            this.successorOffsets[i + 1] = this.successorOffsets[i] + successorCounts[i];
+        }
+        this.successors = new int[predecessors.length];
+        int[] next = new int[size];
+        System.arraycopy(this.successorOffsets, 0, next, 0, size);
+        for (int i = 0; i < size; i++){
+            for (int k = predecessorOffsets[i]; k < predecessorOffsets[i + 1]; k++){
+                this.successors[next[predecessors[k]]++] = i;
+            }
+        }
+
+        this.schedule();
+    }
+
+    /**
+     * Gets the number of tasks in the network, including _START_ and _END_.
+     * @return The number of tasks in the network.
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * Gets the number of predecessor links in the network.
+     * @return The number of edges in the network.
+     */
+    public int getEdgeCount() {
+        return this.predecessors.length;
+    }
+
+    /**
+     * Gets the number of a task from its id.
+     * @param id The id of the task.
+     * @return The number of the task.
+     * @throws TaskNotFoundException Thrown if no task in the network has the id.
+     */
+    public int indexOf(String id) throws TaskNotFoundException {
+        if (this.idIndex == null){
+            HashMap<String, Integer> idIndex = new HashMap<>();
+            for (int i = 0; i < this.ids.length; i++){
+                idIndex.put(this.ids[i], i);
+            }
+            this.idIndex = idIndex;
+        }
+        Integer index = this.idIndex.get(id);
+        if (index == null){
+            throw new TaskNotFoundException("Task not found");
+        }
+        return index;
+    }
+
+    /**
+     * Gets the id of a task.
+     * @param index The number of the task.
+     * @return The id of the task.
+     */
+    public String getId(int index) {
+        return this.ids[index];
+    }
+
+    /**
+     * Gets the duration of a task.
+     * @param index The number of the task.
+     * @return The duration of the task.
+     */
+    public float getDuration(int index) {
+        return this.durations[index];
+    }
+
+    /**
+     * Sets the duration of a task. The start/finish times aren't recalculated until schedule() is called.
+     * @param index The number of the task.
+     * @param duration The new duration of the task.
+     */
+    public void setDuration(int index, float duration) {
+        if (duration < 0){
+            throw new IllegalArgumentException(" an invalid duration on task");
+        }
+        this.durations[index] = duration;
+    }
+
+    /**
+     * Gets the early start time of a task.
+     * @param index The number of the task.
+     * @return The early start time of the task.
+     */
+    public float getEarlyStartTime(int index) {
+        return this.earlyStartTimes[index];
+    }
+
+    /**
+     * Gets the latest finish time of a task.
+     * @param index The number of the task.
+     * @return The latest finish time of the task.
+     */
+    public float getLatestFinishTime(int index) {
+        return this.latestFinishTimes[index];
+    }
+
+    /**
+     * Gets the total float of a task, which is how long it can be delayed without delaying the whole project.
+     * @param index The number of the task.
+     * @return The total float of the task.
+     */
+    public float getTotalFloat(int index) {
+        return this.latestFinishTimes[index] - (this.earlyStartTimes[index] + this.durations[index]);
+    }
+
+    /**
+     * Gets the free float of a task, which is how long it can be delayed without delaying any of its successors.
+     * @param index The number of the task.
+     * @return The free float of the task.
+     */
+    public float getFreeFloat(int index) {
+        float earlyFinishTime = this.earlyStartTimes[index] + this.durations[index];
+        if (this.successorOffsets[index] == this.successorOffsets[index + 1]){
+            return this.latestFinishTimes[index] - earlyFinishTime;
+        }
+        float freeFloat = Float.MAX_VALUE;
+        for (int k = this.successorOffsets[index]; k < this.successorOffsets[index + 1]; k++){
+            freeFloat = Math.min(freeFloat, this.earlyStartTimes[this.successors[k]] - earlyFinishTime);
+        }
+        return freeFloat;
+    }
+
+    /**
+     * Gets the minimum time the whole project can be completed in.
+     * @return The early start time of _END_.
+     */
+    public float getProjectDuration() {
+        return this.earlyStartTimes[this.ids.length - 1];
+    }
+
+    /**
+     * Gets the numbers of the predecessors of a task.
+     * @param index The number of the task.
+     * @return A new array containing the numbers of the task's predecessors.
+     */
+    public int[] getPredecessors(int index) {
+        int[] result = new int[this.predecessorOffsets[index + 1] - this.predecessorOffsets[index]];
+        System.arraycopy(this.predecessors, this.predecessorOffsets[index], result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Gets the numbers of the successors of a task.
+     * @param index The number of the task.
+     * @return A new array containing the numbers of the task's successors.
+     */
+    public int[] getSuccessors(int index) {
+        int[] result = new int[this.successorOffsets[index + 1] - this.successorOffsets[index]];
+        System.arraycopy(this.successors, this.successorOffsets[index], result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Gets the task a number stands for.
+     * @param index The number of the task.
+     * @return The task, or null if the network was built from arrays.
+     */
+    Task getTask(int index) {
+        return this.tasks == null ? null : this.tasks[index];
+    }
+
+    /**
+     * Gets the durations of all the tasks. Used by the other engines in the package, so isn't copied.
+     * @return The array of durations.
+     */
+    float[] durations() {
+        return this.durations;
+    }
+
+    /**
+     * Gets the early start times of all the tasks. Used by the other engines in the package, so isn't copied.
+     * @return The array of early start times.
+     */
+    float[] earlyStartTimes() {
+        return this.earlyStartTimes;
+    }
+
+    /**
+     * Gets the latest finish times of all the tasks. Used by the other engines in the package, so isn't copied.
+     * @return The array of latest finish times.
+     */
+    float[] latestFinishTimes() {
+        return this.latestFinishTimes;
+    }
+
+    /**
+     * Calculates the early start and latest finish times of all the tasks in the network.
+     */
+    public void schedule() {
+        this.forwardPass(this.durations, this.earlyStartTimes);
+        this.backwardPass(this.durations, this.earlyStartTimes, this.latestFinishTimes);
+    }
+
+    /**
+     * Calculates the early start and latest finish times of all the tasks in the network using several threads. The
+     * tasks are grouped into levels that don't depend on each other, and each level is split between the threads of
+     * the pool once the previous level is done. The results are exactly the same as schedule().
+     * @param pool The pool whose threads are used.
+     */
+    public void schedule(ForkJoinPool pool) {
+        if (this.levelOffsets == null){
+            this.findLevels();
+        }
+        int levels = this.levelOffsets.length - 1;
+        for (int l = 0; l < levels; l++){
+            this.runLevel(pool, l, true);
+        }
+        for (int l = levels - 1; l >= 0; l--){
+            this.runLevel(pool, l, false);
+        }
+    }
+
+    /**
+     * Calculates the times of all the tasks in one level, in parallel if the level is big enough.
+     * @param pool The pool whose threads are used.
+     * @param level The level to calculate.
+     * @param forward True to calculate early start times, false to calculate latest finish times.
+     */
+    private void runLevel(ForkJoinPool pool, int level, boolean forward) {
+        LevelPass pass = new LevelPass(this, this.levelOffsets[level], this.levelOffsets[level + 1], forward);
+        if (this.levelOffsets[level + 1] - this.levelOffsets[level] < PARALLEL_THRESHOLD){
+            pass.compute();
+        }
+        else {
+            pool.invoke(pass);
+        }
+    }
+
+    /**
+     * Groups the tasks into levels. As the tasks are numbered in topological order the level of every predecessor is
+     * known by the time a task is reached.
+     */
+    private void findLevels() {
+        int size = this.ids.length;
+        int[] levels = new int[size];
+        int levelCount = 0;
+        for (int i = 0; i < size; i++){
+            int level = 0;
+            for (int k = this.predecessorOffsets[i]; k < this.predecessorOffsets[i + 1]; k++){
+                level = Math.max(level, levels[this.predecessors[k]] + 1);
+            }
+            levels[i] = level;
+            levelCount = Math.max(levelCount, level + 1);
+        }
+
+        // put the tasks into their levels with a counting sort
+        int[] offsets = new int[levelCount + 1];
+        for (int i = 0; i < size; i++){
+            offsets[levels[i] + 1]++;
+        }
+        for (int l = 0; l < levelCount; l++){
+            offsets[l + 1] += offsets[l];
+        }
+        int[] next = new int[levelCount];
+        System.arraycopy(offsets, 0, next, 0, levelCount);
+        int[] tasks = new int[size];
+        for (int i = 0; i < size; i++){
+            tasks[next[levels[i]]++] = i;
+        }
+        this.levelOffsets = offsets;
+        this.levelTasks = tasks;
+    }
+
+    /**
+     * Calculates the early start time of one task from the times of its predecessors.
+     * @param i The number of the task.
+     * @param durations The durations to use for each task.
+     * @param earlyStartTimes The array of early start times, which is written to.
+     */
+    private void forwardStep(int i, float[] durations, float[] earlyStartTimes) {
+        float earlyStartTime = 0;
+        for (int k = this.predecessorOffsets[i]; k < this.predecessorOffsets[i + 1]; k++){
+            int p = this.predecessors[k];
+            if (earlyStartTime < durations[p] + earlyStartTimes[p]){
+                earlyStartTime = durations[p] + earlyStartTimes[p];
+            }
+        }
+        earlyStartTimes[i] = earlyStartTime;
+    }
+
+    /**
+     * Calculates the latest finish time of one task from the times of its successors.
+     * @param i The number of the task.
+     * @param durations The durations to use for each task.
+     * @param earlyStartTimes The array of early start times.
+     * @param latestFinishTimes The array of latest finish times, which is written to.
+     */
+    private void backwardStep(int i, float[] durations, float[] earlyStartTimes, float[] latestFinishTimes) {
+        if (i == this.ids.length - 1){
+            latestFinishTimes[i] = earlyStartTimes[i];
+            return;
+        }
+        float latestFinishTime = Float.MAX_VALUE;
+        for (int k = this.successorOffsets[i]; k < this.successorOffsets[i + 1]; k++){
+            int s = this.successors[k];
+            if (latestFinishTime > latestFinishTimes[s] - durations[s]){
+                latestFinishTime = latestFinishTimes[s] - durations[s];
+            }
+        }
+        latestFinishTimes[i] = latestFinishTime;
+    }
+
+    /**
+     * Calculates early start times into the given array. As the tasks are numbered in topological order every
+     * predecessor of a task has already been done when the task is reached.
+     * @param durations The durations to use for each task.
+     * @param earlyStartTimes The array the early start times are written to.
+     */
+    void forwardPass(float[] durations, float[] earlyStartTimes) {
+        this.forwardPass(durations, earlyStartTimes, 0);
+    }
+
+    /**
+     * Calculates early start times into the given array, starting part way through the network. The early start
+     * times of the tasks before the first one must already be in the array.
+     * @param durations The durations to use for each task.
+     * @param earlyStartTimes The array the early start times are written to.
+     * @param first The number of the first task to calculate.
+     */
+    void forwardPass(float[] durations, float[] earlyStartTimes, int first) {
+        int size = this.ids.length;
+        for (int i = first; i < size; i++){
+            this.forwardStep(i, durations, earlyStartTimes);
+        }
+    }
+
+    /**
+     * Calculates latest finish times into the given array, going through the tasks backwards.
+     * @param durations The durations to use for each task.
+     * @param earlyStartTimes The early start times already calculated by forwardPass().
+     * @param latestFinishTimes The array the latest finish times are written to.
+     */
+    void backwardPass(float[] durations, float[] earlyStartTimes, float[] latestFinishTimes) {
+        for (int i = this.ids.length - 1; i >= 0; i--){
+            this.backwardStep(i, durations, earlyStartTimes, latestFinishTimes);
+        }
+    }
+
+    /**
+     * Copies the start/finish times back onto the tasks the network was built from.
+     */
+    void copyTimesToTasks() {
+        for (int i = 0; i < this.tasks.length; i++){
+            this.tasks[i].setEarlyStartTime(this.earlyStartTimes[i]);
+            this.tasks[i].setLatestFinishTime(this.latestFinishTimes[i]);
+        }
+    }
+
+    /**
+     * Creates a new critical path network with the same tasks, durations and predecessors as this network.
+     * @return A new CriticalPathGraph containing copies of the tasks.
+     */
+    public CriticalPathGraph toCriticalPathGraph() {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        int end = this.ids.length - 1;
+        Task[] copies = new Task[this.ids.length];
+        copies[0] = graph.getStartTask();
+        copies[end] = graph.getEndTask();
+
+        graph.beginUpdate();
+        try {
+            for (int i = 1; i < end; i++){
+                ArrayList<Task> predecessors = new ArrayList<>();
+                for (int k = this.predecessorOffsets[i]; k < this.predecessorOffsets[i + 1]; k++){
+                    predecessors.add(copies[this.predecessors[k]]);
+                }
+                copies[i] = new Task(this.ids[i], this.durations[i], predecessors);
+                graph.addTask(copies[i]);
+            }
+        }
+        catch (DuplicateTaskException | TaskNotFoundException | CyclicDependencyException e) {
+            // can't happen, as the ids of a compact network are unique and its tasks are in topological order
+            throw new IllegalStateException(" an invalid compact network", e);
+        }
+        finally {
+            graph.endUpdate();
+        }
+        return graph;
+    }
+
+    /**
+     * Calculates the times of a range of tasks in a level, splitting the range in half until it is small enough to be
+     * done by one thread. Passes are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class LevelPass extends RecursiveAction {
+
+        private final CompactNetwork network;
+        private final int from;
+        private final int to;
+        private final boolean forward;
+
+        /**
+         * Creates a pass over part of a level.
+         * @param network The network being scheduled.
+         * @param from The position in levelTasks of the first task in the range.
+         * @param to The position in levelTasks after the last task in the range.
+         * @param forward True to calculate early start times, false to calculate latest finish times.
+         */
+        private LevelPass(CompactNetwork network, int from, int to, boolean forward) {
+            this.network = network;
+            this.from = from;
+            this.to = to;
+            this.forward = forward;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > PARALLEL_THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new LevelPass(this.network, this.from, middle, this.forward),
+                          new LevelPass(this.network, middle, this.to, this.forward));
+                return;
+            }
+            CompactNetwork n = this.network;
+            for (int k = this.from; k < this.to; k++){
+                if (this.forward){
+                    n.forwardStep(n.levelTasks[k], n.durations, n.earlyStartTimes);
+                }
+                else {
+                    n.backwardStep(n.levelTasks[k], n.durations, n.earlyStartTimes, n.latestFinishTimes);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * A critical path network that many threads can read while one thread at a time changes it. Changes are made to a
+ * private CriticalPathGraph one writer at a time, and after each change an unchangeable NetworkSnapshot of the new
+ * schedule is published. Readers only ever see a published snapshot, which never changes under them, so reading
+ * takes no locks, never waits for a writer and scales across every core. The network keeps its times up to date as
+ * it changes, so a snapshot copies them rather than scheduling again, and a change that only moves times shares the
+ * tasks, links and unchanged times of the previous snapshot.
+ * @author Cameron Sabuda
+ */
+public class ConcurrentCriticalPathGraph {
+
+    /**
+     * A change to the network, made while no other writer can change it.
+     */
+    public interface Update {
+
+        /**
+         * Makes the change.
+         * @param graph The network, which must not be kept or used after the change is made.
+         * @throws DuplicateTaskException Thrown by the network if a task with the same id is added.
+         * @throws TaskNotFoundException Thrown by the network if a task isn't found.
+         * @throws CyclicDependencyException Thrown by the network if a change would cause a cycle.
+         * @throws InvalidTaskDeleteException Thrown by the network if _START_ or _END_ is deleted.
+         */
+        void apply(CriticalPathGraph graph) throws DuplicateTaskException, TaskNotFoundException,
+                CyclicDependencyException, InvalidTaskDeleteException;
+    }
+
+    private final CriticalPathGraph graph;
+
+    /**
+     * Held by the writer changing the network.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * The latest published schedule.
+     */
+    private volatile NetworkSnapshot snapshot;
+
+    /**
+     * The changes the network has reported during the current update.
+     */
+    private final ArrayList<ScheduleChange> changes = new ArrayList<>();
+
+    /**
+     * Creates an empty network.
+     */
+    public ConcurrentCriticalPathGraph() {
+        this(new CriticalPathGraph());
+    }
+
+    /**
+     * Creates a concurrent network from an existing network, which must not be used directly afterwards.
+     * @param graph The network.
+     */
+    public ConcurrentCriticalPathGraph(CriticalPathGraph graph) {
+        this.graph = graph;
+        graph.addScheduleChangeListener(this.changes::add);
+        this.snapshot = new NetworkSnapshot(graph);
+    }
+
+    /**
+     * Gets the latest published schedule. Never blocks, and the snapshot returned stays the same however the network
+     * changes afterwards, so several reads from it are always consistent with each other.
+     * @return The latest snapshot.
+     */
+    public NetworkSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Makes a change to the network and publishes the new schedule. Several changes can be made in one update so only
+     * one snapshot is taken for them all. The new schedule is published even if the update throws an exception part
+     * way through, so readers always see what is in the network.
+     * @param update The change to make.
+     * @return The snapshot published after the change.
+     * @throws DuplicateTaskException Thrown if the update adds a task with the same id as another task.
+     * @throws TaskNotFoundException Thrown if the update uses a task that isn't in the network.
+     * @throws CyclicDependencyException Thrown if the update would cause a cycle.
+     * @throws InvalidTaskDeleteException Thrown if the update deletes _START_ or _END_.
+     */
+    public NetworkSnapshot update(Update update) throws DuplicateTaskException, TaskNotFoundException,
+            CyclicDependencyException, InvalidTaskDeleteException {
+        synchronized (this.writeLock){
+            this.changes.clear();
+            boolean applied = false;
+            try {
+                update.apply(this.graph);
+                applied = true;
+            }
+            finally {
+                // an update that failed part way may not have reported everything it changed
+                this.snapshot = applied ? this.takeSnapshot() : new NetworkSnapshot(this.graph);
+                this.changes.clear();
+            }
+            return this.snapshot;
+        }
+    }
+
+    /**
+     * Takes a snapshot after an update. If the update only changed durations and times, the new snapshot is made from
+     * the previous one with just those tasks changed. Otherwise the whole network is copied again.
+     * @return The new snapshot.
+     */
+    private NetworkSnapshot takeSnapshot() {
+        if (this.graph.isUpdating()){
+            return new NetworkSnapshot(this.graph);
+        }
+        LinkedHashSet<Task> changed = new LinkedHashSet<>();
+        for (ScheduleChange change : this.changes){
+            if (!change.getAddedTasks().isEmpty() || !change.getDeletedTasks().isEmpty()
+                    || !change.getAddedDependencies().isEmpty() || !change.getRemovedDependencies().isEmpty()){
+                return new NetworkSnapshot(this.graph);
+            }
+            for (TaskChange taskChange : change.getTaskChanges()){
+                if (!taskChange.getOldId().equals(taskChange.getTask().getId())){
+                    return new NetworkSnapshot(this.graph);
+                }
+                changed.add(taskChange.getTask());
+            }
+        }
+        return this.snapshot.withChanges(changed);
+    }
+
+    /**
+     * Adds a new task to the network.
+     * @param id The id of the task.
+     * @param duration The duration of the task.
+     * @param predecessorIds The ids of the tasks it depends on.
+     * @return The snapshot published after the change.
+     * @throws DuplicateTaskException Thrown if a task with the id is already in the network.
+     * @throws TaskNotFoundException Thrown if a predecessor isn't in the network.
+     * @throws CyclicDependencyException Thrown if _END_ is one of the predecessors.
+     */
+    public NetworkSnapshot addTask(String id, float duration, String... predecessorIds)
+            throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
+        try {
+            return this.update(graph -> {
+                ArrayList<Task> predecessors = new ArrayList<>();
+                for (String predecessorId : predecessorIds){
+                    predecessors.add(graph.getTask(predecessorId));
+                }
+                graph.addTask(new Task(id, duration, predecessors));
+            });
+        }
+        catch (InvalidTaskDeleteException e) {
+            // can't happen, as nothing is deleted
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Makes a task depend on another task.
+     * @param predecessorId The id of the task that should become a predecessor.
+     * @param id The id of the task that should depend on it.
+     * @return The snapshot published after the change.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network.
+     * @throws CyclicDependencyException Thrown if the predecessor already depends on the task.
+     */
+    public NetworkSnapshot addDependency(String predecessorId, String id)
+            throws TaskNotFoundException, CyclicDependencyException {
+        try {
+            return this.update(graph -> graph.addDependency(graph.getTask(predecessorId), graph.getTask(id)));
+        }
+        catch (DuplicateTaskException | InvalidTaskDeleteException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stops a task depending on one of its predecessors.
+     * @param predecessorId The id of the predecessor.
+     * @param id The id of the task that should no longer depend on it.
+     * @return The snapshot published after the change.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network or the task doesn't depend on the
+     * predecessor.
+     */
+    public NetworkSnapshot removeDependency(String predecessorId, String id) throws TaskNotFoundException {
+        try {
+            return this.update(graph -> graph.removeDependency(graph.getTask(predecessorId), graph.getTask(id)));
+        }
+        catch (DuplicateTaskException | CyclicDependencyException | InvalidTaskDeleteException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Changes the duration of a task.
+     * @param id The id of the task.
+     * @param duration The new duration of the task.
+     * @return The snapshot published after the change.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    public NetworkSnapshot setTaskDuration(String id, float duration) throws TaskNotFoundException {
+        try {
+            return this.update(graph -> graph.setTaskDuration(graph.getTask(id), duration));
+        }
+        catch (DuplicateTaskException | CyclicDependencyException | InvalidTaskDeleteException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Deletes a task from the network.
+     * @param id The id of the task.
+     * @return The snapshot published after the change.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     * @throws InvalidTaskDeleteException Thrown if the task is _START_ or _END_.
+     */
+    public NetworkSnapshot deleteTask(String id) throws TaskNotFoundException, InvalidTaskDeleteException {
+        try {
+            return this.update(graph -> graph.deleteTask(graph.getTask(id)));
+        }
+        catch (DuplicateTaskException | CyclicDependencyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds the cheapest way to shorten a project by crashing tasks: paying to make them take less time, down to a
+ * shortest possible duration. This is Phillips and Dessouky's method. Each step finds the cheapest cut of the critical
+ * subgraph with a maximum flow. Tasks the cut crosses forwards are shortened, and tasks it crosses backwards that were
+ * crashed earlier are lengthened again, which gets their crash cost back. Every critical path then gets shorter by
+ * the same amount. The step goes on for as long as that cut stays the cheapest, which is until a task runs out of
+ * room to shorten or lengthen, or another path becomes critical. The durations are changed through the network's
+ * incremental updates, so each step only recalculates the times that change.
+ * <p>
+ * The optimizer works on its own copy of the network, so the network it was made from isn't changed.
+ * @author Cameron Sabuda
+ */
+public class CrashOptimizer {
+
+    private final CriticalPathGraph graph;
+
+    /**
+     * The durations of the tasks before they were crashed.
+     */
+    private final HashMap<Task, Float> normalDurations = new HashMap<>();
+    private final float normalProjectDuration;
+
+    /**
+     * The shortest duration of each task that can be crashed, and the cost of shortening it by one unit of time.
+     */
+    private final HashMap<Task, Float> minimumDurations = new HashMap<>();
+    private final HashMap<Task, Float> crashCosts = new HashMap<>();
+
+    /**
+     * Creates an optimizer for a copy of a network. None of the tasks can be crashed until setCrashOption() is called.
+     * @param graph The network to optimize.
+     */
+    public CrashOptimizer(CriticalPathGraph graph) {
+        this.graph = new CompactNetwork(graph).toCriticalPathGraph();
+        this.graph.setMetrics(graph.getMetrics());
+        for (Task task : this.graph.getTasks()){
+            this.normalDurations.put(task, task.getDuration());
+        }
+        this.normalProjectDuration = this.graph.getEndTask().getEarlyStartTime();
+    }
+
+    /**
+     * Lets a task be crashed.
+     * @param id The id of the task.
+     * @param minimumDuration The shortest the task can be made to take.
+     * @param costPerUnit The cost of shortening the task by one unit of time.
+     * @throws TaskNotFoundException Thrown if the network has no task with the id.
+     */
+    public void setCrashOption(String id, float minimumDuration, float costPerUnit) throws TaskNotFoundException {
+        Task task = this.graph.getTask(id);
+        if (task == this.graph.getStartTask() || task == this.graph.getEndTask()){
+            throw new RuntimeException(" an attempted crash of _START_/_END_ node");
+        }
+        if (!(minimumDuration >= 0) || minimumDuration > this.normalDurations.get(task)){
+            throw new IllegalArgumentException(" an invalid minimum duration: " + minimumDuration);
+        }
+        if (!(costPerUnit >= 0)){
+            throw new IllegalArgumentException(" an invalid crash cost: " + costPerUnit);
+        }
+        this.minimumDurations.put(task, minimumDuration);
+        this.crashCosts.put(task, costPerUnit);
+    }
+
+    /**
+     * Gets the length of the project before any task is crashed.
+     * @return The normal project duration.
+     */
+    public float getNormalProjectDuration() {
+        return this.normalProjectDuration;
+    }
+
+    /**
+     * Shortens the project as cheaply as possible, starting from the normal durations every time it is called.
+     * @param reduction How much shorter to make the project. If it can't be shortened that much it is made as short as
+     * it can be.
+     * @return The cost of each length of the project on the way, each of which is the least it can cost.
+     */
+    public TimeCostCurve crash(float reduction) {
+        if (!(reduction >= 0)){
+            throw new IllegalArgumentException(" an invalid reduction: " + reduction);
+        }
+        this.reset();
+        Task endTask = this.graph.getEndTask();
+        float projectDuration = endTask.getEarlyStartTime();
+        float target = projectDuration - reduction;
+        TimeCostCurve curve = new TimeCostCurve(projectDuration);
+        double cost = 0;
+
+        try {
+            while (projectDuration - target > this.graph.getCriticalTolerance()){
+                float tolerance = this.graph.getCriticalTolerance();
+                ArrayList<Task> shortened = new ArrayList<>();
+                ArrayList<Task> lengthened = new ArrayList<>();
+                double cutCost = this.findCheapestCut(this.graph.getCriticalSubgraph(), tolerance, shortened,
+                                                      lengthened);
+                if (shortened.isEmpty()){
+                    break;
+                }
+
+                // go as far as the tasks of the cut can be shortened and lengthened
+                float step = projectDuration - target;
+                HashMap<Task, Float> durations = new HashMap<>();
+                HashMap<Task, Integer> directions = new HashMap<>();
+                for (Task task : shortened){
+                    step = Math.min(step, task.getDuration() - this.minimumDurations.get(task));
+                    durations.put(task, task.getDuration());
+                    directions.put(task, 1);
+                }
+                for (Task task : lengthened){
+                    step = Math.min(step, this.normalDurations.get(task) - task.getDuration());
+                    durations.put(task, task.getDuration());
+                    directions.put(task, -1);
+                }
+                this.applyStep(durations, directions, step);
+
+                // A path that wasn't critical can become longer than the critical paths part way through the step,
+                // and one that goes through lengthened tasks can even get longer. Every path changes length in
+                // proportion to the step, so the step is cut back to where the longest path meets the critical
+                // paths, and again if another path is then the longest.
+                float shortenedDuration = endTask.getEarlyStartTime();
+                while (shortenedDuration - (projectDuration - step) > tolerance){
+                    int rate = this.getLongestPathRate(directions);
+                    float length = shortenedDuration + step * rate;
+                    float meet = (projectDuration - length) / (1 - rate);
+                    if (rate >= 1 || !(meet < step)){
+                        break;
+                    }
+                    step = Math.max(0, meet);
+                    this.applyStep(durations, directions, step);
+                    shortenedDuration = endTask.getEarlyStartTime();
+                }
+
+                if (!(shortenedDuration < projectDuration)){
+                    break;
+                }
+                cost += step * cutCost;
+                projectDuration = shortenedDuration;
+                curve.addPoint(projectDuration, cost);
+            }
+        }
+        catch (TaskNotFoundException e) {
+            // can't happen, as the tasks all come from the optimizer's own network
+            throw new IllegalStateException(e);
+        }
+        return curve;
+    }
+
+    /**
+     * Shortens and lengthens the tasks of a cut by a step.
+     * @param durations The durations of the tasks before the step.
+     * @param directions 1 for each task to shorten and -1 for each task to lengthen.
+     * @param step How much to change each task by.
+     * @throws TaskNotFoundException Thrown if a task isn't in the optimizer's network.
+     */
+    private void applyStep(HashMap<Task, Float> durations, HashMap<Task, Integer> directions, float step)
+            throws TaskNotFoundException {
+        HashMap<Task, Float> changed = new HashMap<>();
+        for (Map.Entry<Task, Float> entry : durations.entrySet()){
+            Task task = entry.getKey();
+            float duration = entry.getValue() - directions.get(task) * step;
+            changed.put(task, Math.min(this.normalDurations.get(task),
+                                       Math.max(this.minimumDurations.get(task), duration)));
+        }
+        this.graph.setTaskDurations(changed);
+    }
+
+    /**
+     * Follows the longest path back from _END_ and works out how fast it gets shorter as the step grows.
+     * @param directions 1 for each task being shortened and -1 for each task being lengthened.
+     * @return How much the path gets shorter for each unit of the step.
+     */
+    private int getLongestPathRate(HashMap<Task, Integer> directions) {
+        int rate = 0;
+        Task task = this.graph.getEndTask();
+        while (task != this.graph.getStartTask()){
+            Task latest = null;
+            for (Task tsk : task.getPredecessors()){
+                if (latest == null || tsk.getEarlyStartTime() + tsk.getDuration()
+                        > latest.getEarlyStartTime() + latest.getDuration()){
+                    latest = tsk;
+                }
+            }
+            task = latest;
+            rate += directions.getOrDefault(task, 0);
+        }
+        return rate;
+    }
+
+    /**
+     * Gets the durations of the tasks that were shortened by the last call to crash().
+     * @return A map from the id of each crashed task to its crashed duration, in topological order.
+     */
+    public LinkedHashMap<String, Float> getCrashedDurations() {
+        LinkedHashMap<String, Float> durations = new LinkedHashMap<>();
+        for (Task task : this.graph.getTopologicalOrder()){
+            if (task.getDuration() != this.normalDurations.get(task)){
+                durations.put(task.getId(), task.getDuration());
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Puts every task back to its normal duration.
+     */
+    private void reset() {
+        try {
+            HashMap<Task, Float> durations = new HashMap<>();
+            for (Task task : this.minimumDurations.keySet()){
+                durations.put(task, this.normalDurations.get(task));
+            }
+            this.graph.setTaskDurations(durations);
+        }
+        catch (TaskNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Finds the cheapest cut of the critical subgraph. Each task is split into an arc from an "in" node to an "out"
+     * node and the critical links become arcs of infinite capacity. A task's arc costs its crash cost to cross
+     * forwards if it can still be shortened, and infinitely much if it can't. A task that has been crashed can be
+     * lengthened again, which saves its crash cost when the cut crosses it backwards. That saving is the arc's lower
+     * bound, so the cut is found with a maximum flow that has lower bounds. First a flow that meets every lower bound
+     * is found through an extra source and sink, and then it is made as big as it can be from _START_ to _END_.
+     * @param subgraph The critical subgraph of the network.
+     * @param tolerance How close to its minimum or normal duration a task can be and still be treated as at it.
+     * @param shortened Where the tasks the cut crosses forwards are put. Left empty if every cut costs infinitely much.
+     * @param lengthened Where the crashed tasks the cut crosses backwards are put.
+     * @return The cost of shortening the project by one unit of time through the cut.
+     */
+    private double findCheapestCut(CriticalSubgraph subgraph, float tolerance, ArrayList<Task> shortened,
+                                   ArrayList<Task> lengthened) {
+        ArrayList<Task> tasks = subgraph.getTasks();
+        int size = tasks.size();
+        HashMap<Task, Integer> numbers = new HashMap<>();
+        for (int i = 0; i < size; i++){
+            numbers.put(tasks.get(i), i);
+        }
+        int extraSource = 2 * size;
+        int extraSink = 2 * size + 1;
+        MaxFlow flow = new MaxFlow(2 * size + 2, 3 * size + subgraph.getEdgeCount() + 1);
+        double[] costs = new double[size];
+        boolean[] lengthenable = new boolean[size];
+        double[] excesses = new double[2 * size];
+        for (int i = 0; i < size; i++){
+            Task task = tasks.get(i);
+            Float minimum = this.minimumDurations.get(task);
+            boolean shortenable = false;
+            if (minimum != null){
+                costs[i] = this.crashCosts.get(task);
+                shortenable = task.getDuration() - minimum > tolerance;
+                lengthenable[i] = this.normalDurations.get(task) - task.getDuration() > tolerance;
+            }
+            double lower = lengthenable[i] ? costs[i] : 0;
+            double upper = shortenable ? costs[i] : Double.POSITIVE_INFINITY;
+            flow.addArc(2 * i, 2 * i + 1, upper - lower);
+            excesses[2 * i] -= lower;
+            excesses[2 * i + 1] += lower;
+            for (Task successor : subgraph.getSuccessors(task)){
+                flow.addArc(2 * i + 1, 2 * numbers.get(successor), Double.POSITIVE_INFINITY);
+            }
+        }
+
+        int source = 2 * numbers.get(this.graph.getStartTask());
+        int sink = 2 * numbers.get(this.graph.getEndTask()) + 1;
+
+        // meet the lower bounds, letting flow go round from _END_ back to _START_
+        int returnArc = flow.addArc(sink, source, Double.POSITIVE_INFINITY);
+        double required = 0;
+        for (int node = 0; node < excesses.length; node++){
+            if (excesses[node] > 0){
+                flow.addArc(extraSource, node, excesses[node]);
+                required += excesses[node];
+            }
+            else if (excesses[node] < 0){
+                flow.addArc(node, extraSink, -excesses[node]);
+            }
+        }
+        if (required > 0 && flow.run(extraSource, extraSink) < required * (1 - 1e-9)){
+            // can't happen, as each step leaves the network crashed as cheaply as it can be for its length
+            throw new IllegalStateException(" a crashed network that isn't the cheapest for its length");
+        }
+        flow.closeArc(returnArc);
+        flow.closeNode(extraSource);
+        flow.closeNode(extraSink);
+
+        if (flow.run(source, sink) == Double.POSITIVE_INFINITY){
+            return Double.POSITIVE_INFINITY;
+        }
+        boolean[] reached = flow.findReachable(source);
+        double cost = 0;
+        for (int i = 0; i < size; i++){
+            if (reached[2 * i] && !reached[2 * i + 1]){
+                shortened.add(tasks.get(i));
+                cost += costs[i];
+            }
+            else if (!reached[2 * i] && reached[2 * i + 1] && lengthenable[i]){
+                lengthened.add(tasks.get(i));
+                cost -= costs[i];
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * A maximum flow network solved with Dinic's algorithm. Arcs are kept in pairs, so the reverse of arc a is a ^ 1.
+     */
+    private static class MaxFlow {
+
+        private final int[] firstArcs;
+        private int[] arcHeads;
+        private int[] nextArcs;
+        private double[] capacities;
+        private int arcCount;
+        private final int[] levels;
+
+        private MaxFlow(int nodes, int arcs) {
+            this.firstArcs = new int[nodes];
+            Arrays.fill(this.firstArcs, -1);
+            this.arcHeads = new int[2 * arcs];
+            this.nextArcs = new int[2 * arcs];
+            this.capacities = new double[2 * arcs];
+            this.levels = new int[nodes];
+        }
+
+        /**
+         * Adds an arc and its reverse.
+         * @param from The node the arc leaves.
+         * @param to The node the arc enters.
+         * @param capacity The capacity of the arc.
+         * @return The number of the arc.
+         */
+        private int addArc(int from, int to, double capacity) {
+            if (this.arcCount + 2 > this.arcHeads.length){
+                int length = Math.max(4, this.arcHeads.length * 2);
+                this.arcHeads = Arrays.copyOf(this.arcHeads, length);
+                this.nextArcs = Arrays.copyOf(this.nextArcs, length);
+                this.capacities = Arrays.copyOf(this.capacities, length);
+            }
+            int arc = this.arcCount;
+            this.arcHeads[arc] = to;
+            this.capacities[arc] = capacity;
+            this.nextArcs[arc] = this.firstArcs[from];
+            this.firstArcs[from] = arc;
+            this.arcHeads[arc + 1] = from;
+            this.capacities[arc + 1] = 0;
+            this.nextArcs[arc + 1] = this.firstArcs[to];
+            this.firstArcs[to] = arc + 1;
+            this.arcCount += 2;
+            return arc;
+        }
+
+        /**
+         * Takes an arc and its reverse out of the network, along with any flow through it.
+         * @param arc The number of the arc.
+         */
+        private void closeArc(int arc) {
+            this.capacities[arc] = 0;
+            this.capacities[arc ^ 1] = 0;
+        }
+
+        /**
+         * Takes every arc into or out of a node out of the network.
+         * @param node The node.
+         */
+        private void closeNode(int node) {
+            for (int arc = this.firstArcs[node]; arc >= 0; arc = this.nextArcs[arc]){
+                this.closeArc(arc);
+            }
+        }
+
+        /**
+         * Finds the maximum flow from the source to the sink.
+         * @param source The source node.
+         * @param sink The sink node.
+         * @return The value of the flow, which is infinite if there is a path of infinite capacity.
+         */
+        private double run(int source, int sink) {
+            double total = 0;
+            int[] currentArcs = new int[this.firstArcs.length];
+            int[] path = new int[this.firstArcs.length];
+            while (this.findLevels(source, sink)){
+                System.arraycopy(this.firstArcs, 0, currentArcs, 0, currentArcs.length);
+                // find blocking flow with a depth first search that keeps the path it is following in an array
+                int depth = 0;
+                int node = source;
+                while (true){
+                    if (node == sink){
+                        double bottleneck = Double.POSITIVE_INFINITY;
+                        for (int d = 0; d < depth; d++){
+                            bottleneck = Math.min(bottleneck, this.capacities[path[d]]);
+                        }
+                        if (bottleneck == Double.POSITIVE_INFINITY){
+                            return bottleneck;
+                        }
+                        total += bottleneck;
+                        int retreat = -1;
+                        for (int d = 0; d < depth; d++){
+                            this.capacities[path[d]] -= bottleneck;
+                            this.capacities[path[d] ^ 1] += bottleneck;
+                            if (retreat < 0 && this.capacities[path[d]] <= 0){
+                                retreat = d;
+                            }
+                        }
+                        depth = retreat;
+                        node = this.arcHeads[path[depth] ^ 1];
+                        continue;
+                    }
+                    int arc = currentArcs[node];
+                    while (arc >= 0 && (this.capacities[arc] <= 0
+                            || this.levels[this.arcHeads[arc]] != this.levels[node] + 1)){
+                        arc = this.nextArcs[arc];
+                    }
+                    currentArcs[node] = arc;
+                    if (arc >= 0){
+                        path[depth++] = arc;
+                        node = this.arcHeads[arc];
+                    }
+                    else if (depth == 0){
+                        break;
+                    }
+                    else {
+                        // a dead end, so nothing more can go through this node in this phase
+                        this.levels[node] = -1;
+                        node = this.arcHeads[path[--depth] ^ 1];
+                        currentArcs[node] = this.nextArcs[currentArcs[node]];
+                    }
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Works out how many arcs with room left each node is from the source.
+         * @param source The source node.
+         * @param sink The sink node.
+         * @return True if the sink can still be reached.
+         */
+        private boolean findLevels(int source, int sink) {
+            Arrays.fill(this.levels, -1);
+            int[] queue = new int[this.levels.length];
+            int head = 0;
+            int tail = 0;
+            this.levels[source] = 0;
+            queue[tail++] = source;
+            while (head < tail){
+                int node = queue[head++];
+                for (int arc = this.firstArcs[node]; arc >= 0; arc = this.nextArcs[arc]){
+                    int next = this.arcHeads[arc];
+                    if (this.capacities[arc] > 0 && this.levels[next] < 0){
+                        this.levels[next] = this.levels[node] + 1;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return this.levels[sink] >= 0;
+        }
+
+        /**
+         * Finds the nodes that can still be reached from the source once the flow is at its maximum, which are the
+         * source side of a minimum cut.
+         * @param source The source node.
+         * @return Which nodes can be reached.
+         */
+        private boolean[] findReachable(int source) {
+            this.findLevels(source, source);
+            boolean[] reached = new boolean[this.levels.length];
+            for (int i = 0; i < reached.length; i++){
+                reached[i] = this.levels[i] >= 0;
+            }
+            return reached;
+        }
+    }
+}
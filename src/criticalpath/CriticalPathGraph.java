@@ -1,9 +1,18 @@
 package criticalpath;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents the critical path network as a whole. Part of the model.
@@ -16,19 +25,122 @@ public class CriticalPathGraph {
      */
     private ArrayList<Task> tasks = new ArrayList<>();
 
+    /**
+     * The tasks in the network indexed by their id, so that lookups and duplicate checks don't have to search the
+     * whole network.
+     */
+    private HashMap<String, Task> taskIndex = new HashMap<>();
+
+    /**
+     * The _START_ node of the network.
+     */
+    private Task startTask;
+
+    /**
+     * The _END_ node of the network.
+     */
+    private Task endTask;
+
+    /**
+     * The way the early start and latest finish times of the tasks are calculated.
+     */
+    private SchedulingMode schedulingMode = SchedulingMode.TOPOLOGICAL;
+
+    /**
+     * The rank to be given to the next task added to the network. Ranks keep the tasks in topological order so that
+     * changes to the start/finish times can be passed on to the affected tasks in the right order.
+     */
+    private int nextRank = 0;
+
+    /**
+     * How many calls to beginUpdate() haven't been matched by a call to endUpdate() yet. While this is above 0 the
+     * linking of tasks to _END_ and the calculation of start/finish times are left until the update ends.
+     */
+    private int updateDepth = 0;
+
+    /**
+     * The pool of threads used to schedule the network in the parallel mode. The network never shuts it down, so
+     * networks share the common pool unless they are given one of their own.
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Where measurements of the scheduling passes are reported.
+     */
+    private EngineMetrics metrics = EngineMetrics.NONE;
+
+    /**
+     * How many units in the last place of the project duration two times can differ by and still be treated as the
+     * same when deciding what is critical, as adding the durations up in a different order can round differently.
+     */
+    static final int CRITICAL_TOLERANCE_ULPS = 64;
+
+    /**
+     * Orders tasks by their total float, then by the order they were added in.
+     */
+    private static final Comparator<Task> BY_TOTAL_FLOAT = (a, b) -> {
+        int compare = Float.compare(a.getTotalFloat(), b.getTotalFloat());
+        return compare != 0 ? compare : Integer.compare(a.serial, b.serial);
+    };
+
+    /**
+     * The tasks other than _START_ and _END_ ordered by their total float, so the tasks closest to being critical can
+     * be found without looking at the whole network. A task is always taken out before its float changes and put back
+     * afterwards.
+     */
+    private TreeSet<Task> floatIndex = new TreeSet<>(BY_TOTAL_FLOAT);
+
+    /**
+     * The serial number to be given to the next task added to the network.
+     */
+    private int nextSerial = 0;
+
+    /**
+     * What is told after each change to the network.
+     */
+    private ArrayList<ScheduleChangeListener> listeners = new ArrayList<>();
+
+    /**
+     * Collects the changes to the tasks of the network until they are passed to the listeners. Only records anything
+     * while there are listeners.
+     */
+    private ScheduleChangeRecorder recorder = new ScheduleChangeRecorder();
+
+    /**
+     * Whether dependencies implied by other dependencies are removed when an update ends, before the network is
+     * scheduled.
+     */
+    private boolean removingRedundantDependencies = false;
+
+    /**
+     * Goes up by one every time the tasks, links or durations of the network change, so results worked out from the
+     * network can tell if they are still up to date.
+     */
+    private long version = 0;
+
     /**
      * Creates a critical path graph with a start and end node of weight 0.
      */
     public CriticalPathGraph() {
         Task start = new Task("_START_", (float)0.0, new ArrayList<>());
         Task end = new Task("_END_", (float)0.0 ,  new ArrayList<>());
-        this.tasks.add(start);
+        start.recorder = this.recorder;
+        end.recorder = this.recorder;
+        this.appendTask(start);
         end.addPredecessor(start);
-        this.tasks.add(end);
+        this.appendTask(end);
+
+        this.startTask = start;
+        this.endTask = end;
+        start.rank = Integer.MIN_VALUE;
+        end.rank = Integer.MAX_VALUE;
+        this.taskIndex.put(start.getId(), start);
+        this.taskIndex.put(end.getId(), end);
     }
 
     /**
-     * Returns the tasks in the network.
+     * Returns the tasks in the network. _START_ and _END_ always come first, but the other tasks are in no particular
+     * order, as deleting a task moves the last task into its place.
      * @return An ArrayList of all tasks in the network.
      */
     public ArrayList<Task> getTasks() {
@@ -36,46 +148,430 @@ public class CriticalPathGraph {
     }
 
     /**
-     * Adds a task to the network. If the task is a duplicate task, an exception is thrown.
+     * Adds a task to the end of the list of tasks.
+     * @param task The task to add.
+     */
+    private void appendTask(Task task) {
+        task.position = this.tasks.size();
+        this.tasks.add(task);
+    }
+
+    /**
+     * Takes a task out of the list of tasks by moving the last task into its place, so no other task has to be moved
+     * and the list doesn't have to be searched.
+     * @param task The task to take out.
+     */
+    private void removeFromTasks(Task task) {
+        Task last = this.tasks.remove(this.tasks.size() - 1);
+        if (last != task){
+            this.tasks.set(task.position, last);
+            last.position = task.position;
+        }
+    }
+
+    /**
+     * Adds a task to the network. If the task is a duplicate task, an exception is thrown. A rejected task is unlinked
+     * from the successors of its predecessors so it doesn't show up as a successor in the network.
      * @param task The task to be added to the network
      * @throws DuplicateTaskException Thrown if the task to be added shares an id with a task already in the graph.
+     * @throws TaskNotFoundException Thrown if a predecessor of the task isn't in the graph.
+     * @throws CyclicDependencyException Thrown if the task is a predecessor of itself or of _END_.
      */
-    public void addTask(Task task) throws DuplicateTaskException {
+    public void addTask(Task task) throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
 
         //check if task is duplicate
-        for (Task tsk: this.getTasks()){
-            if (tsk.getId().equals(task.getId())) {
-                throw new DuplicateTaskException(" a duplicate task");
+        if (this.taskIndex.containsKey(task.getId())) {
+            throw new DuplicateTaskException(" a duplicate task");
+        }
+
+        // A new task has no successors yet, so as long as its predecessors are already in the network it can only be
+        // in a cycle if it depends on itself or on _END_ (which every task without successors leads to)
+        for (Task tsk : task.getPredecessors()) {
+            if (tsk == task || tsk == this.endTask) {
+                throw new CyclicDependencyException(tsk == task ? Collections.singletonList(task)
+                                                                : Arrays.asList(task, this.endTask));
+            }
+            if (this.taskIndex.get(tsk.getId()) != tsk) {
+                throw new TaskNotFoundException("Predecessor " + tsk.getId() + " not found");
             }
         }
+
+        this.insertTask(task);
+        this.publishChanges();
+    }
+
+    /**
+     * Adds a task that has already been checked to the network.
+     * @param task The task to be added to the network.
+     */
+    private void insertTask(Task task) {
+        this.version++;
+        this.recorder.taskAdded(task);
+        // the task only becomes a successor of its predecessors now it has been checked and is really being added
+        task.linkToPredecessors();
+        task.recorder = this.recorder;
+
         //Check if activity is a start activity
         if (task.getPredecessors().isEmpty() && !task.getId().equals("_START_")) {
             // System.out.println(task.getId() + " is a start activity");
-            task.getPredecessors().add(this.getStartTask());
+            task.addPredecessor(this.getStartTask());
+        }
+
+        task.rank = this.nextRank++;
+        task.serial = this.nextSerial++;
+        this.appendTask(task);
+        this.taskIndex.put(task.getId(), task);
+        this.floatIndex.add(task);
+
+        // during an update the _END_ task is linked up once all the tasks have been added
+        if (this.updateDepth > 0) {
+            return;
         }
 
         //Check if any of the task's predecessors are a final activity
         for (Task tsk : task.getPredecessors()) {
             // System.out.println(tsk.getId() + " is a predecessor of " + task.getId());
-            if (this.getEndTasks().contains(tsk)) {
+            if (tsk.getSuccessors().contains(this.getEndTask())) {
                 // System.out.println(task.getId() + " is an end activity");
-                this.getEndTask().getPredecessors().remove(tsk);
-                if(!this.getEndTask().getPredecessors().contains(task)){
+                this.getEndTask().removePredecessor(tsk);
+                if(!task.getSuccessors().contains(this.getEndTask())){
                     this.getEndTask().addPredecessor(task);
                 }
             }
         }
 
         //Check if task has any successor tasks, otherwise make it a predecessor of _END_
-        if (getSuccessorTasks(task).isEmpty()) {
-            if (!this.getEndTask().getPredecessors().contains(task)){//check for duplicates
-                this.getEndTask().addPredecessor(task);
+        if (task.getSuccessors().isEmpty()) {
+            this.getEndTask().addPredecessor(task);
+        }
+
+        // only the new task and _END_ have new predecessors, and only the new task and its predecessors have new
+        // successors
+        ArrayList<Task> changedPredecessors = new ArrayList<>();
+        changedPredecessors.add(task);
+        changedPredecessors.add(this.endTask);
+        ArrayList<Task> changedSuccessors = new ArrayList<>(task.getPredecessors());
+        changedSuccessors.add(task);
+        this.updateStartEndTimes(changedPredecessors, changedSuccessors);
+    }
+
+    /**
+     * Adds a collection of tasks to the network in one update. The whole collection is checked before any task is
+     * added, so either all of the tasks are added or none of them are. The tasks can be in any order as long as every
+     * predecessor is either already in the network or in the collection.
+     * @param tasks The tasks to be added to the network.
+     * @throws DuplicateTaskException Thrown if a task shares an id with a task in the graph or another task in the
+     * collection.
+     * @throws TaskNotFoundException Thrown if a predecessor of a task is neither in the graph nor in the collection.
+     * @throws CyclicDependencyException Thrown if tasks in the collection depend on each other in a cycle, or on _END_.
+     */
+    public void addTasks(Collection<Task> tasks)
+            throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
+        HashMap<String, Task> added = new HashMap<>();
+        for (Task task : tasks) {
+            if (this.taskIndex.containsKey(task.getId()) || added.put(task.getId(), task) != null) {
+                throw new DuplicateTaskException(" a duplicate task");
             }
+        }
+        for (Task task : tasks) {
+            for (Task tsk : task.getPredecessors()) {
+                if (tsk == this.endTask) {
+                    throw new CyclicDependencyException(Arrays.asList(task, this.endTask));
+                }
+                if (this.taskIndex.get(tsk.getId()) != tsk && added.get(tsk.getId()) != tsk) {
+                    throw new TaskNotFoundException("Predecessor " + tsk.getId() + " not found");
+                }
+            }
+        }
+        // tasks already in the network never depend on new ones, so any cycle is made of new tasks only
+        ArrayList<Task> cycle = findCycle(tasks, added);
+        if (cycle != null) {
+            throw new CyclicDependencyException(cycle);
+        }
 
+        this.beginUpdate();
+        try {
+            for (Task task : tasks) {
+                this.insertTask(task);
+            }
+        }
+        finally {
+            this.endUpdate();
+        }
+    }
+
+    /**
+     * Looks for a cycle among a collection of new tasks with a depth first search through their predecessors.
+     * @param tasks The new tasks.
+     * @param added The new tasks indexed by their id.
+     * @return The tasks in a cycle, each one a predecessor of the next, or null if there is no cycle.
+     */
+    private static ArrayList<Task> findCycle(Collection<Task> tasks, HashMap<String, Task> added) {
+        // tasks on the current path are mapped to true, tasks that have been finished with to false
+        HashMap<Task, Boolean> onPath = new HashMap<>();
+        ArrayList<Task> path = new ArrayList<>();
+        int[] nextPredecessor = new int[16];
+
+        for (Task root : tasks) {
+            if (onPath.containsKey(root)) {
+                continue;
+            }
+            path.add(root);
+            onPath.put(root, true);
+            nextPredecessor[0] = 0;
+
+            while (!path.isEmpty()) {
+                int depth = path.size() - 1;
+                Task task = path.get(depth);
+                if (nextPredecessor[depth] == task.getPredecessors().size()) {
+                    onPath.put(task, false);
+                    path.remove(depth);
+                    continue;
+                }
+                Task tsk = task.getPredecessors().get(nextPredecessor[depth]++);
+                if (added.get(tsk.getId()) != tsk) {
+                    continue;
+                }
+
+                Boolean state = onPath.get(tsk);
+                if (state == null) {
+                    if (depth + 1 == nextPredecessor.length) {
+                        nextPredecessor = Arrays.copyOf(nextPredecessor, nextPredecessor.length * 2);
+                    }
+                    nextPredecessor[depth + 1] = 0;
+                    path.add(tsk);
+                    onPath.put(tsk, true);
+                }
+                else if (state) {
+                    // each task on the path depends on the one after it, so the cycle runs back along the path
+                    ArrayList<Task> cycle = new ArrayList<>();
+                    cycle.add(tsk);
+                    for (int i = depth; path.get(i) != tsk; i--) {
+                        cycle.add(path.get(i));
+                    }
+                    return cycle;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Makes a task in the network depend on another task in the network. The ranks of the tasks are only rearranged
+     * if the new predecessor is ranked after the task, and then only for the tasks between the two, which is also
+     * where a cycle would be found (Pearce and Kelly's algorithm).
+     * @param predecessor The task that should become a predecessor.
+     * @param task The task that should depend on the predecessor.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network.
+     * @throws CyclicDependencyException Thrown if the predecessor already depends on the task, in which case the network
+     * isn't changed.
+     */
+    public void addDependency(Task predecessor, Task task) throws TaskNotFoundException, CyclicDependencyException {
+        this.checkDependency(predecessor, task);
+        if (task.getPredecessors().contains(predecessor)) {
+            return;
+        }
+        if (predecessor == task) {
+            throw new CyclicDependencyException(Collections.singletonList(task));
+        }
+        if (predecessor.rank > task.rank) {
+            this.reorder(predecessor, task);
+        }
+        this.version++;
+
+        if (predecessor.getSuccessors().contains(this.endTask)) {
+            this.endTask.removePredecessor(predecessor);
+        }
+        // addPredecessor() also unlinks _START_ if it was the task's only predecessor
+        task.addPredecessor(predecessor);
+
+        ArrayList<Task> changedPredecessors = new ArrayList<>(Arrays.asList(task, this.endTask));
+        ArrayList<Task> changedSuccessors = new ArrayList<>(Arrays.asList(predecessor, this.startTask));
+        this.updateStartEndTimes(changedPredecessors, changedSuccessors);
+        this.publishChanges();
+    }
+
+    /**
+     * Stops a task in the network depending on one of its predecessors. Tasks left without predecessors are linked to
+     * _START_ and tasks left without successors are linked to _END_.
+     * @param predecessor The predecessor to be removed.
+     * @param task The task that should no longer depend on the predecessor.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network or the task doesn't depend on the
+     * predecessor.
+     */
+    public void removeDependency(Task predecessor, Task task) throws TaskNotFoundException {
+        this.checkDependency(predecessor, task);
+        if (!task.removePredecessor(predecessor)) {
+            throw new TaskNotFoundException("Dependency not found");
+        }
+        this.version++;
+        if (task.getPredecessors().isEmpty()) {
+            task.addPredecessor(this.startTask);
+        }
+        if (predecessor.getSuccessors().isEmpty()) {
+            this.endTask.addPredecessor(predecessor);
+        }
+
+        ArrayList<Task> changedPredecessors = new ArrayList<>(Arrays.asList(task, this.endTask));
+        ArrayList<Task> changedSuccessors = new ArrayList<>(Arrays.asList(predecessor, this.startTask));
+        this.updateStartEndTimes(changedPredecessors, changedSuccessors);
+        this.publishChanges();
+    }
+
+    /**
+     * Checks that both tasks of a dependency are in the network and neither is _START_ or _END_, which are always
+     * linked automatically.
+     * @param predecessor The predecessor of the dependency.
+     * @param task The task of the dependency.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network.
+     */
+    private void checkDependency(Task predecessor, Task task) throws TaskNotFoundException {
+        if (this.taskIndex.get(predecessor.getId()) != predecessor || this.taskIndex.get(task.getId()) != task) {
+            throw new TaskNotFoundException("Task not found");
+        }
+        if (predecessor == this.startTask || predecessor == this.endTask
+                || task == this.startTask || task == this.endTask) {
+            throw new IllegalArgumentException(" a dependency on _START_/_END_, which are linked automatically");
+        }
+    }
+
+    /**
+     * Rearranges the ranks of the tasks so that a predecessor ranked after a task can be linked to it. The tasks the
+     * task leads to that are ranked before the predecessor, and the tasks leading to the predecessor that are ranked
+     * after the task, are the only ones that have to move. They swap around in the ranks they already had.
+     * @param predecessor The new predecessor.
+     * @param task The task that will depend on the predecessor.
+     * @throws CyclicDependencyException Thrown if the task leads to the predecessor, in which case no ranks are changed.
+     */
+    private void reorder(Task predecessor, Task task) throws CyclicDependencyException {
+        // search forwards from the task, remembering how each task was reached so a cycle can be named
+        ArrayList<Task> forward = new ArrayList<>();
+        HashMap<Task, Task> reachedFrom = new HashMap<>();
+        forward.add(task);
+        reachedFrom.put(task, null);
+        for (int i = 0; i < forward.size(); i++) {
+            Task current = forward.get(i);
+            for (Task tsk : current.getSuccessors()) {
+                if (tsk == predecessor) {
+                    ArrayList<Task> cycle = new ArrayList<>();
+                    cycle.add(predecessor);
+                    for (Task t = current; t != null; t = reachedFrom.get(t)) {
+                        cycle.add(t);
+                    }
+                    Collections.reverse(cycle);
+                    throw new CyclicDependencyException(cycle);
+                }
+                if (tsk.rank < predecessor.rank && !reachedFrom.containsKey(tsk)) {
+                    reachedFrom.put(tsk, current);
+                    forward.add(tsk);
+                }
+            }
+        }
+
+        // search backwards from the predecessor
+        ArrayList<Task> backward = new ArrayList<>();
+        HashSet<Task> reached = new HashSet<>();
+        backward.add(predecessor);
+        reached.add(predecessor);
+        for (int i = 0; i < backward.size(); i++) {
+            for (Task tsk : backward.get(i).getPredecessors()) {
+                if (tsk.rank > task.rank && reached.add(tsk)) {
+                    backward.add(tsk);
+                }
+            }
+        }
+
+        // give the tasks leading to the predecessor the lowest of the ranks, keeping the order within each group
+        Comparator<Task> byRank = (a, b) -> Integer.compare(a.rank, b.rank);
+        forward.sort(byRank);
+        backward.sort(byRank);
+        int[] ranks = new int[forward.size() + backward.size()];
+        int i = 0;
+        for (Task tsk : backward) {
+            ranks[i++] = tsk.rank;
+        }
+        for (Task tsk : forward) {
+            ranks[i++] = tsk.rank;
+        }
+        Arrays.sort(ranks);
+        i = 0;
+        for (Task tsk : backward) {
+            tsk.rank = ranks[i++];
+        }
+        for (Task tsk : forward) {
+            tsk.rank = ranks[i++];
+        }
+    }
+
+    /**
+     * Starts an update of the network. Until the matching call to endUpdate() tasks added to the network aren't linked
+     * to _END_ and no start/finish times are calculated, which makes adding a lot of tasks at once (such as when
+     * opening a file) much quicker. Updates can be nested.
+     */
+    public void beginUpdate() {
+        this.updateDepth++;
+    }
+
+    /**
+     * Ends an update of the network. When the outermost update ends every task without successors is linked to
+     * _END_ in one sweep and the start/finish times of the whole network are calculated once. If the network is
+     * removing redundant dependencies they are removed just before the times are calculated.
+     */
+    public void endUpdate() {
+        if (this.updateDepth == 0 || --this.updateDepth > 0) {
+            return;
+        }
+
+        this.version++;
+
+        // relink _END_ to exactly the tasks that have no other successors
+        ArrayList<Task> endTasks = new ArrayList<>();
+        for (Task task : this.tasks) {
+            if (task == this.endTask) {
+                continue;
+            }
+            ArrayList<Task> successors = task.getSuccessors();
+            boolean linked = successors.contains(this.endTask);
+            if (successors.size() == (linked ? 1 : 0)) {
+                if (!linked) {
+                    successors.add(this.endTask);
+                    this.recorder.dependencyAdded(task, this.endTask);
+                }
+                endTasks.add(task);
+            }
+            else if (linked) {
+                successors.remove(this.endTask);
+                this.recorder.dependencyRemoved(task, this.endTask);
+            }
+        }
+        this.endTask.getPredecessors().clear();
+        this.endTask.getPredecessors().addAll(endTasks);
+
+        // tasks may have been added in any order, so rank them again
+        ArrayList<Task> order = this.getTopologicalOrder();
+        int rank = 0;
+        for (Task task : order) {
+            if (task != this.startTask && task != this.endTask) {
+                task.rank = rank++;
+            }
+        }
+        this.nextRank = rank;
+
+        if (this.removingRedundantDependencies) {
+            this.unlink(TransitiveReduction.find(order));
         }
 
-        this.tasks.add(task);
         this.assignStartEndTimes();
+        this.publishChanges();
+    }
+
+    /**
+     * Checks if an update of the network has been begun and not ended yet, in which case the start/finish times of
+     * the tasks may be out of date.
+     * @return True if beginUpdate() has been called more times than endUpdate().
+     */
+    boolean isUpdating() {
+        return this.updateDepth > 0;
     }
 
     /**
@@ -91,13 +587,169 @@ public class CriticalPathGraph {
             throw new InvalidTaskDeleteException("Attempted deletion of _START_/_END_ node");
         }
 
-        this.tasks.remove(task);
+        this.version++;
+        this.floatIndex.remove(task);
+        this.removeFromTasks(task);
+        this.taskIndex.remove(task.getId());
+        this.recorder.taskDeleted(task);
+
+        ArrayList<Task> predecessors = new ArrayList<>(task.getPredecessors());
+        ArrayList<Task> successors = new ArrayList<>(task.getSuccessors());
+        for (Task tsk : predecessors){
+            task.removePredecessor(tsk);
+        }
 
         // make sure linked tasks aren't unlinked
-        for (Task task1: this.getSuccessorTasks(task)){
-            task1.getPredecessors().remove(task);
-            task1.addPredecessors(task.getPredecessors());
+        for (Task task1: successors){
+            task1.removePredecessor(task);
+            for (Task tsk : predecessors){
+                // _START_ is only linked to tasks left without predecessors and _END_ to tasks left without successors
+                if (tsk == this.startTask && !task1.getPredecessors().isEmpty()){
+                    continue;
+                }
+                if (task1 == this.endTask && !tsk.getSuccessors().isEmpty()){
+                    continue;
+                }
+                if (!task1.getPredecessors().contains(tsk)){
+                    task1.addPredecessor(tsk);
+                }
+            }
+        }
+
+        task.recorder = null;
+
+        this.updateStartEndTimes(successors, predecessors);
+        this.publishChanges();
+    }
+
+    /**
+     * Finds the dependencies that are implied by other dependencies, such as C depending on A when it also depends on
+     * B and B depends on A. They make no difference to the start/finish times or floats of any task.
+     * @return The redundant dependencies, none of which involve _START_ or _END_.
+     */
+    public ArrayList<Dependency> getRedundantDependencies() {
+        return TransitiveReduction.find(this.getTopologicalOrder());
+    }
+
+    /**
+     * Removes every dependency that is implied by other dependencies. As they make no difference to the schedule, no
+     * start/finish times or floats change and nothing has to be recalculated.
+     * @return The dependencies that were removed.
+     */
+    public ArrayList<Dependency> removeRedundantDependencies() {
+        ArrayList<Dependency> redundant = this.getRedundantDependencies();
+        this.unlink(redundant);
+        this.publishChanges();
+        return redundant;
+    }
+
+    /**
+     * Removes redundant dependencies. Every task keeps another predecessor and successor, so none of them need
+     * linking to _START_ or _END_, and the ranks of the tasks stay in order.
+     * @param dependencies The dependencies to remove.
+     */
+    private void unlink(ArrayList<Dependency> dependencies) {
+        if (!dependencies.isEmpty()) {
+            this.version++;
+        }
+        for (Dependency dependency : dependencies) {
+            dependency.getTask().removePredecessor(dependency.getPredecessor());
+        }
+    }
+
+    /**
+     * Checks if dependencies implied by other dependencies are removed when an update ends.
+     * @return True if redundant dependencies are removed.
+     */
+    public boolean isRemovingRedundantDependencies() {
+        return this.removingRedundantDependencies;
+    }
+
+    /**
+     * Sets whether dependencies implied by other dependencies are removed when an update ends, such as after a file
+     * has been read, so that neither the scheduling passes nor the drawing of the network have to go through them.
+     * @param removingRedundantDependencies True to remove redundant dependencies.
+     */
+    public void setRemovingRedundantDependencies(boolean removingRedundantDependencies) {
+        this.removingRedundantDependencies = removingRedundantDependencies;
+    }
+
+    /**
+     * Applies an edit kept by an EditHistory, such as to undo a change. The dependencies given are exactly the ones
+     * to remove and add, including those to _START_ and _END_, so they are changed as they are without linking
+     * anything else. Only the times affected by the edit are recalculated, as for any other change.
+     * @param edit The edit to apply.
+     */
+    void applyEdit(NetworkEdit edit) {
+        if (this.updateDepth > 0){
+            throw new IllegalStateException(" an undo/redo during an update");
+        }
+        this.version++;
+        ArrayList<Task> changedPredecessors = new ArrayList<>();
+        ArrayList<Task> changedSuccessors = new ArrayList<>();
+
+        // unlink first, so the tasks being deleted are left on their own and _START_/_END_ links come off before the
+        // links that replace them go on
+        for (int i = 0; i < edit.unlinkTasks.length; i++){
+            edit.unlinkTasks[i].removePredecessor(edit.unlinkPredecessors[i]);
+            changedPredecessors.add(edit.unlinkTasks[i]);
+            changedSuccessors.add(edit.unlinkPredecessors[i]);
         }
+        HashSet<Task> deleted = new HashSet<>();
+        for (Task task : edit.deleteTasks){
+            this.floatIndex.remove(task);
+            this.removeFromTasks(task);
+            this.taskIndex.remove(task.getId());
+            this.recorder.taskDeleted(task);
+            task.recorder = null;
+            deleted.add(task);
+        }
+        for (int i = 0; i < edit.renameTasks.length; i++){
+            Task task = edit.renameTasks[i];
+            this.taskIndex.remove(task.getId());
+            task.setId(edit.ids[i]);
+            this.taskIndex.put(task.getId(), task);
+        }
+        for (Task task : edit.addTasks){
+            // the task keeps its serial number, which no other task has been given
+            this.recorder.taskAdded(task);
+            task.recorder = this.recorder;
+            task.rank = this.nextRank++;
+            this.appendTask(task);
+            this.taskIndex.put(task.getId(), task);
+            this.floatIndex.add(task);
+        }
+        for (int i = 0; i < edit.linkTasks.length; i++){
+            Task predecessor = edit.linkPredecessors[i];
+            Task task = edit.linkTasks[i];
+            if (predecessor.rank > task.rank){
+                try {
+                    this.reorder(predecessor, task);
+                }
+                catch (CyclicDependencyException e) {
+                    // can't happen, as the network had this dependency before
+                    throw new IllegalStateException(e);
+                }
+            }
+            task.addPredecessor(predecessor);
+            changedPredecessors.add(task);
+            changedSuccessors.add(predecessor);
+        }
+        for (int i = 0; i < edit.durationTasks.length; i++){
+            Task task = edit.durationTasks[i];
+            task.setDuration(edit.durations[i]);
+            changedPredecessors.addAll(task.getSuccessors());
+            changedPredecessors.add(task);
+            changedSuccessors.addAll(task.getPredecessors());
+            changedSuccessors.add(task);
+        }
+
+        changedPredecessors.removeAll(deleted);
+        changedSuccessors.removeAll(deleted);
+        changedPredecessors.add(this.endTask);
+        changedSuccessors.add(this.startTask);
+        this.updateStartEndTimes(changedPredecessors, changedSuccessors);
+        this.publishChanges();
     }
 
     /**
@@ -105,7 +757,7 @@ public class CriticalPathGraph {
      * @return A list of tasks containing the starting tasks.
      */
     private ArrayList<Task> getStartTasks(){
-        return getSuccessorTasks(this.getStartTask());
+        return this.startTask.getSuccessors();
     }
 
     /**
@@ -113,14 +765,7 @@ public class CriticalPathGraph {
      * @return A list of tasks containing the end tasks.
      */
     private ArrayList<Task> getEndTasks() {
-        try {
-            return this.getTask("_END_").getPredecessors();
-        }
-        catch (Exception e) {
-            // This should never happen but is here just in case
-            System.err.println("End task not found.");
-            return null;
-        }
+        return this.endTask.getPredecessors();
     }
 
     /**
@@ -130,12 +775,101 @@ public class CriticalPathGraph {
      * @exception TaskNotFoundException Thrown if task to retrieve doesn't exist.
      */
     public Task getTask(String id) throws TaskNotFoundException {
-        for (Task task : this.tasks){
-            if (task.getId().equals(id)){
-                return task;
+        Task task = this.taskIndex.get(id);
+        if (task == null){
+            throw new TaskNotFoundException("Task not found");
+        }
+        return task;
+    }
+
+    /**
+     * Checks if the network contains a task with the given id.
+     * @param id The id to look for.
+     * @return True if a task in the network has the id, false if not.
+     */
+    public boolean containsTask(String id) {
+        return this.taskIndex.containsKey(id);
+    }
+
+    /**
+     * Changes the id of a task in the network. Tasks that are already in a network should be renamed through this
+     * method rather than Task.setId() so the network can still find them by their id.
+     * @param task The task to be renamed.
+     * @param id The new id of the task.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     * @throws DuplicateTaskException Thrown if another task in the network already has the new id.
+     */
+    public void renameTask(Task task, String id) throws TaskNotFoundException, DuplicateTaskException {
+        if (this.taskIndex.get(task.getId()) != task){
+            throw new TaskNotFoundException("Task not found");
+        }
+        if (task == this.startTask || task == this.endTask){
+            throw new RuntimeException(" an attempted rename of _START_/_END_ node");
+        }
+        if (task.getId().equals(id)){
+            return;
+        }
+        if (this.taskIndex.containsKey(id)){
+            throw new DuplicateTaskException(" a duplicate task");
+        }
+
+        this.version++;
+        this.taskIndex.remove(task.getId());
+        task.setId(id);
+        this.taskIndex.put(id, task);
+        this.publishChanges();
+    }
+
+    /**
+     * Changes the duration of a task in the network. Only the times of the tasks that come after the task (and, if the
+     * length of the project changes, before it) are recalculated. Tasks that are already in a network should have
+     * their durations changed through this method rather than Task.setDuration() so the times stay up to date.
+     * @param task The task to be changed.
+     * @param duration The new duration of the task.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    public void setTaskDuration(Task task, float duration) throws TaskNotFoundException {
+        this.setTaskDurations(Collections.singletonMap(task, duration));
+    }
+
+    /**
+     * Changes the durations of several tasks in the network at once, recalculating the times they affect in one go
+     * rather than once for each task.
+     * @param durations The new duration of each task to be changed.
+     * @throws TaskNotFoundException Thrown if any of the tasks isn't in the network, in which case none are changed.
+     */
+    public void setTaskDurations(Map<Task, Float> durations) throws TaskNotFoundException {
+        for (Map.Entry<Task, Float> entry : durations.entrySet()){
+            Task task = entry.getKey();
+            if (this.taskIndex.get(task.getId()) != task){
+                throw new TaskNotFoundException("Task not found");
+            }
+            if (task == this.startTask || task == this.endTask){
+                throw new RuntimeException(" an attempted change to the duration of _START_/_END_ node");
+            }
+            if (!(entry.getValue() >= 0)){
+                throw new IllegalArgumentException(" an invalid duration on task");
             }
         }
-        throw new TaskNotFoundException("Task not found");
+
+        // the tasks' own times don't change but their floats do, so they are passed along with their neighbours
+        ArrayList<Task> changedPredecessors = new ArrayList<>();
+        ArrayList<Task> changedSuccessors = new ArrayList<>();
+        for (Map.Entry<Task, Float> entry : durations.entrySet()){
+            Task task = entry.getKey();
+            if (task.getDuration() != entry.getValue()){
+                task.setDuration(entry.getValue());
+                changedPredecessors.addAll(task.getSuccessors());
+                changedPredecessors.add(task);
+                changedSuccessors.addAll(task.getPredecessors());
+                changedSuccessors.add(task);
+            }
+        }
+        if (!changedPredecessors.isEmpty()){
+            this.version++;
+            this.updateStartEndTimes(changedPredecessors, changedSuccessors);
+            this.publishChanges();
+        }
     }
 
     /**
@@ -145,13 +879,7 @@ public class CriticalPathGraph {
      * @return The start task.
      */
     public Task getStartTask() {
-        try {
-            return this.getTask("_START_");
-        }
-        catch (TaskNotFoundException e) {
-            System.err.println("Start task doesn't exist"); // This really shouldn't ever happen.
-            return null;
-        }
+        return this.startTask;
     }
 
     /**
@@ -161,28 +889,16 @@ public class CriticalPathGraph {
      * @return The end task.
      */
     public Task getEndTask() {
-        try {
-            return this.getTask("_END_");
-        }
-        catch (TaskNotFoundException e) {
-            System.err.println("End task doesn't exist"); // This really shouldn't ever happen.
-            return null;
-        }
+        return this.endTask;
     }
 
     /**
-     * Gets the successors of a task by iterating through all of the tasks in the network and checking its predecessors
+     * Gets the successors of a task. The list returned is a copy so the network can be changed while iterating over it.
      * @param task The task get the successors of.
      * @return A list of tasks that contain the task as a predecessor
      */
     public ArrayList<Task> getSuccessorTasks(Task task){
-        ArrayList<Task> tasks = new ArrayList<>();
-        for (Task t : this.tasks){
-            if (t.getPredecessors().contains(task)){
-                tasks.add(t);
-            }
-        }
-        return tasks;
+        return new ArrayList<>(task.getSuccessors());
     }
 
     /**
@@ -207,7 +923,7 @@ public class CriticalPathGraph {
      * @return True if searched, false if not.
      */
     private Boolean checkIfAllSuccessorsSearched(Task task, HashMap<Task, Boolean> searched){
-        for (Task tsk : getSuccessorTasks(task)){
+        for (Task tsk : task.getSuccessors()){
             if (!searched.get(tsk)){
                 return false;
             }
@@ -215,6 +931,156 @@ public class CriticalPathGraph {
         return true;
     }
 
+    /**
+     * Gets the way the network calculates the early start and latest finish times of its tasks.
+     * @return The scheduling mode of the network.
+     */
+    public SchedulingMode getSchedulingMode() {
+        return this.schedulingMode;
+    }
+
+    /**
+     * Sets the way the network calculates the early start and latest finish times of its tasks and recalculates them
+     * with the new mode, so different modes can be compared on the same network.
+     * @param schedulingMode The new scheduling mode of the network.
+     */
+    public void setSchedulingMode(SchedulingMode schedulingMode) {
+        this.schedulingMode = schedulingMode;
+        // the times are worked out again, and can round differently in another mode
+        this.version++;
+        if (this.updateDepth == 0){
+            this.assignStartEndTimes();
+            this.publishChanges();
+        }
+    }
+
+    /**
+     * Gets the version of the network, which changes every time a task is added, deleted or renamed, a dependency is
+     * added or removed, a duration is changed or the network is scheduled in another mode. Only changes made through
+     * the network are counted, not changes made to its tasks directly.
+     * @return The version of the network.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Gets the metrics that the scheduling passes of the network are reported to.
+     * @return The metrics of the network.
+     */
+    public EngineMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Sets the metrics that the scheduling passes of the network are reported to.
+     * @param metrics The new metrics, or EngineMetrics.NONE to stop measuring.
+     */
+    public void setMetrics(EngineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds something to be told after each change to the network. Each change to the network, or each outermost
+     * beginUpdate()/endUpdate() pair, is reported once with only the tasks and dependencies that really changed.
+     * @param listener The listener to add.
+     */
+    public void addScheduleChangeListener(ScheduleChangeListener listener) {
+        if (this.listeners.isEmpty()){
+            this.recorder.clear();
+            this.recorder.enabled = true;
+        }
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Stops something being told about changes to the network.
+     * @param listener The listener to remove.
+     */
+    public void removeScheduleChangeListener(ScheduleChangeListener listener) {
+        this.listeners.remove(listener);
+        if (this.listeners.isEmpty()){
+            this.recorder.enabled = false;
+            this.recorder.clear();
+        }
+    }
+
+    /**
+     * Passes what has changed since the last time to the listeners, unless an update is still going on or nothing
+     * has really changed.
+     */
+    private void publishChanges() {
+        if (this.updateDepth > 0 || !this.recorder.enabled){
+            return;
+        }
+        ScheduleChange change = this.recorder.take();
+        if (!change.isEmpty()){
+            for (ScheduleChangeListener listener : new ArrayList<>(this.listeners)){
+                listener.scheduleChanged(change);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of threads used to schedule the network in the parallel mode.
+     * @return The parallelism of the pool.
+     */
+    public int getParallelism() {
+        return this.pool.getParallelism();
+    }
+
+    /**
+     * Gets the pool of threads used to schedule the network in the parallel mode.
+     * @return The pool, which is the common pool unless another has been set.
+     */
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Sets the pool of threads used to schedule the network in the parallel mode. The pool still belongs to the
+     * caller, who shuts it down once it is no longer needed.
+     * @param pool The pool to use, or ForkJoinPool.commonPool() to go back to the common pool.
+     */
+    public void setPool(ForkJoinPool pool) {
+        if (pool == null){
+            throw new IllegalArgumentException(" an invalid pool");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Gets the tasks in the network in topological order, so every task comes after all of its predecessors. Found by
+     * counting how many predecessors of each task haven't been reached yet (Kahn's algorithm).
+     * @return A list of all the tasks in the network, starting with _START_ and ending with _END_.
+     */
+    public ArrayList<Task> getTopologicalOrder() {
+        int[] remaining = new int[this.tasks.size()];
+        ArrayList<Task> order = new ArrayList<>(this.tasks.size());
+        for (int i = 0; i < this.tasks.size(); i++){
+            Task task = this.tasks.get(i);
+            task.index = i;
+            remaining[i] = task.getPredecessors().size();
+            if (remaining[i] == 0){
+                order.add(task);
+            }
+        }
+
+        // the order list doubles as the queue of tasks whose predecessors have all been reached
+        for (int head = 0; head < order.size(); head++){
+            for (Task task : order.get(head).getSuccessors()){
+                if (--remaining[task.index] == 0){
+                    order.add(task);
+                }
+            }
+        }
+
+        if (order.size() != this.tasks.size()){
+            throw new RuntimeException(" a cycle in the network");
+        }
+        return order;
+    }
+
     /**
      * A method that calculates the earliest start and latest finish times of all the tasks in the network and assigns
      * them to the tasks. Used when a task is added because it can affect the start/finish times of other tasks.
@@ -223,6 +1089,239 @@ public class CriticalPathGraph {
         if (this.tasks.size() == 2){
             return;
         }
+        if (this.schedulingMode == SchedulingMode.REFERENCE){
+            this.assignStartEndTimesReference();
+        }
+        else if (this.schedulingMode == SchedulingMode.PARALLEL && this.tasks.size() >= CompactNetwork.PARALLEL_THRESHOLD){
+            this.assignStartEndTimesParallel();
+        }
+        else {
+            this.assignStartEndTimesTopological();
+        }
+    }
+
+    /**
+     * Calculates the earliest start and latest finish times on several threads. The network is copied into a compact
+     * network whose levels are scheduled in parallel, and the times are then copied back onto the tasks on this thread.
+     */
+    private void assignStartEndTimesParallel() {
+        PassTimer timer = PassTimer.start(this.metrics);
+        CompactNetwork network = new CompactNetwork(this);
+        network.schedule(this.pool);
+        network.copyTimesToTasks();
+        this.assignFloats(this.tasks);
+        timer.finish("parallel", 2 * network.size(), 2 * network.getEdgeCount(), network.size());
+    }
+
+    /**
+     * Updates the earliest start and latest finish times after the network has been changed. Only the tasks that have
+     * changed and the tasks affected by them are visited, unless the reference mode is being used in which case the
+     * times of the whole network are recalculated.
+     * @param changedPredecessors The tasks whose predecessors (or durations of predecessors) have changed.
+     * @param changedSuccessors The tasks whose successors (or durations of successors) have changed.
+     */
+    private void updateStartEndTimes(ArrayList<Task> changedPredecessors, ArrayList<Task> changedSuccessors) {
+        if (this.updateDepth > 0){
+            return;
+        }
+        if (this.schedulingMode == SchedulingMode.REFERENCE){
+            this.assignStartEndTimes();
+            return;
+        }
+
+        // the floats of the changed tasks are recalculated along with those of every task whose times change
+        HashSet<Task> floatsChanged = new HashSet<>(changedPredecessors);
+        floatsChanged.addAll(changedSuccessors);
+
+        float projectEnd = this.endTask.getEarlyStartTime();
+        this.propagateEarlyStartTimes(changedPredecessors, floatsChanged);
+
+        // the latest finish time of every task depends on when the project ends
+        if (this.endTask.getEarlyStartTime() != projectEnd){
+            changedSuccessors.add(this.endTask);
+        }
+        this.propagateLatestFinishTimes(changedSuccessors, floatsChanged);
+        this.assignFloats(floatsChanged);
+    }
+
+    /**
+     * Recalculates the early start times of the given tasks and passes any changes on to their successors. Tasks are
+     * visited in order of rank so each task is only recalculated once, after all its changed predecessors.
+     * @param changed The tasks whose early start times need to be recalculated.
+     * @param floatsChanged Where to add the tasks whose floats need to be recalculated.
+     */
+    private void propagateEarlyStartTimes(ArrayList<Task> changed, HashSet<Task> floatsChanged) {
+        PassTimer timer = PassTimer.start(this.metrics);
+        int tasksVisited = 0;
+        int edgesVisited = 0;
+        int queueHighWaterMark = 0;
+        PriorityQueue<Task> queue = new PriorityQueue<>((a, b) -> Integer.compare(a.rank, b.rank));
+        HashSet<Task> queued = new HashSet<>();
+        for (Task task : changed){
+            if (queued.add(task)){
+                queue.add(task);
+            }
+        }
+
+        while (!queue.isEmpty()){
+            queueHighWaterMark = Math.max(queueHighWaterMark, queue.size());
+            Task task = queue.poll();
+            tasksVisited++;
+            edgesVisited += task.getPredecessors().size();
+            float earlyStartTime = 0;
+            for (Task tsk : task.getPredecessors()){
+                if (earlyStartTime < tsk.getDuration() + tsk.getEarlyStartTime()){
+                    earlyStartTime = tsk.getDuration() + tsk.getEarlyStartTime();
+                }
+            }
+            if (earlyStartTime != task.getEarlyStartTime()){
+                task.setEarlyStartTime(earlyStartTime);
+                // the free float of a predecessor depends on when its successors start
+                floatsChanged.add(task);
+                floatsChanged.addAll(task.getPredecessors());
+                edgesVisited += task.getSuccessors().size();
+                for (Task tsk : task.getSuccessors()){
+                    if (queued.add(tsk)){
+                        queue.add(tsk);
+                    }
+                }
+            }
+        }
+        timer.finish("incremental.forward", tasksVisited, edgesVisited, queueHighWaterMark);
+    }
+
+    /**
+     * Recalculates the latest finish times of the given tasks and passes any changes on to their predecessors. Tasks
+     * are visited in reverse order of rank so each task is only recalculated once, after all its changed successors.
+     * @param changed The tasks whose latest finish times need to be recalculated.
+     * @param floatsChanged Where to add the tasks whose floats need to be recalculated.
+     */
+    private void propagateLatestFinishTimes(ArrayList<Task> changed, HashSet<Task> floatsChanged) {
+        PassTimer timer = PassTimer.start(this.metrics);
+        int tasksVisited = 0;
+        int edgesVisited = 0;
+        int queueHighWaterMark = 0;
+        PriorityQueue<Task> queue = new PriorityQueue<>((a, b) -> Integer.compare(b.rank, a.rank));
+        HashSet<Task> queued = new HashSet<>();
+        for (Task task : changed){
+            if (queued.add(task)){
+                queue.add(task);
+            }
+        }
+
+        while (!queue.isEmpty()){
+            queueHighWaterMark = Math.max(queueHighWaterMark, queue.size());
+            Task task = queue.poll();
+            tasksVisited++;
+            edgesVisited += task.getSuccessors().size();
+            float latestFinishTime = Float.MAX_VALUE;
+            if (task == this.endTask){
+                latestFinishTime = task.getEarlyStartTime();
+            }
+            for (Task tsk : task.getSuccessors()){
+                if (latestFinishTime > tsk.getLatestFinishTime() - tsk.getDuration()){
+                    latestFinishTime = tsk.getLatestFinishTime() - tsk.getDuration();
+                }
+            }
+            if (latestFinishTime != task.getLatestFinishTime()){
+                task.setLatestFinishTime(latestFinishTime);
+                floatsChanged.add(task);
+                edgesVisited += task.getPredecessors().size();
+                for (Task tsk : task.getPredecessors()){
+                    if (queued.add(tsk)){
+                        queue.add(tsk);
+                    }
+                }
+            }
+        }
+        timer.finish("incremental.backward", tasksVisited, edgesVisited, queueHighWaterMark);
+    }
+
+    /**
+     * Recalculates the total and free floats of a number of tasks.
+     * @param tasks The tasks whose floats need to be recalculated.
+     */
+    private void assignFloats(Collection<Task> tasks) {
+        for (Task task : tasks){
+            this.assignFloat(task);
+        }
+    }
+
+    /**
+     * Calculates the total and free float of a task from its start/finish times and the early start times of its
+     * successors, keeping the float index in order.
+     * @param task The task whose floats need to be recalculated.
+     */
+    private void assignFloat(Task task) {
+        float earlyFinishTime = task.getEarlyStartTime() + task.getDuration();
+        float totalFloat = task.getLatestFinishTime() - earlyFinishTime;
+        float freeFloat = task.getSuccessors().isEmpty() ? totalFloat : Float.MAX_VALUE;
+        for (Task tsk : task.getSuccessors()){
+            freeFloat = Math.min(freeFloat, tsk.getEarlyStartTime() - earlyFinishTime);
+        }
+
+        if (totalFloat != task.getTotalFloat()){
+            boolean indexed = this.floatIndex.remove(task);
+            task.setTotalFloat(totalFloat);
+            if (indexed){
+                this.floatIndex.add(task);
+            }
+        }
+        task.setFreeFloat(freeFloat);
+    }
+
+    /**
+     * Calculates the earliest start and latest finish times by visiting the tasks in topological order, so each task
+     * is visited once going forwards and once going backwards.
+     */
+    private void assignStartEndTimesTopological() {
+        PassTimer timer = PassTimer.start(this.metrics);
+        ArrayList<Task> order = this.getTopologicalOrder();
+        int edgesVisited = 0;
+
+        //SET START TIMES
+        for (Task task : order){
+            edgesVisited += task.getPredecessors().size();
+            float earlyStartTime = 0;
+            for (Task tsk : task.getPredecessors()){
+                if (earlyStartTime < tsk.getDuration() + tsk.getEarlyStartTime()){
+                    earlyStartTime = tsk.getDuration() + tsk.getEarlyStartTime();
+                }
+            }
+            task.setEarlyStartTime(earlyStartTime);
+        }
+
+        //SET END TIMES (the same but backwards), along with the floats as every successor is done by then
+        this.endTask.setLatestFinishTime(this.endTask.getEarlyStartTime());
+        this.assignFloat(this.endTask);
+        for (int i = order.size() - 1; i >= 0; i--){
+            Task task = order.get(i);
+            if (task == this.endTask){
+                continue;
+            }
+            edgesVisited += task.getSuccessors().size();
+            float latestFinishTime = Float.MAX_VALUE;
+            for (Task tsk : task.getSuccessors()){
+                if (latestFinishTime > tsk.getLatestFinishTime() - tsk.getDuration()){
+                    latestFinishTime = tsk.getLatestFinishTime() - tsk.getDuration();
+                }
+            }
+            task.setLatestFinishTime(latestFinishTime);
+            this.assignFloat(task);
+        }
+        timer.finish("topological", 2 * order.size(), edgesVisited, order.size());
+    }
+
+    /**
+     * Calculates the earliest start and latest finish times with the original queue based passes. Each time a task is
+     * visited all of its predecessors (or successors going backwards) are checked to see if they have been searched.
+     */
+    private void assignStartEndTimesReference() {
+        PassTimer timer = PassTimer.start(this.metrics);
+        boolean tracing = this.metrics.isTracing();
+        int tasksVisited = 0;
+        int edgesVisited = 0;
+        int queueHighWaterMark = 0;
         LinkedList<Task> queue = new LinkedList<>();
         HashMap<Task, Boolean> searched = new HashMap<>();
 
@@ -232,10 +1331,14 @@ public class CriticalPathGraph {
         //System.out.println("Listing tasks");
         for (Task task : this.tasks){
             searched.put(task, false);
-            System.out.println(task.getId());
+            if (tracing){
+                this.metrics.trace("reference", task.getId());
+            }
         }
 
-        System.out.println("listing start tasks");
+        if (tracing){
+            this.metrics.trace("reference", "listing start tasks");
+        }
         //set start tasks as start 0 and marks them as searched
         for (Task task : this.getStartTasks()){
             //System.out.println( task.getId());
@@ -245,10 +1348,13 @@ public class CriticalPathGraph {
         }
 
         while (!searched.get(getEndTask())){
+            queueHighWaterMark = Math.max(queueHighWaterMark, queue.size());
             Task currentTask = queue.pop();
+            tasksVisited++;
 
             //Check if successor tasks from visited activity have had their predecessors' start times defined yet
-            for (Task task: getSuccessorTasks(currentTask)){
+            for (Task task: currentTask.getSuccessors()){
+                edgesVisited += 1 + task.getPredecessors().size();
                 //Check if the task has had all of its predecessors searched yet
                 if (checkIfAllPredecessorsSearched(task, searched)){
                     Float earlyStartTime = (float)0;
@@ -279,7 +1385,9 @@ public class CriticalPathGraph {
             searched.replace(task, false);
         }
 
-        System.out.println("listing end tasks");
+        if (tracing){
+            this.metrics.trace("reference", "listing end tasks");
+        }
         //set end tasks earliest end time equal to start time and marks them as searched
         queue.addLast(this.getEndTask());
         searched.replace(this.getEndTask(), true);
@@ -294,14 +1402,17 @@ public class CriticalPathGraph {
         */
 
         while (!searched.get(getStartTask())){
+            queueHighWaterMark = Math.max(queueHighWaterMark, queue.size());
             Task currentTask = queue.pop();
+            tasksVisited++;
 
             //Check if successor tasks from visited activity have had their successors' late start times defined yet
             for (Task task: currentTask.getPredecessors()){
+                edgesVisited += 1 + task.getSuccessors().size();
                 //Check if the task has had all of its predecessors searched yet
                 if (checkIfAllSuccessorsSearched(task, searched)){
                     Float latestFinishTime = Float.MAX_VALUE;            //Find latest finish time
-                    for (Task task1: getSuccessorTasks(task)){
+                    for (Task task1: task.getSuccessors()){
                         //System.out.println(task1.getId() + task1.getLatestFinishTime() + "-" + task1.getDuration());
                         if (latestFinishTime > (task1.getLatestFinishTime() - task1.getDuration())){
                             latestFinishTime = task1.getLatestFinishTime() - task1.getDuration();
@@ -318,67 +1429,112 @@ public class CriticalPathGraph {
             }
         }
 
+        this.assignFloats(this.tasks);
+        timer.finish("reference", tasksVisited, edgesVisited, queueHighWaterMark);
+    }
 
+    /**
+     * Gets the critical subgraph of the network, which contains only the critical tasks and the links between them
+     * that make up critical paths.
+     * @return The critical subgraph of the network.
+     */
+    public CriticalSubgraph getCriticalSubgraph(){
+        PassTimer timer = PassTimer.start(this.metrics);
+        CriticalSubgraph criticalSubgraph = new CriticalSubgraph(this);
+        timer.finish("criticalSubgraph", this.tasks.size(), criticalSubgraph.edgesVisited, 0);
+        return criticalSubgraph;
     }
 
     /**
-     * Gets all the critical paths that are in the network.
-     * @return A list of list of tasks that each represent a critical path.
+     * Gets how far apart two times can be and still be treated as the same when deciding what is critical. Times are
+     * kept as floats, so adding the same durations up in a different order can give a slightly different answer.
+     * @return The tolerance, which grows with the length of the project.
      */
-    public ArrayList<ArrayList<Task>> getCriticalPaths(){
-        ArrayList<ArrayList<Task>> criticalPaths = new ArrayList<>();
-        HashMap<Task, Boolean> searched = new HashMap<>();
-        LinkedList<Task> queue = new LinkedList<>();
+    public float getCriticalTolerance() {
+        return CRITICAL_TOLERANCE_ULPS * Math.ulp(this.endTask.getEarlyStartTime());
+    }
 
-        for (Task task : this.tasks){
-            searched.put(task, false);
-            System.out.println(task.getId());
-        }
-
-        ArrayList<Task> cp1 = new ArrayList<>();
-        cp1.add(this.getEndTask());
-        criticalPaths.add(cp1);
-        queue.addAll(this.getEndTask().getPredecessors());
-
-        while (!searched.get(this.getStartTask())){
-            Task task = queue.pop();
-            System.out.println("Searching " + task.getId());
-            if (task.getLatestFinishTime() - task.getDuration() == task.getEarlyStartTime()){
-                System.out.println(task.getId() + " is critical");
-                boolean inExistingCriticalPath = false;
-                //check if task's successor is last in critical path before adding it
-                for (ArrayList<Task> cp : criticalPaths){
-                    if (cp.get(cp.size()-1).getPredecessors().contains(task)){
-                        cp.add(task);
-                        inExistingCriticalPath = true;
-                    }
-                }
-                if (!inExistingCriticalPath){
-                    ArrayList<Task> cp = new ArrayList<>();
-                    cp.addAll(criticalPaths.get(0));
-                    cp.remove(cp.size()-1);
-                    cp.add(task);
-                    criticalPaths.add(cp);
-                }
-                for (Task tsk: task.getPredecessors()){
-                    if (!searched.get(tsk)){
-                        queue.addLast(tsk);
-                    }
-                }
-                searched.replace(task, true);
+    /**
+     * Checks if a task is critical, meaning it can't be delayed at all without delaying the whole project.
+     * @param task The task to check.
+     * @return True if the total float of the task is within the critical tolerance of 0, false if not.
+     */
+    public boolean isCritical(Task task) {
+        return task.getTotalFloat() <= this.getCriticalTolerance();
+    }
+
+    /**
+     * Gets the tasks with the least total float, which are the tasks closest to becoming critical. Only the tasks
+     * returned are looked at, so this is quick even on large networks.
+     * @param count The most tasks to return.
+     * @return Up to the given number of tasks, other than _START_ and _END_, starting with the least float.
+     */
+    public ArrayList<Task> getLeastFloatTasks(int count) {
+        ArrayList<Task> tasks = new ArrayList<>(Math.min(count, this.floatIndex.size()));
+        for (Task task : this.floatIndex){
+            if (tasks.size() >= count){
+                break;
             }
+            tasks.add(task);
         }
+        return tasks;
+    }
 
-        for(ArrayList<Task> criticalPath : criticalPaths){
-            Collections.sort(criticalPath);
+    /**
+     * Gets all the tasks whose total float is below a threshold. Only the tasks returned are looked at, so this is
+     * quick even on large networks.
+     * @param threshold The float every task returned must be below.
+     * @return The tasks, other than _START_ and _END_, with less float than the threshold, starting with the least.
+     */
+    public ArrayList<Task> getTasksWithFloatBelow(float threshold) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Task task : this.floatIndex){
+            if (!(task.getTotalFloat() < threshold)){
+                break;
+            }
+            tasks.add(task);
         }
+        return tasks;
+    }
 
-        //remove _START_ and _END_ as they will always be critical and the user doesn't need to see them
-        for (ArrayList<Task> cp : criticalPaths){
-            cp.remove(this.getEndTask());
-            cp.remove(this.getStartTask());
-        }
+    /**
+     * Gets the task with the least total float of all the tasks whose total float is more than a threshold. Uses the
+     * float index, so the tasks below the threshold aren't looked at.
+     * @param threshold The float the task's total float must be more than.
+     * @return The task, or null if no task has a total float more than the threshold.
+     */
+    public Task getLeastFloatTaskAbove(float threshold) {
+        // a task that comes after every task with exactly the threshold as its float
+        Task bound = new Task("", 0, new ArrayList<>());
+        bound.setTotalFloat(threshold);
+        bound.serial = Integer.MAX_VALUE;
+        return this.floatIndex.higher(bound);
+    }
+
+    /**
+     * Counts the critical paths in the network without listing them.
+     * @return The number of critical paths in the network.
+     */
+    public BigInteger countCriticalPaths(){
+        return this.getCriticalSubgraph().countPaths();
+    }
+
+    /**
+     * Gets all the critical paths that are in the network. Networks with a lot of parallel critical branches can have
+     * a huge number of critical paths, so getCriticalPaths(int) or the iterator of the critical subgraph should be
+     * used when the network could be large.
+     * @return A list of list of tasks that each represent a critical path.
+     */
+    public ArrayList<ArrayList<Task>> getCriticalPaths(){
+        return this.getCriticalPaths(Integer.MAX_VALUE);
+    }
 
-        return criticalPaths;
+    /**
+     * Gets up to a given number of the critical paths in the network.
+     * @param limit The most critical paths to get.
+     * @return A list of list of tasks that each represent a critical path, without _START_ and _END_.
+     */
+    public ArrayList<ArrayList<Task>> getCriticalPaths(int limit){
+        return this.getCriticalSubgraph().getPaths(limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,216 @@
+package criticalpath;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The critical part of a critical path network. Contains only the tasks with no float and the links between them
+ * where one task finishes exactly when the next one starts (to within the network's critical tolerance), so every
+ * path from _START_ to _END_ through it is a critical path. The paths are only listed when they are asked for, as a
+ * network with a lot of parallel critical branches can have far too many of them to keep in memory at once.
+ * @author Cameron Sabuda
+ */
+public class CriticalSubgraph {
+
+    /**
+     * The critical tasks, in topological order.
+     */
+    private ArrayList<Task> tasks = new ArrayList<>();
+
+    private HashMap<Task, ArrayList<Task>> successors = new HashMap<>();
+    private HashMap<Task, ArrayList<Task>> predecessors = new HashMap<>();
+
+    private Task startTask;
+    private Task endTask;
+    private int edgeCount = 0;
+
+    /**
+     * How far apart two times can be and still count as the same.
+     */
+    private float tolerance;
+
+    /**
+     * How many links were looked at when the subgraph was created, reported to the network's metrics.
+     */
+    int edgesVisited = 0;
+
+    /**
+     * Creates the critical subgraph of a network from the current start/finish times of its tasks.
+     * @param graph The network to find the critical subgraph of.
+     */
+    public CriticalSubgraph(CriticalPathGraph graph) {
+        this.startTask = graph.getStartTask();
+        this.endTask = graph.getEndTask();
+        this.tolerance = graph.getCriticalTolerance();
+
+        for (Task task : graph.getTopologicalOrder()){
+            if (task.getTotalFloat() > this.tolerance){
+                continue;
+            }
+            ArrayList<Task> criticalPredecessors = new ArrayList<>();
+            this.edgesVisited += task.getPredecessors().size();
+            for (Task tsk : task.getPredecessors()){
+                // only follow links where the predecessor finishes exactly when the task starts
+                if (this.predecessors.containsKey(tsk)
+                        && task.getEarlyStartTime() - (tsk.getEarlyStartTime() + tsk.getDuration()) <= this.tolerance){
+                    criticalPredecessors.add(tsk);
+                    this.successors.get(tsk).add(task);
+                    this.edgeCount++;
+                }
+            }
+            this.tasks.add(task);
+            this.predecessors.put(task, criticalPredecessors);
+            this.successors.put(task, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Gets the critical tasks, including _START_ and _END_.
+     * @return A list of the critical tasks in topological order.
+     */
+    public ArrayList<Task> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * Checks if a task is in the critical subgraph.
+     * @param task The task to check.
+     * @return True if the task is critical, false if not.
+     */
+    public boolean contains(Task task) {
+        return this.successors.containsKey(task);
+    }
+
+    /**
+     * Gets the critical successors of a critical task.
+     * @param task The critical task.
+     * @return A list of the successors that continue a critical path, or an empty list if the task isn't critical.
+     */
+    public ArrayList<Task> getSuccessors(Task task) {
+        ArrayList<Task> tasks = this.successors.get(task);
+        return tasks == null ? new ArrayList<>() : tasks;
+    }
+
+    /**
+     * Gets the critical predecessors of a critical task.
+     * @param task The critical task.
+     * @return A list of the predecessors that lead to the task on a critical path, or an empty list if the task isn't
+     * critical.
+     */
+    public ArrayList<Task> getPredecessors(Task task) {
+        ArrayList<Task> tasks = this.predecessors.get(task);
+        return tasks == null ? new ArrayList<>() : tasks;
+    }
+
+    /**
+     * Gets the number of links between critical tasks.
+     * @return The number of edges in the critical subgraph.
+     */
+    public int getEdgeCount() {
+        return this.edgeCount;
+    }
+
+    /**
+     * Counts the critical paths without listing them, by adding up the number of paths reaching each task in
+     * topological order.
+     * @return The number of critical paths in the network.
+     */
+    public BigInteger countPaths() {
+        HashMap<Task, BigInteger> paths = new HashMap<>();
+        for (Task task : this.tasks){
+            BigInteger count = task == this.startTask ? BigInteger.ONE : BigInteger.ZERO;
+            for (Task tsk : this.predecessors.get(task)){
+                count = count.add(paths.get(tsk));
+            }
+            paths.put(task, count);
+        }
+        BigInteger count = paths.get(this.endTask);
+        return count == null ? BigInteger.ZERO : count;
+    }
+
+    /**
+     * Gets an iterator that lists the critical paths one at a time. Each path is only found when it is asked for.
+     * @return An iterator over the critical paths, each of which is a list of tasks without _START_ and _END_.
+     */
+    public Iterator<ArrayList<Task>> pathIterator() {
+        return new PathIterator();
+    }
+
+    /**
+     * Lists up to a given number of critical paths.
+     * @param limit The most paths to list.
+     * @return A list of critical paths, each of which is a list of tasks without _START_ and _END_.
+     */
+    public ArrayList<ArrayList<Task>> getPaths(int limit) {
+        ArrayList<ArrayList<Task>> paths = new ArrayList<>();
+        Iterator<ArrayList<Task>> iterator = this.pathIterator();
+        while (paths.size() < limit && iterator.hasNext()){
+            paths.add(iterator.next());
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the critical paths by a depth first search from _START_, remembering which successor to try next at each
+     * step of the current path.
+     */
+    private class PathIterator implements Iterator<ArrayList<Task>> {
+
+        private ArrayList<Task> path = new ArrayList<>();
+        private int[] nextSuccessor = new int[16];
+        private ArrayList<Task> next;
+
+        private PathIterator() {
+            if (successors.containsKey(startTask)){
+                this.path.add(startTask);
+            }
+            this.next = this.findNext();
+        }
+
+        /**
+         * Carries on the search until it reaches _END_ again.
+         * @return The next critical path, or null if there aren't any more.
+         */
+        private ArrayList<Task> findNext() {
+            while (!this.path.isEmpty()){
+                int depth = this.path.size() - 1;
+                ArrayList<Task> tasks = successors.get(this.path.get(depth));
+                if (this.nextSuccessor[depth] == tasks.size()){
+                    this.path.remove(depth);
+                    continue;
+                }
+
+                Task task = tasks.get(this.nextSuccessor[depth]++);
+                if (task == endTask){
+                    return new ArrayList<>(this.path.subList(1, this.path.size()));
+                }
+                if (depth + 1 == this.nextSuccessor.length){
+                    int[] larger = new int[this.nextSuccessor.length * 2];
+                    System.arraycopy(this.nextSuccessor, 0, larger, 0, this.nextSuccessor.length);
+                    this.nextSuccessor = larger;
+                }
+                this.nextSuccessor[depth + 1] = 0;
+                this.path.add(task);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public ArrayList<Task> next() {
+            if (this.next == null){
+                throw new NoSuchElementException();
+            }
+            ArrayList<Task> path = this.next;
+            this.next = this.findNext();
+            return path;
+        }
+    }
+}
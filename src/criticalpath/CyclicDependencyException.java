@@ -0,0 +1,47 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An exception to be thrown when a change to a critical path network would make a task depend on itself, directly or
+ * through other tasks. Names the tasks in the cycle.
+ * @author Cameron Sabuda
+ */
+public class CyclicDependencyException extends Exception {
+
+    private ArrayList<String> cycle = new ArrayList<>();
+
+    /**
+     * Creates the exception from the tasks in the cycle.
+     * @param cycle The tasks in the cycle, each one a predecessor of the next and the last one a predecessor of the
+     * first.
+     */
+    public CyclicDependencyException(List<Task> cycle) {
+        super(describe(cycle));
+        for (Task task : cycle) {
+            this.cycle.add(task.getId());
+        }
+    }
+
+    /**
+     * Gets the ids of the tasks in the cycle.
+     * @return The ids of the tasks in the cycle in order, each one a predecessor of the next.
+     */
+    public ArrayList<String> getCycle() {
+        return this.cycle;
+    }
+
+    /**
+     * Creates the message of the exception.
+     * @param cycle The tasks in the cycle.
+     * @return A message of the form "Cycle in the network: A -> B -> A".
+     */
+    private static String describe(List<Task> cycle) {
+        StringBuilder message = new StringBuilder("Cycle in the network: ");
+        for (Task task : cycle) {
+            message.append(task.getId()).append(" -> ");
+        }
+        return message.append(cycle.get(0).getId()).toString();
+    }
+}
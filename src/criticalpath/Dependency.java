@@ -0,0 +1,56 @@
+package criticalpath;
+
+/**
+ * A link between two tasks in a network, where one task depends on the other.
+ * @author Cameron Sabuda
+ */
+public final class Dependency {
+
+    private final Task predecessor;
+    private final Task task;
+
+    /**
+     * Creates a dependency.
+     * @param predecessor The task that has to finish first.
+     * @param task The task that depends on the predecessor.
+     */
+    public Dependency(Task predecessor, Task task) {
+        this.predecessor = predecessor;
+        this.task = task;
+    }
+
+    /**
+     * Gets the task that has to finish first.
+     * @return The predecessor.
+     */
+    public Task getPredecessor() {
+        return this.predecessor;
+    }
+
+    /**
+     * Gets the task that depends on the predecessor.
+     * @return The task.
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Dependency)){
+            return false;
+        }
+        Dependency other = (Dependency) o;
+        return this.predecessor == other.predecessor && this.task == other.task;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(this.predecessor) + System.identityHashCode(this.task);
+    }
+
+    @Override
+    public String toString() {
+        return this.predecessor.getId() + " -> " + this.task.getId();
+    }
+}
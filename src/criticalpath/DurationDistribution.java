@@ -0,0 +1,92 @@
+package criticalpath;
+
+import java.util.SplittableRandom;
+
+/**
+ * A spread of possible durations for a task, which durations can be picked from at random.
+ * @author Cameron Sabuda
+ */
+public interface DurationDistribution {
+
+    /**
+     * Picks a duration at random.
+     * @param random Where to get the random numbers from.
+     * @return A duration between the least and greatest durations of the distribution.
+     */
+    float sample(SplittableRandom random);
+
+    /**
+     * Gets the greatest duration that can be picked.
+     * @return The greatest duration of the distribution.
+     */
+    float getMaximum();
+
+    /**
+     * Creates a distribution that always gives the same duration.
+     * @param duration The duration.
+     * @return The distribution.
+     */
+    static DurationDistribution constant(float duration) {
+        if (!(duration >= 0)){
+            throw new IllegalArgumentException(" an invalid duration: " + duration);
+        }
+        return new DurationDistribution() {
+            @Override
+            public float sample(SplittableRandom random) {
+                return duration;
+            }
+
+            @Override
+            public float getMaximum() {
+                return duration;
+            }
+        };
+    }
+
+    /**
+     * Creates a distribution where every duration between two values is as likely as any other.
+     * @param minimum The least duration.
+     * @param maximum The greatest duration.
+     * @return The distribution.
+     */
+    static DurationDistribution uniform(float minimum, float maximum) {
+        if (!(minimum >= 0) || !(maximum >= minimum)){
+            throw new IllegalArgumentException(" an invalid range of durations: " + minimum + " to " + maximum);
+        }
+        return new DurationDistribution() {
+            @Override
+            public float sample(SplittableRandom random) {
+                return Math.min(maximum, minimum + (float) random.nextDouble() * (maximum - minimum));
+            }
+
+            @Override
+            public float getMaximum() {
+                return maximum;
+            }
+        };
+    }
+
+    /**
+     * Creates a distribution where every whole number duration between two values is as likely as any other. Whole
+     * numbers add up without rounding, so the critical paths found don't depend on the order the times are added in.
+     * @param minimum The least duration.
+     * @param maximum The greatest duration.
+     * @return The distribution.
+     */
+    static DurationDistribution uniformWhole(int minimum, int maximum) {
+        if (minimum < 0 || maximum < minimum){
+            throw new IllegalArgumentException(" an invalid range of durations: " + minimum + " to " + maximum);
+        }
+        return new DurationDistribution() {
+            @Override
+            public float sample(SplittableRandom random) {
+                return random.nextInt(minimum, maximum + 1);
+            }
+
+            @Override
+            public float getMaximum() {
+                return maximum;
+            }
+        };
+    }
+}
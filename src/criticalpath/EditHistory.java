@@ -0,0 +1,183 @@
+package criticalpath;
+
+import java.util.ArrayDeque;
+
+/**
+ * Undo and redo for the edits made to a network. Every change the network reports is kept as the NetworkEdit that
+ * reverses it, which holds only the tasks, dependencies, durations and ids that were edited, so a long history of a
+ * large network takes up little memory. Undoing applies the edit to the network, which recalculates only the
+ * start/finish times it affects, and the change that makes is kept in turn so it can be redone.
+ * Edits made within one beginUpdate()/endUpdate() pair are undone together.
+ * @author Cameron Sabuda
+ */
+public class EditHistory implements ScheduleChangeListener {
+
+    private final CriticalPathGraph graph;
+    private final ArrayDeque<NetworkEdit> undoEdits = new ArrayDeque<>();
+    private final ArrayDeque<NetworkEdit> redoEdits = new ArrayDeque<>();
+
+    /**
+     * The most edits kept to be undone, after which the oldest are forgotten.
+     */
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Whether the change being reported is an undo (-1), a redo (1) or a new edit (0).
+     */
+    private int applying = 0;
+
+    /**
+     * The change made by the last undo or redo.
+     */
+    private ScheduleChange applied;
+
+    /**
+     * Starts keeping the history of a network. Only the edits made from now on can be undone.
+     * @param graph The network.
+     */
+    public EditHistory(CriticalPathGraph graph) {
+        this.graph = graph;
+        graph.addScheduleChangeListener(this);
+    }
+
+    /**
+     * Stops keeping the history of the network and forgets the edits kept so far.
+     */
+    public void detach() {
+        this.graph.removeScheduleChangeListener(this);
+        this.clear();
+    }
+
+    /**
+     * Keeps the reverse of a change to the network.
+     * @param change What changed.
+     */
+    @Override
+    public void scheduleChanged(ScheduleChange change) {
+        NetworkEdit edit = new NetworkEdit(change);
+        if (this.applying != 0){
+            this.applied = change;
+            (this.applying < 0 ? this.redoEdits : this.undoEdits).push(edit);
+            return;
+        }
+        if (edit.isEmpty()){
+            return;
+        }
+        this.redoEdits.clear();
+        this.undoEdits.push(edit);
+        this.trim();
+    }
+
+    /**
+     * Checks if there is an edit that can be undone.
+     * @return True if undo() can be called.
+     */
+    public boolean canUndo() {
+        return !this.undoEdits.isEmpty();
+    }
+
+    /**
+     * Checks if there is an undone edit that can be redone.
+     * @return True if redo() can be called.
+     */
+    public boolean canRedo() {
+        return !this.redoEdits.isEmpty();
+    }
+
+    /**
+     * Undoes the last edit made to the network.
+     * @return The change made to the network, which is also reported to its other listeners.
+     */
+    public ScheduleChange undo() {
+        if (this.undoEdits.isEmpty()){
+            throw new IllegalStateException(" nothing to undo");
+        }
+        return this.apply(this.undoEdits.pop(), -1);
+    }
+
+    /**
+     * Redoes the last edit that was undone.
+     * @return The change made to the network, which is also reported to its other listeners.
+     */
+    public ScheduleChange redo() {
+        if (this.redoEdits.isEmpty()){
+            throw new IllegalStateException(" nothing to redo");
+        }
+        return this.apply(this.redoEdits.pop(), 1);
+    }
+
+    /**
+     * Applies an edit to the network, keeping the reverse of the change on the other list.
+     * @param edit The edit to apply.
+     * @param direction -1 for an undo or 1 for a redo.
+     * @return The change made to the network.
+     */
+    private ScheduleChange apply(NetworkEdit edit, int direction) {
+        this.applying = direction;
+        this.applied = null;
+        try {
+            this.graph.applyEdit(edit);
+        }
+        finally {
+            this.applying = 0;
+        }
+        if (this.applied == null){
+            throw new IllegalStateException(" an edit that changed nothing");
+        }
+        this.trim();
+        return this.applied;
+    }
+
+    /**
+     * Gets the number of edits that can be undone.
+     * @return The number of edits.
+     */
+    public int getUndoCount() {
+        return this.undoEdits.size();
+    }
+
+    /**
+     * Gets the number of undone edits that can be redone.
+     * @return The number of edits.
+     */
+    public int getRedoCount() {
+        return this.redoEdits.size();
+    }
+
+    /**
+     * Gets the most edits kept to be undone.
+     * @return The limit.
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * Sets the most edits kept to be undone. The oldest edits are forgotten once there are more.
+     * @param limit The limit, which can't be negative.
+     */
+    public void setLimit(int limit) {
+        if (limit < 0){
+            throw new IllegalArgumentException(" an invalid limit: " + limit);
+        }
+        this.limit = limit;
+        this.trim();
+    }
+
+    /**
+     * Forgets every edit kept.
+     */
+    public void clear() {
+        this.undoEdits.clear();
+        this.redoEdits.clear();
+    }
+
+    /**
+     * Forgets the oldest edits until there are no more than the limit.
+     */
+    private void trim() {
+        while (this.undoEdits.size() > this.limit){
+            this.undoEdits.removeLast();
+        }
+    }
+}
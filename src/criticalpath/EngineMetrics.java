@@ -0,0 +1,53 @@
+package criticalpath;
+
+/**
+ * Receives measurements from the scheduling passes of a critical path network, so the cost of the engine can be
+ * watched without printing to the console. Set on a network with CriticalPathGraph.setMetrics().
+ * @author Cameron Sabuda
+ */
+public interface EngineMetrics {
+
+    /**
+     * Metrics that ignore everything. Used by networks until other metrics are set.
+     */
+    EngineMetrics NONE = new EngineMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void passCompleted(PassStatistics statistics) {
+        }
+    };
+
+    /**
+     * Checks if passes should be measured. When this is false the engine doesn't time the passes or call
+     * passCompleted().
+     * @return True if passes should be measured, false if not.
+     */
+    boolean isEnabled();
+
+    /**
+     * Checks if the engine should report the individual steps of its passes with trace(). This costs a lot more than
+     * measuring passes so is off unless overridden.
+     * @return True if steps should be traced, false if not.
+     */
+    default boolean isTracing() {
+        return false;
+    }
+
+    /**
+     * Called when a pass has finished.
+     * @param statistics The measurements of the pass.
+     */
+    void passCompleted(PassStatistics statistics);
+
+    /**
+     * Called for each step of a pass when tracing is on.
+     * @param pass The name of the pass.
+     * @param message A description of the step.
+     */
+    default void trace(String pass, String message) {
+    }
+}
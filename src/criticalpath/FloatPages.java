@@ -0,0 +1,96 @@
+package criticalpath;
+
+/**
+ * An unchangeable array of floats split into fixed size pages. Changing some of the values makes a new FloatPages
+ * that shares every page the change doesn't touch with the old one, so a small change to a large array only copies
+ * the pages it falls in and the array of pages.
+ * @author Cameron Sabuda
+ */
+final class FloatPages {
+
+    /**
+     * The number of values in each page, other than the last.
+     */
+    static final int PAGE_SIZE = 1 << 10;
+    private static final int PAGE_SHIFT = 10;
+
+    private final float[][] pages;
+    private final int length;
+
+    /**
+     * Creates pages holding a copy of an array.
+     * @param values The values to copy.
+     */
+    FloatPages(float[] values) {
+        this.length = values.length;
+        this.pages = new float[(values.length + PAGE_SIZE - 1) >> PAGE_SHIFT][];
+        for (int p = 0; p < this.pages.length; p++){
+            int from = p << PAGE_SHIFT;
+            this.pages[p] = new float[Math.min(PAGE_SIZE, values.length - from)];
+            System.arraycopy(values, from, this.pages[p], 0, this.pages[p].length);
+        }
+    }
+
+    private FloatPages(float[][] pages, int length) {
+        this.pages = pages;
+        this.length = length;
+    }
+
+    /**
+     * Gets the number of values.
+     * @return The number of values.
+     */
+    int length() {
+        return this.length;
+    }
+
+    /**
+     * Gets one of the values.
+     * @param index The number of the value.
+     * @return The value.
+     */
+    float get(int index) {
+        return this.pages[index >> PAGE_SHIFT][index & (PAGE_SIZE - 1)];
+    }
+
+    /**
+     * Copies the first values into an array.
+     * @param into The array to copy into.
+     * @param count The number of values to copy.
+     */
+    void copyTo(float[] into, int count) {
+        for (int p = 0, from = 0; from < count; p++, from += PAGE_SIZE){
+            System.arraycopy(this.pages[p], 0, into, from, Math.min(PAGE_SIZE, count - from));
+        }
+    }
+
+    /**
+     * Creates pages with some of the values changed. Only the pages a change falls in are copied, and the rest are
+     * shared with these pages, which stay as they are.
+     * @param indexes The numbers of the values to change.
+     * @param values The new values, in the same order.
+     * @param count The number of values to change.
+     * @return The new pages, or these pages if no value is really different.
+     */
+    FloatPages with(int[] indexes, float[] values, int count) {
+        float[][] pages = null;
+        boolean[] copied = null;
+        for (int k = 0; k < count; k++){
+            int p = indexes[k] >> PAGE_SHIFT;
+            int offset = indexes[k] & (PAGE_SIZE - 1);
+            if (this.pages[p][offset] == values[k]){
+                continue;
+            }
+            if (pages == null){
+                pages = this.pages.clone();
+                copied = new boolean[pages.length];
+            }
+            if (!copied[p]){
+                pages[p] = pages[p].clone();
+                copied[p] = true;
+            }
+            pages[p][offset] = values[k];
+        }
+        return pages == null ? this : new FloatPages(pages, this.length);
+    }
+}
@@ -0,0 +1,196 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Metrics that keep a histogram of the durations of each kind of pass in memory, along with totals of the tasks and
+ * edges visited and the bytes allocated. Durations are counted in buckets that double in size, so recording a pass
+ * takes the same small amount of memory however many passes there are. Safe to share between threads.
+ * @author Cameron Sabuda
+ */
+public class HistogramEngineMetrics implements EngineMetrics {
+
+    private final HashMap<String, PassHistogram> histograms = new HashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public synchronized void passCompleted(PassStatistics statistics) {
+        PassHistogram histogram = this.histograms.get(statistics.getPass());
+        if (histogram == null) {
+            histogram = new PassHistogram();
+            this.histograms.put(statistics.getPass(), histogram);
+        }
+        histogram.record(statistics);
+    }
+
+    /**
+     * Gets the names of the passes that have been recorded.
+     * @return A list of the names of the passes.
+     */
+    public synchronized ArrayList<String> getPasses() {
+        return new ArrayList<>(this.histograms.keySet());
+    }
+
+    /**
+     * Gets a copy of the histogram of a kind of pass.
+     * @param pass The name of the pass.
+     * @return A copy of the histogram, which is empty if no passes of that kind have been recorded.
+     */
+    public synchronized PassHistogram getHistogram(String pass) {
+        PassHistogram histogram = this.histograms.get(pass);
+        return histogram == null ? new PassHistogram() : histogram.copy();
+    }
+
+    /**
+     * Forgets all the passes that have been recorded.
+     */
+    public synchronized void reset() {
+        this.histograms.clear();
+    }
+
+    /**
+     * The recorded measurements of one kind of pass.
+     */
+    public static class PassHistogram {
+
+        /**
+         * Bucket b counts the passes that took from 2^b up to 2^(b+1) nanoseconds.
+         */
+        private long[] buckets = new long[64];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long minNanos = Long.MAX_VALUE;
+        private long maxNanos = 0;
+        private long tasksVisited = 0;
+        private long edgesVisited = 0;
+        private int queueHighWaterMark = 0;
+        private long allocatedBytes = 0;
+
+        /**
+         * Adds the measurements of a pass to the histogram.
+         * @param statistics The measurements of the pass.
+         */
+        private void record(PassStatistics statistics) {
+            long nanos = Math.max(1, statistics.getDurationNanos());
+            this.buckets[63 - Long.numberOfLeadingZeros(nanos)]++;
+            this.count++;
+            this.totalNanos += nanos;
+            this.minNanos = Math.min(this.minNanos, nanos);
+            this.maxNanos = Math.max(this.maxNanos, nanos);
+            this.tasksVisited += statistics.getTasksVisited();
+            this.edgesVisited += statistics.getEdgesVisited();
+            this.queueHighWaterMark = Math.max(this.queueHighWaterMark, statistics.getQueueHighWaterMark());
+            if (statistics.getAllocatedBytes() > 0) {
+                this.allocatedBytes += statistics.getAllocatedBytes();
+            }
+        }
+
+        /**
+         * Creates a copy of the histogram.
+         * @return The copy.
+         */
+        private PassHistogram copy() {
+            PassHistogram copy = new PassHistogram();
+            copy.buckets = this.buckets.clone();
+            copy.count = this.count;
+            copy.totalNanos = this.totalNanos;
+            copy.minNanos = this.minNanos;
+            copy.maxNanos = this.maxNanos;
+            copy.tasksVisited = this.tasksVisited;
+            copy.edgesVisited = this.edgesVisited;
+            copy.queueHighWaterMark = this.queueHighWaterMark;
+            copy.allocatedBytes = this.allocatedBytes;
+            return copy;
+        }
+
+        /**
+         * Gets an upper bound of a percentile of the durations. As the durations are kept in buckets that double in
+         * size this can be up to twice the real value.
+         * @param percentile The percentile, from 0 to 100.
+         * @return The duration in nanoseconds that the given percentage of passes took no longer than.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (this.count == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(this.count * percentile / 100);
+            long seen = 0;
+            for (int b = 0; b < 64; b++) {
+                seen += this.buckets[b];
+                if (seen >= target && seen > 0) {
+                    return Math.min(this.maxNanos, b == 62 ? Long.MAX_VALUE : (2L << b) - 1);
+                }
+            }
+            return this.maxNanos;
+        }
+
+        /**
+         * Gets the number of passes recorded.
+         * @return The number of passes.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * Gets the average duration of the passes.
+         * @return The mean duration in nanoseconds, or 0 if no passes were recorded.
+         */
+        public double getMeanNanos() {
+            return this.count == 0 ? 0 : (double) this.totalNanos / this.count;
+        }
+
+        /**
+         * Gets the duration of the quickest pass.
+         * @return The shortest duration in nanoseconds, or 0 if no passes were recorded.
+         */
+        public long getMinNanos() {
+            return this.count == 0 ? 0 : this.minNanos;
+        }
+
+        /**
+         * Gets the duration of the slowest pass.
+         * @return The longest duration in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return this.maxNanos;
+        }
+
+        /**
+         * Gets the total number of tasks visited by all the passes.
+         * @return The number of tasks visited.
+         */
+        public long getTasksVisited() {
+            return this.tasksVisited;
+        }
+
+        /**
+         * Gets the total number of edges visited by all the passes.
+         * @return The number of edges visited.
+         */
+        public long getEdgesVisited() {
+            return this.edgesVisited;
+        }
+
+        /**
+         * Gets the highest queue high water mark of all the passes.
+         * @return The most tasks waiting to be visited at once in any pass.
+         */
+        public int getQueueHighWaterMark() {
+            return this.queueHighWaterMark;
+        }
+
+        /**
+         * Gets the total number of bytes allocated by all the passes that could be measured.
+         * @return The number of bytes allocated.
+         */
+        public long getAllocatedBytes() {
+            return this.allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package criticalpath;
+
+import java.util.ArrayList;
+
+/**
+ * The start times of the tasks of a network after it has been scheduled with limited resources by ResourceLeveler.
+ * @author Cameron Sabuda
+ */
+public class LeveledSchedule {
+
+    private final CompactNetwork network;
+    private final float[] startTimes;
+    private final ResourceProfile[] profiles;
+
+    /**
+     * Creates a leveled schedule.
+     * @param network The network that was leveled.
+     * @param startTimes The leveled start time of each task, by task number.
+     * @param profiles The usage of each resource pool over time.
+     */
+    LeveledSchedule(CompactNetwork network, float[] startTimes, ResourceProfile[] profiles) {
+        this.network = network;
+        this.startTimes = startTimes;
+        this.profiles = profiles;
+    }
+
+    /**
+     * Gets the number of tasks in the schedule, including _START_ and _END_.
+     * @return The number of tasks.
+     */
+    public int size() {
+        return this.startTimes.length;
+    }
+
+    /**
+     * Gets the number of a task from its id.
+     * @param id The id of the task.
+     * @return The number of the task.
+     * @throws TaskNotFoundException Thrown if no task in the schedule has the id.
+     */
+    public int indexOf(String id) throws TaskNotFoundException {
+        return this.network.indexOf(id);
+    }
+
+    /**
+     * Gets the id of a task.
+     * @param index The number of the task.
+     * @return The id of the task.
+     */
+    public String getId(int index) {
+        return this.network.getId(index);
+    }
+
+    /**
+     * Gets the leveled start time of a task.
+     * @param index The number of the task.
+     * @return The start time of the task.
+     */
+    public float getStartTime(int index) {
+        return this.startTimes[index];
+    }
+
+    /**
+     * Gets the leveled start time of a task.
+     * @param id The id of the task.
+     * @return The start time of the task.
+     * @throws TaskNotFoundException Thrown if no task in the schedule has the id.
+     */
+    public float getStartTime(String id) throws TaskNotFoundException {
+        return this.startTimes[this.indexOf(id)];
+    }
+
+    /**
+     * Gets the leveled finish time of a task.
+     * @param index The number of the task.
+     * @return The finish time of the task.
+     */
+    public float getFinishTime(int index) {
+        return this.startTimes[index] + this.network.getDuration(index);
+    }
+
+    /**
+     * Gets how long a task was delayed past its early start time to fit the resources.
+     * @param index The number of the task.
+     * @return The leveled start time less the early start time of the task.
+     */
+    public float getDelay(int index) {
+        return this.startTimes[index] - this.network.getEarlyStartTime(index);
+    }
+
+    /**
+     * Gets the time the whole project takes with limited resources.
+     * @return The leveled start time of _END_.
+     */
+    public float getProjectDuration() {
+        return this.startTimes[this.startTimes.length - 1];
+    }
+
+    /**
+     * Gets the resource pools used by the tasks.
+     * @return A new list of the pools.
+     */
+    public ArrayList<ResourcePool> getResourcePools() {
+        ArrayList<ResourcePool> pools = new ArrayList<>(this.profiles.length);
+        for (ResourceProfile profile : this.profiles){
+            pools.add(profile.getPool());
+        }
+        return pools;
+    }
+
+    /**
+     * Gets how much of a resource pool is in use at a time.
+     * @param pool The resource pool.
+     * @param time The time.
+     * @return The amount of the pool in use, or 0 if no task uses the pool.
+     */
+    public float getUsage(ResourcePool pool, float time) {
+        for (ResourceProfile profile : this.profiles){
+            if (profile.getPool() == pool){
+                return profile.getUsage(time);
+            }
+        }
+        return 0;
+    }
+}
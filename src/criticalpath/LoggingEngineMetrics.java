@@ -0,0 +1,57 @@
+package criticalpath;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Metrics that write each pass to a java.util.logging logger as a line of key=value pairs. The PassStatistics are
+ * also attached as the parameter of the log record so a structured handler can read the values directly. Passes are
+ * only measured while the logger is logging at the chosen level, and steps are traced at Level.FINEST.
+ * @author Cameron Sabuda
+ */
+public class LoggingEngineMetrics implements EngineMetrics {
+
+    private final Logger logger;
+    private final Level level;
+
+    /**
+     * Creates metrics that log passes to the "criticalpath.engine" logger at Level.FINE.
+     */
+    public LoggingEngineMetrics() {
+        this(Logger.getLogger("criticalpath.engine"), Level.FINE);
+    }
+
+    /**
+     * Creates metrics that log passes to the given logger.
+     * @param logger The logger to write to.
+     * @param level The level passes are logged at.
+     */
+    public LoggingEngineMetrics(Logger logger, Level level) {
+        this.logger = logger;
+        this.level = level;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.logger.isLoggable(this.level);
+    }
+
+    @Override
+    public boolean isTracing() {
+        return this.logger.isLoggable(Level.FINEST);
+    }
+
+    @Override
+    public void passCompleted(PassStatistics statistics) {
+        LogRecord record = new LogRecord(this.level, statistics.toString());
+        record.setLoggerName(this.logger.getName());
+        record.setParameters(new Object[] {statistics});
+        this.logger.log(record);
+    }
+
+    @Override
+    public void trace(String pass, String message) {
+        this.logger.finest("pass=" + pass + " " + message);
+    }
+}
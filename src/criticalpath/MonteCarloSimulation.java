@@ -0,0 +1,222 @@
+package criticalpath;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulates a project many times over with random task durations, to find how long it is likely to take and how
+ * likely each task is to be critical. Each run picks a duration for every task with a duration distribution and
+ * schedules a compact copy of the network. The runs are shared between threads, each with its own arrays, so nothing is
+ * allocated per run.
+ * @author Cameron Sabuda
+ */
+public class MonteCarloSimulation {
+
+    /**
+     * The number of runs handed to a thread at a time. Each block of runs has its own random numbers, so the results
+     * for a given seed are the same however many threads are used.
+     */
+    static final int BLOCK_SIZE = 256;
+
+    private final CompactNetwork network;
+
+    /**
+     * The duration distribution of each task, by task number, or null for tasks that always take their duration.
+     */
+    private final DurationDistribution[] distributions;
+
+    /**
+     * The numbers of the tasks that have a duration distribution.
+     */
+    private final int[] uncertainTasks;
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a simulation of a network, using the duration distribution of each task that has one.
+     * @param graph The network to simulate.
+     */
+    public MonteCarloSimulation(CriticalPathGraph graph) {
+        this(new CompactNetwork(graph), null);
+    }
+
+    /**
+     * Creates a simulation of a compact network.
+     * @param network The network to simulate.
+     * @param distributions The duration distribution of each task by task number, with null for tasks that always take
+     * their duration. If the whole array is null the distributions of the tasks the network was built from are used.
+     */
+    public MonteCarloSimulation(CompactNetwork network, DurationDistribution[] distributions) {
+        int size = network.size();
+        if (distributions == null){
+            distributions = new DurationDistribution[size];
+            for (int i = 0; i < size; i++){
+                Task task = network.getTask(i);
+                distributions[i] = task == null ? null : task.getDurationDistribution();
+            }
+        }
+        else if (distributions.length != size){
+            throw new IllegalArgumentException(" an invalid number of duration distributions");
+        }
+        this.network = network;
+        this.distributions = distributions.clone();
+
+        int count = 0;
+        for (DurationDistribution distribution : this.distributions){
+            if (distribution != null){
+                count++;
+            }
+        }
+        this.uncertainTasks = new int[count];
+        count = 0;
+        for (int i = 0; i < size; i++){
+            if (this.distributions[i] != null){
+                this.uncertainTasks[count++] = i;
+            }
+        }
+    }
+
+    /**
+     * Gets the network being simulated.
+     * @return The compact network.
+     */
+    public CompactNetwork getNetwork() {
+        return this.network;
+    }
+
+    /**
+     * Gets the number of threads used by run(int, long).
+     * @return The number of threads.
+     */
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Sets the number of threads used by run(int, long).
+     * @param parallelism The number of threads, which must be at least 1.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1){
+            throw new IllegalArgumentException(" an invalid parallelism");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the simulation on a pool of threads made for the purpose.
+     * @param iterations The number of times to simulate the project.
+     * @param seed The seed of the random durations, so the same results can be found again.
+     * @return The results of the simulation.
+     */
+    public SimulationResult run(int iterations, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            return this.run(iterations, seed, pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Runs the simulation on the threads of a pool.
+     * @param iterations The number of times to simulate the project.
+     * @param seed The seed of the random durations, so the same results can be found again.
+     * @param pool The pool whose threads are used.
+     * @return The results of the simulation.
+     */
+    public SimulationResult run(int iterations, long seed, ForkJoinPool pool) {
+        if (iterations < 1){
+            throw new IllegalArgumentException(" an invalid number of iterations: " + iterations);
+        }
+        // every block gets its own seed up front, so which thread runs it makes no difference
+        int blocks = (iterations + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        long[] blockSeeds = new long[blocks];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int b = 0; b < blocks; b++){
+            blockSeeds[b] = random.nextLong();
+        }
+
+        float[] projectDurations = new float[iterations];
+        AtomicInteger nextBlock = new AtomicInteger();
+        Worker[] workers = new Worker[Math.min(pool.getParallelism(), blocks)];
+        for (int w = 0; w < workers.length; w++){
+            workers[w] = new Worker(this, blockSeeds, nextBlock, projectDurations);
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(workers);
+            }
+        });
+
+        int[] criticalCounts = new int[this.network.size()];
+        for (Worker worker : workers){
+            for (int i = 0; i < criticalCounts.length; i++){
+                criticalCounts[i] += worker.criticalCounts[i];
+            }
+        }
+        return new SimulationResult(this.network, projectDurations, criticalCounts);
+    }
+
+    /**
+     * Runs blocks of the simulation on one thread until there are none left. Workers are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class Worker extends RecursiveAction {
+
+        private final MonteCarloSimulation simulation;
+        private final long[] blockSeeds;
+        private final AtomicInteger nextBlock;
+        private final float[] projectDurations;
+        private int[] criticalCounts;
+
+        private Worker(MonteCarloSimulation simulation, long[] blockSeeds, AtomicInteger nextBlock,
+                       float[] projectDurations) {
+            this.simulation = simulation;
+            this.blockSeeds = blockSeeds;
+            this.nextBlock = nextBlock;
+            this.projectDurations = projectDurations;
+        }
+
+        @Override
+        protected void compute() {
+            CompactNetwork network = this.simulation.network;
+            DurationDistribution[] distributions = this.simulation.distributions;
+            int[] uncertainTasks = this.simulation.uncertainTasks;
+            int size = network.size();
+            int end = size - 1;
+
+            // the tasks without distributions keep their durations, so only the others are written each run
+            float[] durations = network.durations().clone();
+            float[] earlyStartTimes = new float[size];
+            float[] latestFinishTimes = new float[size];
+            this.criticalCounts = new int[size];
+
+            int block;
+            while ((block = this.nextBlock.getAndIncrement()) < this.blockSeeds.length){
+                SplittableRandom random = new SplittableRandom(this.blockSeeds[block]);
+                int last = Math.min(this.projectDurations.length, (block + 1) * BLOCK_SIZE);
+                for (int iteration = block * BLOCK_SIZE; iteration < last; iteration++){
+                    for (int i : uncertainTasks){
+                        durations[i] = distributions[i].sample(random);
+                    }
+                    network.forwardPass(durations, earlyStartTimes);
+                    network.backwardPass(durations, earlyStartTimes, latestFinishTimes);
+
+                    float projectDuration = earlyStartTimes[end];
+                    this.projectDurations[iteration] = projectDuration;
+                    float tolerance = CriticalPathGraph.CRITICAL_TOLERANCE_ULPS * Math.ulp(projectDuration);
+                    for (int i = 0; i < size; i++){
+                        if (latestFinishTimes[i] - (earlyStartTimes[i] + durations[i]) <= tolerance){
+                            this.criticalCounts[i]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The changes that take a network back to how it was before a ScheduleChange: the tasks and dependencies to add back
+ * or take away again, and the durations and ids to put back. Start/finish times and floats aren't kept, as the
+ * network works them out again from the tasks that change, so an edit only takes up space for what was actually
+ * edited however many tasks' times moved because of it.
+ * @author Cameron Sabuda
+ */
+final class NetworkEdit {
+
+    private static final Task[] NO_TASKS = new Task[0];
+
+    /**
+     * The dependencies to remove, each predecessor with the task at the same position.
+     */
+    final Task[] unlinkPredecessors;
+    final Task[] unlinkTasks;
+
+    /**
+     * The tasks to delete, which have already been unlinked.
+     */
+    final Task[] deleteTasks;
+
+    /**
+     * The tasks to rename and their ids.
+     */
+    final Task[] renameTasks;
+    final String[] ids;
+
+    /**
+     * The tasks to add back, before they are linked.
+     */
+    final Task[] addTasks;
+
+    /**
+     * The dependencies to add, each predecessor with the task at the same position.
+     */
+    final Task[] linkPredecessors;
+    final Task[] linkTasks;
+
+    /**
+     * The tasks whose durations are put back and their durations.
+     */
+    final Task[] durationTasks;
+    final float[] durations;
+
+    /**
+     * Creates the edit that undoes a change.
+     * @param change The change to undo.
+     */
+    NetworkEdit(ScheduleChange change) {
+        List<Dependency> added = change.getAddedDependencies();
+        this.unlinkPredecessors = new Task[added.size()];
+        this.unlinkTasks = new Task[added.size()];
+        for (int i = 0; i < added.size(); i++){
+            this.unlinkPredecessors[i] = added.get(i).getPredecessor();
+            this.unlinkTasks[i] = added.get(i).getTask();
+        }
+        this.deleteTasks = change.getAddedTasks().toArray(NO_TASKS);
+        this.addTasks = change.getDeletedTasks().toArray(NO_TASKS);
+        List<Dependency> removed = change.getRemovedDependencies();
+        this.linkPredecessors = new Task[removed.size()];
+        this.linkTasks = new Task[removed.size()];
+        for (int i = 0; i < removed.size(); i++){
+            this.linkPredecessors[i] = removed.get(i).getPredecessor();
+            this.linkTasks[i] = removed.get(i).getTask();
+        }
+
+        // only edited values are kept, not the times and floats that follow from them
+        ArrayList<TaskChange> renamed = new ArrayList<>();
+        ArrayList<TaskChange> resized = new ArrayList<>();
+        for (TaskChange taskChange : change.getTaskChanges()){
+            if (!taskChange.getOldId().equals(taskChange.getTask().getId())){
+                renamed.add(taskChange);
+            }
+            if (taskChange.getOldDuration() != taskChange.getTask().getDuration()){
+                resized.add(taskChange);
+            }
+        }
+        this.renameTasks = new Task[renamed.size()];
+        this.ids = new String[renamed.size()];
+        for (int i = 0; i < renamed.size(); i++){
+            this.renameTasks[i] = renamed.get(i).getTask();
+            this.ids[i] = renamed.get(i).getOldId();
+        }
+        this.durationTasks = new Task[resized.size()];
+        this.durations = new float[resized.size()];
+        for (int i = 0; i < resized.size(); i++){
+            this.durationTasks[i] = resized.get(i).getTask();
+            this.durations[i] = resized.get(i).getOldDuration();
+        }
+    }
+
+    /**
+     * Checks if the edit changes nothing, such as for a change that only moved start/finish times.
+     * @return True if there is nothing to undo.
+     */
+    boolean isEmpty() {
+        return this.unlinkTasks.length == 0 && this.deleteTasks.length == 0 && this.renameTasks.length == 0
+                && this.addTasks.length == 0 && this.linkTasks.length == 0 && this.durationTasks.length == 0;
+    }
+}
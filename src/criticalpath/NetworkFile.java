@@ -0,0 +1,128 @@
+package criticalpath;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes critical path networks in the .cpg format, so they can be saved and opened without the user
+ * interface. Each task is written as its id, duration and predecessor ids, e.g. "B:2.0:A;_START_;," and tasks are
+ * always written after their predecessors so the file can be read back in one pass.
+ * @author Cameron Sabuda
+ */
+public final class NetworkFile {
+
+    /**
+     * The file extension of critical path network files.
+     */
+    public static final String EXTENSION = "cpg";
+
+    private NetworkFile() {
+    }
+
+    /**
+     * Converts a network into a string that can be used to restore it.
+     * @param graph The network to convert.
+     * @return A string version of the network.
+     */
+    public static String write(CriticalPathGraph graph) {
+        StringBuilder file = new StringBuilder(graph.getTasks().size() * 16);
+        for (Task task : graph.getTopologicalOrder()){
+            appendTask(file, task, graph);
+        }
+        return file.toString();
+    }
+
+    /**
+     * Writes a network to a writer a task at a time, so a large network doesn't have to be held as one string.
+     * @param graph The network to write.
+     * @param writer Where to write the network to. It is not closed.
+     * @throws IOException Thrown if the writer can't be written to.
+     */
+    public static void write(CriticalPathGraph graph, Writer writer) throws IOException {
+        StringBuilder file = new StringBuilder(64);
+        for (Task task : graph.getTopologicalOrder()){
+            file.setLength(0);
+            appendTask(file, task, graph);
+            writer.append(file);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Adds a single task to a file, unless it is the _START_ or _END_ node.
+     * @param file The file being built.
+     * @param task The task to add.
+     * @param graph The network the task is in.
+     */
+    private static void appendTask(StringBuilder file, Task task, CriticalPathGraph graph) {
+        if (task == graph.getStartTask() || task == graph.getEndTask()){
+            return;
+        }
+        file.append(task.getId());
+        file.append(':');
+        file.append(task.getDuration());
+        file.append(':');
+        for (Task tsk : task.getPredecessors()){
+            file.append(tsk.getId());
+            file.append(';');
+        }
+        file.append(',');
+    }
+
+    /**
+     * Adds the tasks in a file to a network. All the tasks are added in one update so the start/finish times are only
+     * calculated once.
+     * @param file The contents of the file.
+     * @param graph The network to add the tasks to.
+     * @return The tasks that were added, in the order they appear in the file.
+     * @throws DuplicateTaskException Thrown if a task in the file has the same id as one already added.
+     * @throws TaskNotFoundException Thrown if a task in the file has a predecessor that comes after it or isn't there.
+     * @throws CyclicDependencyException Thrown if a task in the file depends on _END_ or on itself.
+     */
+    public static ArrayList<Task> read(String file, CriticalPathGraph graph)
+            throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        graph.beginUpdate();
+        try {
+            for (String task : file.split(",")){
+                if (task.isEmpty()){
+                    continue;
+                }
+                String[] data = task.split(":");
+                if (data.length < 2){
+                    throw new IllegalArgumentException(" an invalid task: " + task);
+                }
+                String id = data[0];
+                float duration = Float.parseFloat(data[1]);
+                ArrayList<Task> predecessors = new ArrayList<>();
+                if (data.length > 2){
+                    for (String preTask : data[2].split(";")){
+                        predecessors.add(graph.getTask(preTask));
+                    }
+                }
+                Task tsk = new Task(id, duration, predecessors);
+                graph.addTask(tsk);
+                tasks.add(tsk);
+            }
+        } finally {
+            graph.endUpdate();
+        }
+        return tasks;
+    }
+
+    /**
+     * Creates a new network from the contents of a file.
+     * @param file The contents of the file.
+     * @return The network described by the file.
+     * @throws DuplicateTaskException Thrown if two tasks in the file have the same id.
+     * @throws TaskNotFoundException Thrown if a task in the file has a predecessor that comes after it or isn't there.
+     * @throws CyclicDependencyException Thrown if a task in the file depends on _END_ or on itself.
+     */
+    public static CriticalPathGraph read(String file)
+            throws DuplicateTaskException, TaskNotFoundException, CyclicDependencyException {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        read(file, graph);
+        return graph;
+    }
+}
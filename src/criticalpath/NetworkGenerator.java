@@ -0,0 +1,400 @@
+package criticalpath;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Makes up large networks for load testing. The tasks are laid out in layers, and each task depends on tasks in the
+ * layer before it, so the depth of the network is the number of layers. A number of separate chains of tasks running
+ * through every layer are made to take longer than anything else, so the network has exactly that many critical paths.
+ * The same seed and settings always give the same network, and the tasks are handed out one at a time, so a network
+ * can be written to a file without ever being held in memory.
+ * @author Cameron Sabuda
+ */
+public class NetworkGenerator {
+
+    /**
+     * Receives the tasks of a network as they are made up. Tasks are numbered from 0 and always come after their
+     * predecessors.
+     */
+    public interface TaskSink {
+
+        /**
+         * Receives a task.
+         * @param task The number of the task.
+         * @param duration The duration of the task.
+         * @param predecessors The numbers of the predecessors of the task. The array is reused for the next task.
+         * @param predecessorCount How many entries of the predecessors array are used.
+         * @throws IOException Thrown if the task can't be written out.
+         */
+        void addTask(int task, float duration, int[] predecessors, int predecessorCount) throws IOException;
+    }
+
+    private final long seed;
+    private final int taskCount;
+    private int depth;
+    private double averageInDegree = 2;
+    private int maxInDegree = 4;
+    private DurationDistribution durationDistribution = DurationDistribution.uniformWhole(1, 10);
+    private int criticalBranches = 1;
+
+    /**
+     * Creates a generator for networks with a given number of tasks. The depth starts as the square root of the
+     * number of tasks.
+     * @param seed The seed of the random choices, so the same network can be made again.
+     * @param taskCount The number of tasks, not counting _START_ and _END_.
+     */
+    public NetworkGenerator(long seed, int taskCount) {
+        if (taskCount < 1){
+            throw new IllegalArgumentException(" an invalid number of tasks: " + taskCount);
+        }
+        this.seed = seed;
+        this.taskCount = taskCount;
+        this.depth = Math.max(1, (int) Math.sqrt(taskCount));
+    }
+
+    /**
+     * Gets the seed of the random choices.
+     * @return The seed.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * Gets the number of tasks that will be made.
+     * @return The number of tasks, not counting _START_ and _END_.
+     */
+    public int getTaskCount() {
+        return this.taskCount;
+    }
+
+    /**
+     * Gets the number of layers of tasks.
+     * @return The depth of the network.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Sets the number of layers of tasks. Every critical path goes through one task in each layer.
+     * @param depth The new depth, from 1 to the number of tasks.
+     */
+    public void setDepth(int depth) {
+        if (depth < 1 || depth > this.taskCount){
+            throw new IllegalArgumentException(" an invalid depth: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * Gets the average number of predecessors of a task that isn't in the first layer or on a critical branch.
+     * @return The average in-degree.
+     */
+    public double getAverageInDegree() {
+        return this.averageInDegree;
+    }
+
+    /**
+     * Sets the average number of predecessors of a task that isn't in the first layer or on a critical branch. The
+     * number of predecessors of each task is picked evenly from 1 to twice the average less one, so the average is only
+     * met if the max in-degree and the size of the layers allow it.
+     * @param averageInDegree The new average in-degree, at least 1.
+     */
+    public void setAverageInDegree(double averageInDegree) {
+        if (!(averageInDegree >= 1)){
+            throw new IllegalArgumentException(" an invalid average in-degree: " + averageInDegree);
+        }
+        this.averageInDegree = averageInDegree;
+    }
+
+    /**
+     * Gets the most predecessors a task can have.
+     * @return The max in-degree.
+     */
+    public int getMaxInDegree() {
+        return this.maxInDegree;
+    }
+
+    /**
+     * Sets the most predecessors a task can have.
+     * @param maxInDegree The new max in-degree, at least 1.
+     */
+    public void setMaxInDegree(int maxInDegree) {
+        if (maxInDegree < 1){
+            throw new IllegalArgumentException(" an invalid max in-degree: " + maxInDegree);
+        }
+        this.maxInDegree = maxInDegree;
+    }
+
+    /**
+     * Gets the distribution the durations of the tasks off the critical branches are picked from.
+     * @return The duration distribution.
+     */
+    public DurationDistribution getDurationDistribution() {
+        return this.durationDistribution;
+    }
+
+    /**
+     * Sets the distribution the durations of the tasks off the critical branches are picked from. Tasks on the critical
+     * branches take one longer than the greatest duration of the distribution.
+     * @param durationDistribution The new duration distribution.
+     */
+    public void setDurationDistribution(DurationDistribution durationDistribution) {
+        this.durationDistribution = durationDistribution;
+    }
+
+    /**
+     * Gets the number of separate critical paths that are made.
+     * @return The number of critical branches.
+     */
+    public int getCriticalBranches() {
+        return this.criticalBranches;
+    }
+
+    /**
+     * Sets the number of separate critical paths that are made. There can't be more than there are tasks in the
+     * smallest layer. With no critical branches, the critical paths are whatever the random durations make them.
+     * @param criticalBranches The new number of critical branches.
+     */
+    public void setCriticalBranches(int criticalBranches) {
+        if (criticalBranches < 0){
+            throw new IllegalArgumentException(" an invalid number of critical branches: " + criticalBranches);
+        }
+        this.criticalBranches = criticalBranches;
+    }
+
+    /**
+     * Gets the id given to a task.
+     * @param task The number of the task.
+     * @return The id of the task.
+     */
+    public static String getId(int task) {
+        return "T" + task;
+    }
+
+    /**
+     * Gets the number of the first task in a layer.
+     * @param layer The layer, where the layer after the last one gives the number of tasks.
+     * @return The number of the first task in the layer.
+     */
+    private int layerStart(int layer) {
+        return (int) ((long) layer * this.taskCount / this.depth);
+    }
+
+    /**
+     * Makes up the network, handing each task to a sink as soon as it is made. Only the current task is held in
+     * memory, so networks of any size can be made.
+     * @param sink Where to send the tasks.
+     * @throws IOException Thrown if the sink can't write a task out.
+     */
+    public void generate(TaskSink sink) throws IOException {
+        if (this.criticalBranches > this.taskCount / this.depth){
+            throw new IllegalStateException(" more critical branches than tasks in a layer");
+        }
+        SplittableRandom random = new SplittableRandom(this.seed);
+        float criticalDuration = this.durationDistribution.getMaximum() + 1;
+        int[] predecessors = new int[this.maxInDegree];
+        int[] chosen = new int[0];
+
+        for (int layer = 0; layer < this.depth; layer++){
+            int start = this.layerStart(layer);
+            int end = this.layerStart(layer + 1);
+            int previousStart = layer == 0 ? 0 : this.layerStart(layer - 1);
+            int previousWidth = start - previousStart;
+
+            for (int task = start; task < end; task++){
+                int branch = task - start;
+                if (branch < this.criticalBranches){
+                    // the critical branches only follow themselves, so they stay separate
+                    if (layer == 0){
+                        sink.addTask(task, criticalDuration, predecessors, 0);
+                    } else {
+                        predecessors[0] = previousStart + branch;
+                        sink.addTask(task, criticalDuration, predecessors, 1);
+                    }
+                    continue;
+                }
+
+                float duration = this.durationDistribution.sample(random);
+                if (layer == 0){
+                    sink.addTask(task, duration, predecessors, 0);
+                    continue;
+                }
+                int count = 1 + (int) (random.nextDouble() * (2 * this.averageInDegree - 1));
+                count = Math.min(count, Math.min(this.maxInDegree, previousWidth));
+                if (count * 2 <= previousWidth){
+                    // few picks from a large layer, so just pick again on a repeat
+                    int picked = 0;
+                    while (picked < count){
+                        int pred = previousStart + random.nextInt(previousWidth);
+                        boolean repeat = false;
+                        for (int i = 0; i < picked; i++){
+                            if (predecessors[i] == pred){
+                                repeat = true;
+                                break;
+                            }
+                        }
+                        if (!repeat){
+                            predecessors[picked++] = pred;
+                        }
+                    }
+                    Arrays.sort(predecessors, 0, count);
+                } else {
+                    // pick each task in the layer with the chance that leaves the right number still to pick
+                    if (chosen.length < count){
+                        chosen = new int[count];
+                    }
+                    int picked = 0;
+                    for (int i = 0; i < previousWidth && picked < count; i++){
+                        if (random.nextInt(previousWidth - i) < count - picked){
+                            chosen[picked++] = previousStart + i;
+                        }
+                    }
+                    System.arraycopy(chosen, 0, predecessors, 0, count);
+                }
+                sink.addTask(task, duration, predecessors, count);
+            }
+        }
+    }
+
+    /**
+     * Writes the network to a writer in the .cpg format a task at a time, so networks too large to fit in memory can
+     * be written to a file.
+     * @param writer Where to write the network. It is not closed.
+     * @throws IOException Thrown if the writer can't be written to.
+     */
+    public void writeTo(Writer writer) throws IOException {
+        StringBuilder file = new StringBuilder(64);
+        this.generate((task, duration, predecessors, predecessorCount) -> {
+            file.setLength(0);
+            file.append(getId(task));
+            file.append(':');
+            file.append(duration);
+            file.append(':');
+            if (predecessorCount == 0){
+                file.append("_START_;");
+            }
+            for (int i = 0; i < predecessorCount; i++){
+                file.append(getId(predecessors[i]));
+                file.append(';');
+            }
+            file.append(',');
+            writer.append(file);
+        });
+        writer.flush();
+    }
+
+    /**
+     * Builds the network as a CriticalPathGraph, adding all the tasks in one update.
+     * @return The network.
+     */
+    public CriticalPathGraph createGraph() {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        graph.beginUpdate();
+        try {
+            this.generate((task, duration, predecessors, predecessorCount) -> {
+                ArrayList<Task> preds = new ArrayList<>(predecessorCount);
+                try {
+                    for (int i = 0; i < predecessorCount; i++){
+                        preds.add(graph.getTask(getId(predecessors[i])));
+                    }
+                    graph.addTask(new Task(getId(task), duration, preds));
+                } catch (DuplicateTaskException | TaskNotFoundException | CyclicDependencyException e){
+                    throw new IllegalStateException(e);
+                }
+            });
+        } catch (IOException e){
+            // nothing is written anywhere
+            throw new IllegalStateException(e);
+        } finally {
+            graph.endUpdate();
+        }
+        return graph;
+    }
+
+    /**
+     * Builds the network as a CompactNetwork, without making a Task for each task.
+     * @return The network, with its start/finish times calculated.
+     */
+    public CompactNetwork createCompactNetwork() {
+        CompactSink sink = new CompactSink(this.taskCount);
+        try {
+            this.generate(sink);
+        } catch (IOException e){
+            // nothing is written anywhere
+            throw new IllegalStateException(e);
+        }
+        return sink.createNetwork();
+    }
+
+    /**
+     * Collects tasks into the arrays of a CompactNetwork, numbered one on from the generator so _START_ can come first.
+     */
+    private static class CompactSink implements TaskSink {
+
+        private final String[] ids;
+        private final float[] durations;
+        private final int[] predecessorOffsets;
+        private final boolean[] hasSuccessors;
+        private int[] predecessors;
+        private int edgeCount = 0;
+
+        private CompactSink(int taskCount) {
+            int size = taskCount + 2;
+            this.ids = new String[size];
+            this.durations = new float[size];
+            this.predecessorOffsets = new int[size + 1];
+            this.hasSuccessors = new boolean[size];
+            this.predecessors = new int[taskCount * 2];
+            this.ids[0] = "_START_";
+        }
+
+        @Override
+        public void addTask(int task, float duration, int[] predecessors, int predecessorCount) {
+            int index = task + 1;
+            this.ids[index] = getId(task);
+            this.durations[index] = duration;
+            this.predecessorOffsets[index] = this.edgeCount;
+            int needed = this.edgeCount + Math.max(predecessorCount, 1);
+            if (needed > this.predecessors.length){
+                this.predecessors = Arrays.copyOf(this.predecessors, Math.max(needed, this.predecessors.length * 2));
+            }
+            if (predecessorCount == 0){
+                this.predecessors[this.edgeCount++] = 0;
+            }
+            for (int i = 0; i < predecessorCount; i++){
+                this.predecessors[this.edgeCount++] = predecessors[i] + 1;
+                this.hasSuccessors[predecessors[i] + 1] = true;
+            }
+        }
+
+        /**
+         * Links the tasks without successors to _END_ and builds the network.
+         * @return The network, with its start/finish times calculated.
+         */
+        private CompactNetwork createNetwork() {
+            int end = this.ids.length - 1;
+            this.ids[end] = "_END_";
+            this.predecessorOffsets[end] = this.edgeCount;
+            int endPredecessors = 0;
+            for (int i = 1; i < end; i++){
+                if (!this.hasSuccessors[i]){
+                    endPredecessors++;
+                }
+            }
+            int[] predecessors = Arrays.copyOf(this.predecessors, this.edgeCount + endPredecessors);
+            for (int i = 1; i < end; i++){
+                if (!this.hasSuccessors[i]){
+                    predecessors[this.edgeCount++] = i;
+                }
+            }
+            this.predecessorOffsets[end + 1] = this.edgeCount;
+            return new CompactNetwork(this.ids, this.durations, this.predecessorOffsets, predecessors);
+        }
+    }
+}
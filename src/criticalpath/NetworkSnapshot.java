@@ -0,0 +1,235 @@
+package criticalpath;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * An unchangeable copy of a critical path network, taken at one moment, from which what-if scenarios are made. The
+ * tasks, links and times of the snapshot are shared by every scenario made from it, and nothing in the snapshot is
+ * ever written to once it has been taken, so any number of threads can make and schedule scenarios at once without
+ * locking and without touching the network it was taken from. Snapshots taken one after another by a
+ * ConcurrentCriticalPathGraph share whatever didn't change between them.
+ * @author Cameron Sabuda
+ */
+public final class NetworkSnapshot {
+
+    /**
+     * The tasks and links of the network, which are shared by every snapshot taken while they stay the same. Its own
+     * durations and times are those of the first of these snapshots, so the pages below are used instead.
+     */
+    private final CompactNetwork network;
+
+    /**
+     * The durations and start/finish times of the tasks, in the same order as the compact network. Snapshots taken
+     * one after another share every page that didn't change between them.
+     */
+    private final FloatPages durations;
+    private final FloatPages earlyStartTimes;
+    private final FloatPages latestFinishTimes;
+
+    /**
+     * Takes a snapshot of a critical path network. The network should not be changed by another thread while the
+     * snapshot is being taken, but can be changed freely afterwards.
+     * @param graph The network to take a snapshot of.
+     */
+    public NetworkSnapshot(CriticalPathGraph graph) {
+        this.network = new CompactNetwork(graph);
+        // the network keeps its times up to date, so they are copied as they are unless an update is still going on
+        if (graph.isUpdating()){
+            this.network.schedule();
+        }
+        // the index of ids is made the first time it is needed, so make it now rather than on several threads at once
+        try {
+            this.network.indexOf(this.network.getId(0));
+        }
+        catch (TaskNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+        this.durations = new FloatPages(this.network.durations());
+        this.earlyStartTimes = new FloatPages(this.network.earlyStartTimes());
+        this.latestFinishTimes = new FloatPages(this.network.latestFinishTimes());
+    }
+
+    private NetworkSnapshot(CompactNetwork network, FloatPages durations, FloatPages earlyStartTimes,
+                            FloatPages latestFinishTimes) {
+        this.network = network;
+        this.durations = durations;
+        this.earlyStartTimes = earlyStartTimes;
+        this.latestFinishTimes = latestFinishTimes;
+    }
+
+    /**
+     * Takes a new snapshot of the same network after some of its tasks have new durations or times. The tasks and
+     * links must be the same as when this snapshot was taken, and no task may have been renamed. Everything that
+     * didn't change is shared with this snapshot, which stays as it is.
+     * @param tasks The tasks whose durations or times have changed.
+     * @return The new snapshot.
+     */
+    NetworkSnapshot withChanges(Collection<Task> tasks) {
+        int[] indexes = new int[tasks.size()];
+        float[] durations = new float[indexes.length];
+        float[] earlyStartTimes = new float[indexes.length];
+        float[] latestFinishTimes = new float[indexes.length];
+        int count = 0;
+        for (Task task : tasks){
+            try {
+                indexes[count] = this.indexOf(task.getId());
+            }
+            catch (TaskNotFoundException e) {
+                throw new IllegalStateException(" a task that isn't in the snapshot", e);
+            }
+            durations[count] = task.getDuration();
+            earlyStartTimes[count] = task.getEarlyStartTime();
+            latestFinishTimes[count] = task.getLatestFinishTime();
+            count++;
+        }
+        return new NetworkSnapshot(this.network, this.durations.with(indexes, durations, count),
+                                   this.earlyStartTimes.with(indexes, earlyStartTimes, count),
+                                   this.latestFinishTimes.with(indexes, latestFinishTimes, count));
+    }
+
+    /**
+     * Gets the number of tasks in the snapshot, including _START_ and _END_.
+     * @return The number of tasks.
+     */
+    public int size() {
+        return this.network.size();
+    }
+
+    /**
+     * Gets the number of a task from its id. Tasks are numbered in topological order, as in CompactNetwork.
+     * @param id The id of the task.
+     * @return The number of the task.
+     * @throws TaskNotFoundException Thrown if no task in the snapshot has the id.
+     */
+    public int indexOf(String id) throws TaskNotFoundException {
+        return this.network.indexOf(id);
+    }
+
+    /**
+     * Gets the id of a task.
+     * @param index The number of the task.
+     * @return The id of the task.
+     */
+    public String getId(int index) {
+        return this.network.getId(index);
+    }
+
+    /**
+     * Gets the duration a task had when the snapshot was taken.
+     * @param index The number of the task.
+     * @return The duration of the task.
+     */
+    public float getDuration(int index) {
+        return this.durations.get(index);
+    }
+
+    /**
+     * Gets the early start time a task had when the snapshot was taken.
+     * @param index The number of the task.
+     * @return The early start time of the task.
+     */
+    public float getEarlyStartTime(int index) {
+        return this.earlyStartTimes.get(index);
+    }
+
+    /**
+     * Gets the latest finish time a task had when the snapshot was taken.
+     * @param index The number of the task.
+     * @return The latest finish time of the task.
+     */
+    public float getLatestFinishTime(int index) {
+        return this.latestFinishTimes.get(index);
+    }
+
+    /**
+     * Gets the total float a task had when the snapshot was taken.
+     * @param index The number of the task.
+     * @return The total float of the task.
+     */
+    public float getTotalFloat(int index) {
+        return this.latestFinishTimes.get(index) - (this.earlyStartTimes.get(index) + this.durations.get(index));
+    }
+
+    /**
+     * Gets the minimum time the whole project could be completed in when the snapshot was taken.
+     * @return The early start time of _END_.
+     */
+    public float getProjectDuration() {
+        return this.earlyStartTimes.get(this.earlyStartTimes.length() - 1);
+    }
+
+    /**
+     * Creates a scenario where one task takes a different time.
+     * @param id The id of the task.
+     * @param duration The duration of the task in the scenario.
+     * @return The new scenario.
+     * @throws TaskNotFoundException Thrown if no task in the snapshot has the id.
+     */
+    public Scenario withDuration(String id, float duration) throws TaskNotFoundException {
+        return new Scenario(this, null, this.indexOf(id), duration);
+    }
+
+    /**
+     * Creates a scenario where one task takes longer, or shorter if the delay is negative.
+     * @param id The id of the task.
+     * @param delay How much longer the task takes in the scenario.
+     * @return The new scenario.
+     * @throws TaskNotFoundException Thrown if no task in the snapshot has the id.
+     */
+    public Scenario withDelay(String id, float delay) throws TaskNotFoundException {
+        int index = this.indexOf(id);
+        return new Scenario(this, null, index, this.getDuration(index) + delay);
+    }
+
+    /**
+     * Schedules many scenarios at once, each on its own thread of a pool. Scenarios are scheduled the first time their
+     * times are asked for anyway, so this only decides which threads do the work.
+     * @param scenarios The scenarios to schedule, which may have been made from different snapshots.
+     * @param pool The pool whose threads are used.
+     */
+    public static void schedule(Collection<Scenario> scenarios, ForkJoinPool pool) {
+        RecursiveAction[] actions = new RecursiveAction[scenarios.size()];
+        int a = 0;
+        for (Scenario scenario : scenarios){
+            actions[a++] = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    scenario.schedule();
+                }
+            };
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(actions);
+            }
+        });
+    }
+
+    /**
+     * Gets the compact network holding the tasks and links of the snapshot, which must not be changed. Its durations
+     * and times may be older than the snapshot's, so use durations() and earlyStartTimes() instead.
+     * @return The compact network.
+     */
+    CompactNetwork network() {
+        return this.network;
+    }
+
+    /**
+     * Gets the durations of the tasks in the snapshot.
+     * @return The pages of durations.
+     */
+    FloatPages durations() {
+        return this.durations;
+    }
+
+    /**
+     * Gets the early start times of the tasks in the snapshot.
+     * @return The pages of early start times.
+     */
+    FloatPages earlyStartTimes() {
+        return this.earlyStartTimes;
+    }
+}
@@ -0,0 +1,93 @@
+package criticalpath;
+
+/**
+ * The measurements of one pass of the scheduling engine, such as working out the start times of the network or
+ * finding its critical subgraph.
+ * @author Cameron Sabuda
+ */
+public class PassStatistics {
+
+    private final String pass;
+    private final long durationNanos;
+    private final int tasksVisited;
+    private final int edgesVisited;
+    private final int queueHighWaterMark;
+    private final long allocatedBytes;
+
+    /**
+     * Creates the measurements of a pass.
+     * @param pass The name of the pass.
+     * @param durationNanos How long the pass took in nanoseconds.
+     * @param tasksVisited How many times a task was visited.
+     * @param edgesVisited How many times a link between two tasks was followed.
+     * @param queueHighWaterMark The most tasks waiting to be visited at once.
+     * @param allocatedBytes How many bytes the pass allocated, or -1 if the JVM can't measure it.
+     */
+    public PassStatistics(String pass, long durationNanos, int tasksVisited, int edgesVisited,
+                          int queueHighWaterMark, long allocatedBytes) {
+        this.pass = pass;
+        this.durationNanos = durationNanos;
+        this.tasksVisited = tasksVisited;
+        this.edgesVisited = edgesVisited;
+        this.queueHighWaterMark = queueHighWaterMark;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Gets the name of the pass, such as "topological" or "incremental.forward".
+     * @return The name of the pass.
+     */
+    public String getPass() {
+        return this.pass;
+    }
+
+    /**
+     * Gets how long the pass took.
+     * @return The duration of the pass in nanoseconds.
+     */
+    public long getDurationNanos() {
+        return this.durationNanos;
+    }
+
+    /**
+     * Gets how many times a task was visited.
+     * @return The number of tasks visited.
+     */
+    public int getTasksVisited() {
+        return this.tasksVisited;
+    }
+
+    /**
+     * Gets how many times a link between two tasks was followed.
+     * @return The number of edges visited.
+     */
+    public int getEdgesVisited() {
+        return this.edgesVisited;
+    }
+
+    /**
+     * Gets the most tasks that were waiting to be visited at once.
+     * @return The high water mark of the pass's queue.
+     */
+    public int getQueueHighWaterMark() {
+        return this.queueHighWaterMark;
+    }
+
+    /**
+     * Gets how many bytes the pass allocated on its thread.
+     * @return The number of bytes allocated, or -1 if the JVM can't measure it.
+     */
+    public long getAllocatedBytes() {
+        return this.allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "pass=" + this.pass
+                + " durationNanos=" + this.durationNanos
+                + " tasksVisited=" + this.tasksVisited
+                + " edgesVisited=" + this.edgesVisited
+                + " queueHighWaterMark=" + this.queueHighWaterMark
+                + " allocatedBytes=" + this.allocatedBytes;
+    }
+}
@@ -0,0 +1,84 @@
+package criticalpath;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Times a pass of the engine and reports it to the network's metrics when it finishes. Nothing is measured when the
+ * metrics aren't enabled.
+ * @author Cameron Sabuda
+ */
+class PassTimer {
+
+    /**
+     * The timer given out when the metrics aren't enabled.
+     */
+    private static final PassTimer DISABLED = new PassTimer(EngineMetrics.NONE, 0, 0);
+
+    /**
+     * Used to measure the bytes allocated by a pass, or null if the JVM can't measure them.
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = findAllocationBean();
+
+    private final EngineMetrics metrics;
+    private final long startNanos;
+    private final long startBytes;
+
+    private PassTimer(EngineMetrics metrics, long startNanos, long startBytes) {
+        this.metrics = metrics;
+        this.startNanos = startNanos;
+        this.startBytes = startBytes;
+    }
+
+    /**
+     * Starts timing a pass.
+     * @param metrics The metrics the pass is reported to.
+     * @return A timer for the pass.
+     */
+    static PassTimer start(EngineMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return DISABLED;
+        }
+        return new PassTimer(metrics, System.nanoTime(), allocatedBytes());
+    }
+
+    /**
+     * Finishes timing the pass and reports it.
+     * @param pass The name of the pass.
+     * @param tasksVisited How many times a task was visited.
+     * @param edgesVisited How many times a link between two tasks was followed.
+     * @param queueHighWaterMark The most tasks waiting to be visited at once.
+     */
+    void finish(String pass, int tasksVisited, int edgesVisited, int queueHighWaterMark) {
+        if (this == DISABLED) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - this.startNanos;
+        long allocated = this.startBytes < 0 ? -1 : allocatedBytes() - this.startBytes;
+        this.metrics.passCompleted(new PassStatistics(pass, durationNanos, tasksVisited, edgesVisited,
+                                                      queueHighWaterMark, allocated));
+    }
+
+    /**
+     * Gets the number of bytes allocated by the current thread so far.
+     * @return The number of bytes, or -1 if the JVM can't measure it.
+     */
+    private static long allocatedBytes() {
+        return ALLOCATIONS == null ? -1 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Finds the HotSpot extension of the thread bean that can measure allocations.
+     * @return The bean, or null if the JVM doesn't have it or can't measure allocations.
+     */
+    private static com.sun.management.ThreadMXBean findAllocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+            if (allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled()) {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,58 @@
+package criticalpath;
+
+/**
+ * The rules ResourceLeveler can use to choose which of the tasks that are ready to be scheduled goes first. Ties are
+ * broken by the topological order of the tasks, so the same network is always leveled the same way.
+ * @author Cameron Sabuda
+ */
+public enum PriorityRule {
+
+    /**
+     * Tasks with the least total float go first, as they can least afford to be delayed.
+     */
+    LEAST_TOTAL_FLOAT {
+        @Override
+        double priority(CompactNetwork network, int task) {
+            return network.getTotalFloat(task);
+        }
+    },
+
+    /**
+     * Tasks with the longest path from their start to the end of the project go first, which is the same as the
+     * earliest latest start time.
+     */
+    LONGEST_PATH {
+        @Override
+        double priority(CompactNetwork network, int task) {
+            return network.getLatestFinishTime(task) - network.getDuration(task);
+        }
+    },
+
+    /**
+     * Tasks with the earliest latest finish time go first.
+     */
+    EARLIEST_LATEST_FINISH {
+        @Override
+        double priority(CompactNetwork network, int task) {
+            return network.getLatestFinishTime(task);
+        }
+    },
+
+    /**
+     * Tasks with the most successors go first, as they hold up the most other tasks.
+     */
+    MOST_SUCCESSORS {
+        @Override
+        double priority(CompactNetwork network, int task) {
+            return -(network.successorOffsets[task + 1] - network.successorOffsets[task]);
+        }
+    };
+
+    /**
+     * Works out the priority of a task in a scheduled network.
+     * @param network The network.
+     * @param task The number of the task.
+     * @return The priority of the task, where lower values go first.
+     */
+    abstract double priority(CompactNetwork network, int task);
+}
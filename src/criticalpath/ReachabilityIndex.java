@@ -0,0 +1,522 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Answers whether one task depends on another, directly or through other tasks, without searching the network.
+ * <p>
+ * The tasks are split into chains, where every task in a chain depends on the one before it, by going through them in
+ * topological order and putting each task at the end of a chain whose last task leads to it. Every task then keeps,
+ * for each chain, the position of the first task in the chain that it leads to. As each task in a chain leads to all
+ * the tasks after it, a task leads to another exactly when its position for the other's chain is no later than the
+ * other's position, which is one array lookup. The tasks after a task are the rest of each chain from its positions,
+ * and the tasks before it are the start of each chain up to the last task that leads to it.
+ * <p>
+ * The index follows its network's changes: added tasks and dependencies are passed on to the tasks before them, and
+ * deleted tasks (which CriticalPathGraph.deleteTask() bridges, so no other task stops leading to another) leave a gap
+ * in their chain. Changes that could stop tasks leading to others, such as removing a dependency, make the index
+ * rebuild itself the next time it is used. It takes the number of tasks times the number of chains in memory, and
+ * there are at least as many chains as there are tasks that don't depend on each other, so it suits long, narrow
+ * networks best; a very wide network of tens of thousands of tasks can take a gigabyte or more.
+ * @author Cameron Sabuda
+ */
+public class ReachabilityIndex implements ScheduleChangeListener {
+
+    /**
+     * The position used for a chain a task doesn't lead to.
+     */
+    private static final int NONE = Integer.MAX_VALUE;
+
+    /**
+     * Where a task is in the index.
+     */
+    private static class Node {
+
+        private final Task task;
+        private int chain;
+        private int position;
+
+        /**
+         * The position of the first task this task leads to (or is) in each chain. Chains after the end of the array
+         * aren't reached.
+         */
+        private int[] reach;
+
+        /**
+         * Creates the entry of a task.
+         * @param task The task.
+         */
+        private Node(Task task) {
+            this.task = task;
+        }
+
+        /**
+         * Gets the position of the first task this task leads to in a chain.
+         * @param chain The chain.
+         * @return The position, or NONE if the task leads to nothing in the chain.
+         */
+        private int reach(int chain) {
+            return chain < this.reach.length ? this.reach[chain] : NONE;
+        }
+    }
+
+    private final CriticalPathGraph graph;
+    private final HashMap<Task, Node> nodes = new HashMap<>();
+
+    /**
+     * The tasks in each chain, with null where a task has been deleted.
+     */
+    private final ArrayList<ArrayList<Node>> chains = new ArrayList<>();
+
+    /**
+     * The number of deleted tasks still taking up a place in a chain.
+     */
+    private int gaps;
+
+    /**
+     * Whether the index has to be rebuilt before it is next used.
+     */
+    private boolean stale = true;
+
+    /**
+     * Creates the index of a network and keeps it up to date as the network changes.
+     * @param graph The network.
+     */
+    public ReachabilityIndex(CriticalPathGraph graph) {
+        this.graph = graph;
+        graph.addScheduleChangeListener(this);
+        this.rebuild();
+    }
+
+    /**
+     * Stops following the changes to the network, after which the index shouldn't be used.
+     */
+    public void detach() {
+        this.graph.removeScheduleChangeListener(this);
+    }
+
+    /**
+     * Checks if a task depends on another, either directly or through other tasks.
+     * @param task The task that might depend on the other.
+     * @param predecessor The task it might depend on.
+     * @return True if the predecessor has to finish before the task can start.
+     * @throws TaskNotFoundException Thrown if either task isn't in the network.
+     */
+    public boolean dependsOn(Task task, Task predecessor) throws TaskNotFoundException {
+        if (task == predecessor){
+            this.checkTask(task);
+            return false;
+        }
+        if (predecessor == this.graph.getStartTask() || task == this.graph.getEndTask()){
+            this.checkTask(predecessor == this.graph.getStartTask() ? task : predecessor);
+            return true;
+        }
+        if (task == this.graph.getStartTask() || predecessor == this.graph.getEndTask()){
+            this.checkTask(task == this.graph.getStartTask() ? predecessor : task);
+            return false;
+        }
+        Node node = this.getNode(task);
+        return this.getNode(predecessor).reach(node.chain) <= node.position;
+    }
+
+    /**
+     * Gets every task that depends on a task, directly or through other tasks.
+     * @param task The task.
+     * @return The tasks after the task, not including _END_, in no particular order.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    public ArrayList<Task> getDescendants(Task task) throws TaskNotFoundException {
+        ArrayList<Task> descendants = new ArrayList<>();
+        if (task == this.graph.getEndTask()){
+            return descendants;
+        }
+        if (task == this.graph.getStartTask()){
+            this.validate();
+            return this.allTasks();
+        }
+        Node node = this.getNode(task);
+        for (int c = 0; c < node.reach.length; c++){
+            ArrayList<Node> chain = this.chains.get(c);
+            for (int i = node.reach[c]; i < chain.size(); i++){
+                Node descendant = chain.get(i);
+                if (descendant != null && descendant != node){
+                    descendants.add(descendant.task);
+                }
+            }
+        }
+        return descendants;
+    }
+
+    /**
+     * Gets every task that a task depends on, directly or through other tasks.
+     * @param task The task.
+     * @return The tasks before the task, not including _START_, in no particular order.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    public ArrayList<Task> getAncestors(Task task) throws TaskNotFoundException {
+        ArrayList<Task> ancestors = new ArrayList<>();
+        if (task == this.graph.getStartTask()){
+            return ancestors;
+        }
+        if (task == this.graph.getEndTask()){
+            this.validate();
+            return this.allTasks();
+        }
+        Node node = this.getNode(task);
+        for (ArrayList<Node> chain : this.chains){
+            // the tasks leading to the task are the start of the chain, so find where they stop
+            int low = 0;
+            int high = chain.size();
+            while (low < high){
+                int middle = (low + high) >>> 1;
+                int i = middle;
+                while (i >= low && chain.get(i) == null){
+                    i--;
+                }
+                if (i < low){
+                    low = middle + 1;
+                }
+                else if (chain.get(i).reach(node.chain) <= node.position){
+                    low = middle + 1;
+                }
+                else {
+                    high = i;
+                }
+            }
+            for (int i = 0; i < low; i++){
+                Node ancestor = chain.get(i);
+                if (ancestor != null && ancestor != node){
+                    ancestors.add(ancestor.task);
+                }
+            }
+        }
+        return ancestors;
+    }
+
+    /**
+     * Gets the number of chains the tasks are split into.
+     * @return The number of chains.
+     */
+    public int getChainCount() {
+        this.validate();
+        return this.chains.size();
+    }
+
+    /**
+     * Follows a change to the network.
+     * @param change What changed.
+     */
+    @Override
+    public void scheduleChanged(ScheduleChange change) {
+        if (this.stale){
+            return;
+        }
+        HashSet<Task> deleted = new HashSet<>(change.getDeletedTasks());
+        for (Dependency dependency : change.getRemovedDependencies()){
+            // tasks only stop leading to each other if a dependency between two remaining tasks goes
+            if (!deleted.contains(dependency.getTask()) && !deleted.contains(dependency.getPredecessor())
+                    && !this.isEnd(dependency)){
+                this.stale = true;
+                return;
+            }
+        }
+        if (change.getAddedTasks().size() * 4 > this.nodes.size()){
+            // quicker to start again than to add a lot of tasks one by one
+            this.stale = true;
+            return;
+        }
+
+        if (!deleted.isEmpty()){
+            this.removeTasks(change, deleted);
+        }
+        ArrayList<Task> added = new ArrayList<>(change.getAddedTasks());
+        added.sort(Comparator.comparingInt(task -> task.rank));
+        for (Task task : added){
+            this.insertTask(task);
+        }
+        for (Dependency dependency : change.getAddedDependencies()){
+            Node predecessor = this.nodes.get(dependency.getPredecessor());
+            Node node = this.nodes.get(dependency.getTask());
+            if (predecessor != null && node != null){
+                this.propagate(predecessor, node.reach);
+            }
+        }
+        if (this.gaps > this.nodes.size()){
+            this.stale = true;
+        }
+    }
+
+    /**
+     * Checks if a dependency is to or from _START_ or _END_, which aren't kept in the index.
+     * @param dependency The dependency.
+     * @return True if either task is _START_ or _END_.
+     */
+    private boolean isEnd(Dependency dependency) {
+        return dependency.getPredecessor() == this.graph.getStartTask()
+                || dependency.getTask() == this.graph.getEndTask();
+    }
+
+    /**
+     * Takes deleted tasks out of their chains. The tasks that led to a deleted task lead to the next task in its chain
+     * instead, as the network links the predecessors of a deleted task to its successors.
+     * @param change The change that deleted the tasks.
+     * @param deleted The deleted tasks.
+     */
+    private void removeTasks(ScheduleChange change, HashSet<Task> deleted) {
+        ArrayList<Node> removed = new ArrayList<>();
+        for (Task task : deleted){
+            Node node = this.nodes.remove(task);
+            this.chains.get(node.chain).set(node.position, null);
+            this.gaps++;
+            removed.add(node);
+        }
+        ArrayList<Node> seeds = new ArrayList<>();
+        for (Dependency dependency : change.getRemovedDependencies()){
+            Node predecessor = this.nodes.get(dependency.getPredecessor());
+            if (predecessor != null && deleted.contains(dependency.getTask())){
+                seeds.add(predecessor);
+            }
+        }
+
+        for (Node node : removed){
+            ArrayList<Node> chain = this.chains.get(node.chain);
+            int next = node.position + 1;
+            while (next < chain.size() && chain.get(next) == null){
+                next++;
+            }
+            int replacement = next < chain.size() ? next : NONE;
+
+            // only the tasks whose first task in the chain was the deleted one change, and they lead to one another
+            ArrayList<Node> queue = new ArrayList<>();
+            HashSet<Node> queued = new HashSet<>();
+            for (Node seed : seeds){
+                if (seed.reach(node.chain) == node.position && queued.add(seed)){
+                    queue.add(seed);
+                }
+            }
+            for (int i = 0; i < queue.size(); i++){
+                Node current = queue.get(i);
+                current.reach[node.chain] = replacement;
+                for (Task task : current.task.getPredecessors()){
+                    Node predecessor = this.nodes.get(task);
+                    if (predecessor != null && predecessor.reach(node.chain) == node.position
+                            && queued.add(predecessor)){
+                        queue.add(predecessor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gives a task a place at the end of a chain.
+     * @param task The task.
+     * @param chain The chain, whose last task leads to the task, or -1 to start a new chain.
+     * @return The entry of the task, which doesn't lead anywhere yet.
+     */
+    private Node place(Task task, int chain) {
+        Node node = new Node(task);
+        if (chain < 0){
+            chain = this.chains.size();
+            this.chains.add(new ArrayList<>());
+        }
+        node.chain = chain;
+        node.position = this.chains.get(chain).size();
+        this.chains.get(chain).add(node);
+        this.nodes.put(task, node);
+        return node;
+    }
+
+    /**
+     * Adds a new task to the index, at the end of a chain whose last task leads to one of its predecessors if there
+     * is one. It only leads to itself until its dependencies are added.
+     * @param task The new task.
+     */
+    private void insertTask(Task task) {
+        int chosen = -1;
+        for (int c = 0; c < this.chains.size() && chosen < 0; c++){
+            ArrayList<Node> chain = this.chains.get(c);
+            int last = chain.size() - 1;
+            while (last >= 0 && chain.get(last) == null){
+                last--;
+            }
+            if (last < 0){
+                continue;
+            }
+            Node tail = chain.get(last);
+            for (Task predecessor : task.getPredecessors()){
+                Node node = this.nodes.get(predecessor);
+                if (node != null && tail.reach(node.chain) <= node.position){
+                    chosen = c;
+                    break;
+                }
+            }
+        }
+        Node node = this.place(task, chosen);
+        node.reach = new int[node.chain + 1];
+        Arrays.fill(node.reach, NONE);
+        node.reach[node.chain] = node.position;
+    }
+
+    /**
+     * Passes on what a task now leads to, to the task and every task before it that didn't already lead there. Tasks
+     * whose positions don't change are not gone past, as everything before them already leads at least as far.
+     * @param node The task that now leads further.
+     * @param reach The positions of the first tasks it now leads to in each chain.
+     */
+    private void propagate(Node node, int[] reach) {
+        ArrayList<Node> queue = new ArrayList<>();
+        queue.add(node);
+        HashSet<Node> queued = new HashSet<>(queue);
+        for (int i = 0; i < queue.size(); i++){
+            Node current = queue.get(i);
+            boolean changed = false;
+            if (current.reach.length < reach.length){
+                int length = current.reach.length;
+                current.reach = Arrays.copyOf(current.reach, reach.length);
+                Arrays.fill(current.reach, length, reach.length, NONE);
+            }
+            for (int c = 0; c < reach.length; c++){
+                if (reach[c] < current.reach[c]){
+                    current.reach[c] = reach[c];
+                    changed = true;
+                }
+            }
+            if (changed){
+                for (Task task : current.task.getPredecessors()){
+                    Node predecessor = this.nodes.get(task);
+                    if (predecessor != null && queued.add(predecessor)){
+                        queue.add(predecessor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the index from scratch. Going through the tasks in topological order, each task is put at the end of a
+     * chain whose last task leads to it, found from the last task in each chain that leads to each of its
+     * predecessors. Then, going backwards, each task leads to whatever its successors lead to.
+     */
+    private void rebuild() {
+        this.nodes.clear();
+        this.chains.clear();
+        this.gaps = 0;
+        ArrayList<Task> tasks = this.graph.getTopologicalOrder();
+        tasks.remove(this.graph.getEndTask());
+        tasks.remove(this.graph.getStartTask());
+
+        // the position of the last task in each chain that leads to each task, only kept until its successors are
+        // placed
+        HashMap<Task, int[]> leadingTo = new HashMap<>();
+        HashMap<Task, Integer> unplacedSuccessors = new HashMap<>();
+        ArrayList<Node> order = new ArrayList<>();
+        for (Task task : tasks){
+            int[] leading = new int[this.chains.size() + 1];
+            Arrays.fill(leading, -1);
+            for (Task predecessor : task.getPredecessors()){
+                int[] row = leadingTo.get(predecessor);
+                if (row != null){
+                    for (int c = 0; c < row.length; c++){
+                        leading[c] = Math.max(leading[c], row[c]);
+                    }
+                    int remaining = unplacedSuccessors.get(predecessor) - 1;
+                    if (remaining == 0){
+                        leadingTo.remove(predecessor);
+                        unplacedSuccessors.remove(predecessor);
+                    }
+                    else {
+                        unplacedSuccessors.put(predecessor, remaining);
+                    }
+                }
+            }
+            int chosen = -1;
+            for (int c = 0; c < this.chains.size(); c++){
+                if (leading[c] == this.chains.get(c).size() - 1){
+                    chosen = c;
+                    break;
+                }
+            }
+            Node node = this.place(task, chosen);
+            leading[node.chain] = node.position;
+            order.add(node);
+            int successors = task.getSuccessors().size();
+            if (task.getSuccessors().contains(this.graph.getEndTask())){
+                successors--;
+            }
+            if (successors > 0){
+                leadingTo.put(task, leading);
+                unplacedSuccessors.put(task, successors);
+            }
+        }
+
+        int[] reach = new int[this.chains.size()];
+        for (int i = order.size() - 1; i >= 0; i--){
+            Node node = order.get(i);
+            Arrays.fill(reach, NONE);
+            reach[node.chain] = node.position;
+            int length = node.chain + 1;
+            for (Task task : node.task.getSuccessors()){
+                Node successor = this.nodes.get(task);
+                if (successor != null){
+                    for (int c = 0; c < successor.reach.length; c++){
+                        if (successor.reach[c] < reach[c]){
+                            reach[c] = successor.reach[c];
+                        }
+                    }
+                    length = Math.max(length, successor.reach.length);
+                }
+            }
+            // chains started after everything the task leads to are left off the end
+            node.reach = Arrays.copyOf(reach, length);
+        }
+        this.stale = false;
+    }
+
+    /**
+     * Rebuilds the index if a change has left it out of date.
+     */
+    private void validate() {
+        if (this.stale){
+            this.rebuild();
+        }
+    }
+
+    /**
+     * Gets the entry of a task, rebuilding the index first if needed.
+     * @param task The task.
+     * @return The entry of the task.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    private Node getNode(Task task) throws TaskNotFoundException {
+        this.validate();
+        Node node = this.nodes.get(task);
+        if (node == null){
+            throw new TaskNotFoundException("Task not found");
+        }
+        return node;
+    }
+
+    /**
+     * Checks that a task is in the network.
+     * @param task The task.
+     * @throws TaskNotFoundException Thrown if the task isn't in the network.
+     */
+    private void checkTask(Task task) throws TaskNotFoundException {
+        if (task != this.graph.getStartTask() && task != this.graph.getEndTask()){
+            this.getNode(task);
+        }
+    }
+
+    /**
+     * Gets every task in the index.
+     * @return The tasks other than _START_ and _END_.
+     */
+    private ArrayList<Task> allTasks() {
+        return new ArrayList<>(this.nodes.keySet());
+    }
+}
@@ -0,0 +1,188 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules a network with limited resources. A critical path network assumes every task can start as soon as its
+ * predecessors are done; the leveler also waits until there is enough of every resource pool the task uses. It is a
+ * serial list scheduler: the tasks whose predecessors are all scheduled wait in a priority queue ordered by a
+ * PriorityRule, and each one in turn is given the earliest start that fits into the usage profiles of its pools.
+ * @author Cameron Sabuda
+ */
+public class ResourceLeveler {
+
+    private final CompactNetwork network;
+    private final EngineMetrics metrics;
+
+    /**
+     * The pools used by the tasks, in the order they were first found.
+     */
+    private final ArrayList<ResourcePool> pools = new ArrayList<>();
+
+    /**
+     * The demands of task i are demandPools[demandOffsets[i]] to demandPools[demandOffsets[i+1]-1], where the pools
+     * are given by their position in the pools list, with the amounts in demandAmounts.
+     */
+    private final int[] demandOffsets;
+    private final int[] demandPools;
+    private final float[] demandAmounts;
+
+    private PriorityRule priorityRule = PriorityRule.LEAST_TOTAL_FLOAT;
+
+    /**
+     * Creates a leveler for a network, using the resource demands of its tasks at the time. The network must be
+     * scheduled, as the priority rules use its times.
+     * @param graph The network to level.
+     */
+    public ResourceLeveler(CriticalPathGraph graph) {
+        this.network = new CompactNetwork(graph);
+        this.metrics = graph.getMetrics();
+
+        int size = this.network.size();
+        this.demandOffsets = new int[size + 1];
+        IdentityHashMap<ResourcePool, Integer> poolIndex = new IdentityHashMap<>();
+        ArrayList<Integer> demandPools = new ArrayList<>();
+        ArrayList<Float> demandAmounts = new ArrayList<>();
+        for (int i = 0; i < size; i++){
+            this.demandOffsets[i] = demandPools.size();
+            for (Map.Entry<ResourcePool, Float> demand : this.network.getTask(i).getResourceDemands().entrySet()){
+                ResourcePool pool = demand.getKey();
+                if (demand.getValue() > pool.getCapacity()){
+                    throw new IllegalArgumentException(" an invalid resource demand on task " + this.network.getId(i)
+                            + ": " + demand.getValue() + " of " + pool);
+                }
+                Integer p = poolIndex.get(pool);
+                if (p == null){
+                    p = this.pools.size();
+                    poolIndex.put(pool, p);
+                    this.pools.add(pool);
+                }
+                demandPools.add(p);
+                demandAmounts.add(demand.getValue());
+            }
+        }
+        this.demandOffsets[size] = demandPools.size();
+        this.demandPools = new int[demandPools.size()];
+        this.demandAmounts = new float[demandAmounts.size()];
+        for (int k = 0; k < this.demandPools.length; k++){
+            this.demandPools[k] = demandPools.get(k);
+            this.demandAmounts[k] = demandAmounts.get(k);
+        }
+    }
+
+    /**
+     * Gets the rule used to choose which ready task is scheduled first.
+     * @return The priority rule.
+     */
+    public PriorityRule getPriorityRule() {
+        return this.priorityRule;
+    }
+
+    /**
+     * Sets the rule used to choose which ready task is scheduled first.
+     * @param priorityRule The priority rule.
+     */
+    public void setPriorityRule(PriorityRule priorityRule) {
+        if (priorityRule == null){
+            throw new IllegalArgumentException(" an invalid priority rule");
+        }
+        this.priorityRule = priorityRule;
+    }
+
+    /**
+     * Gets the resource pools used by the tasks of the network.
+     * @return A new list of the pools.
+     */
+    public ArrayList<ResourcePool> getResourcePools() {
+        return new ArrayList<>(this.pools);
+    }
+
+    /**
+     * Schedules the network with its limited resources.
+     * @return The leveled start times of the tasks.
+     */
+    public LeveledSchedule level() {
+        PassTimer timer = PassTimer.start(this.metrics);
+        CompactNetwork n = this.network;
+        int size = n.size();
+        float[] durations = n.durations();
+
+        double[] priorities = new double[size];
+        for (int i = 0; i < size; i++){
+            priorities[i] = this.priorityRule.priority(n, i);
+        }
+        ResourceProfile[] profiles = new ResourceProfile[this.pools.size()];
+        for (int p = 0; p < profiles.length; p++){
+            profiles[p] = new ResourceProfile(this.pools.get(p));
+        }
+
+        int[] waitingFor = new int[size];
+        for (int i = 0; i < size; i++){
+            waitingFor[i] = n.predecessorOffsets[i + 1] - n.predecessorOffsets[i];
+        }
+        PriorityQueue<Integer> ready = new PriorityQueue<>((a, b) -> {
+            int order = Double.compare(priorities[a], priorities[b]);
+            return order != 0 ? order : Integer.compare(a, b);
+        });
+        ready.add(0);
+
+        float[] startTimes = new float[size];
+        int edgesVisited = 0;
+        int queueHighWaterMark = 1;
+        while (!ready.isEmpty()){
+            int i = ready.poll();
+            float start = 0;
+            for (int k = n.predecessorOffsets[i]; k < n.predecessorOffsets[i + 1]; k++){
+                int p = n.predecessors[k];
+                start = Math.max(start, startTimes[p] + durations[p]);
+                edgesVisited++;
+            }
+            if (durations[i] > 0){
+                start = this.findStart(i, start, durations[i], profiles);
+                for (int k = this.demandOffsets[i]; k < this.demandOffsets[i + 1]; k++){
+                    profiles[this.demandPools[k]].add(start, start + durations[i], this.demandAmounts[k]);
+                }
+            }
+            startTimes[i] = start;
+
+            for (int k = n.successorOffsets[i]; k < n.successorOffsets[i + 1]; k++){
+                int s = n.successors[k];
+                if (--waitingFor[s] == 0){
+                    ready.add(s);
+                }
+            }
+            queueHighWaterMark = Math.max(queueHighWaterMark, ready.size());
+        }
+        timer.finish("resourceLeveling", size, edgesVisited, queueHighWaterMark);
+        return new LeveledSchedule(n, startTimes, profiles);
+    }
+
+    /**
+     * Finds the earliest start time of a task where there is enough of every pool it uses for the whole time it runs.
+     * Moving past a busy time in one pool can run into a busy time in another, so the pools are checked until none of
+     * them moves the task.
+     * @param i The number of the task.
+     * @param earliest The time the predecessors of the task finish.
+     * @param duration The duration of the task.
+     * @param profiles The usage profiles of the pools so far.
+     * @return The start time of the task.
+     */
+    private float findStart(int i, float earliest, float duration, ResourceProfile[] profiles) {
+        float start = earliest;
+        boolean moved = true;
+        while (moved){
+            moved = false;
+            for (int k = this.demandOffsets[i]; k < this.demandOffsets[i + 1]; k++){
+                float fits = profiles[this.demandPools[k]].findEarliestStart(start, duration, this.demandAmounts[k]);
+                if (fits > start){
+                    start = fits;
+                    moved = true;
+                }
+            }
+        }
+        return start;
+    }
+}
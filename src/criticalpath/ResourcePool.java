@@ -0,0 +1,47 @@
+package criticalpath;
+
+/**
+ * A limited supply of something tasks need while they run, such as workers or machines. Tasks say how much of each
+ * pool they use with Task.setResourceDemand(), and ResourceLeveler delays tasks so that the tasks running at any one
+ * time never use more than the capacity of a pool.
+ * @author Cameron Sabuda
+ */
+public final class ResourcePool {
+
+    private final String name;
+    private final float capacity;
+
+    /**
+     * Creates a resource pool.
+     * @param name The name of the pool.
+     * @param capacity How much of the pool can be in use at once.
+     */
+    public ResourcePool(String name, float capacity) {
+        if (!(capacity >= 0)){
+            throw new IllegalArgumentException(" an invalid capacity: " + capacity);
+        }
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the name of the pool.
+     * @return The name of the pool.
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Gets how much of the pool can be in use at once.
+     * @return The capacity of the pool.
+     */
+    public float getCapacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public String toString() {
+        return this.name + " (" + this.capacity + ")";
+    }
+}
@@ -0,0 +1,332 @@
+package criticalpath;
+
+import java.util.Arrays;
+
+/**
+ * How much of a resource pool is in use over time, kept as a skyline: each step is a time the usage changes and the
+ * usage from then until the next step. There are only steps where tasks start or finish, so the size of the profile
+ * doesn't depend on how long the project is.
+ * <p>
+ * The steps are kept in a treap ordered by time, held in arrays. Each node also knows the least and greatest usage in
+ * its subtree, and adding usage to a run of steps is done lazily, so adding a task and finding the next step that is
+ * too full (or has room) both take logarithmic time rather than going through the steps one by one.
+ * @author Cameron Sabuda
+ */
+class ResourceProfile {
+
+    private static final int NONE = -1;
+
+    private final ResourcePool pool;
+
+    private int root;
+    private int count;
+    private float[] times = new float[16];
+    private float[] usages = new float[16];
+    private float[] minimums = new float[16];
+    private float[] maximums = new float[16];
+
+    /**
+     * Usage still to be added to both children of a node. The usage of a node, and the least and greatest usage of
+     * its subtree, already include everything its own ancestors are waiting to add.
+     */
+    private float[] pending = new float[16];
+    private int[] lefts = new int[16];
+    private int[] rights = new int[16];
+    private int[] priorities = new int[16];
+    private int seed = 0x2545F491;
+
+    /**
+     * The two halves left by split().
+     */
+    private int splitLeft;
+    private int splitRight;
+
+    /**
+     * Creates an empty profile.
+     * @param pool The pool whose usage is kept.
+     */
+    ResourceProfile(ResourcePool pool) {
+        this.pool = pool;
+        this.root = this.createStep(0, 0);
+    }
+
+    /**
+     * Gets the pool whose usage is kept.
+     * @return The resource pool.
+     */
+    ResourcePool getPool() {
+        return this.pool;
+    }
+
+    /**
+     * Gets the number of times the usage changes, which is how big the profile is.
+     * @return The number of steps in the skyline.
+     */
+    int size() {
+        return this.count;
+    }
+
+    /**
+     * Gets the usage of the pool at a time.
+     * @param time The time.
+     * @return How much of the pool is in use at the time.
+     */
+    float getUsage(float time) {
+        float usage = 0;
+        float added = 0;
+        int x = this.root;
+        while (x != NONE){
+            if (this.times[x] <= time){
+                usage = this.usages[x] + added;
+                added += this.pending[x];
+                x = this.rights[x];
+            }
+            else {
+                added += this.pending[x];
+                x = this.lefts[x];
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Finds the earliest time a task can start without the pool being overused while it runs.
+     * @param earliest The earliest the task could start otherwise.
+     * @param duration The duration of the task.
+     * @param demand How much of the pool the task uses, which is no more than the capacity of the pool.
+     * @return The earliest start time at or after the given time where the task fits.
+     */
+    float findEarliestStart(float earliest, float duration, float demand) {
+        float limit = this.pool.getCapacity() - demand;
+        float start = earliest;
+        while (true){
+            // move to the first step with room, which always exists as the last step has a usage of 0
+            int fits = this.findFirst(this.root, 0, this.floorTime(start), false, limit, true);
+            start = Math.max(start, this.times[fits]);
+            // then check nothing too full starts before the task would finish
+            int full = this.findFirst(this.root, 0, start, true, limit, false);
+            if (full == NONE || this.times[full] >= start + duration){
+                return start;
+            }
+            start = this.times[full];
+        }
+    }
+
+    /**
+     * Adds the usage of a task to the profile.
+     * @param start The start time of the task.
+     * @param finish The finish time of the task.
+     * @param demand How much of the pool the task uses.
+     */
+    void add(float start, float finish, float demand) {
+        if (!(finish > start) || demand == 0){
+            return;
+        }
+        this.addStep(finish);
+        this.addStep(start);
+        this.split(this.root, start);
+        int before = this.splitLeft;
+        this.split(this.splitRight, finish);
+        int after = this.splitRight;
+        this.apply(this.splitLeft, demand);
+        this.root = this.merge(before, this.merge(this.splitLeft, after));
+    }
+
+    /**
+     * Gets the time of the step a time falls in.
+     * @param time The time.
+     * @return The time of the last step at or before the time.
+     */
+    private float floorTime(float time) {
+        float floor = 0;
+        int x = this.root;
+        while (x != NONE){
+            if (this.times[x] <= time){
+                floor = this.times[x];
+                x = this.rights[x];
+            }
+            else {
+                x = this.lefts[x];
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Finds the first step from a time whose usage is within a limit, or over it.
+     * @param x The root of the subtree to search.
+     * @param added The usage the ancestors of x are still to add to it.
+     * @param from The time to search from.
+     * @param after True to only search steps after the time, false to include a step at the time.
+     * @param limit The limit.
+     * @param within True to find a step with a usage no more than the limit, false to find one over it.
+     * @return The first matching step, or NONE if there isn't one.
+     */
+    private int findFirst(int x, float added, float from, boolean after, float limit, boolean within) {
+        if (x == NONE){
+            return NONE;
+        }
+        if (within ? this.minimums[x] + added > limit : this.maximums[x] + added <= limit){
+            return NONE;
+        }
+        float below = added + this.pending[x];
+        if (after ? this.times[x] <= from : this.times[x] < from){
+            return this.findFirst(this.rights[x], below, from, after, limit, within);
+        }
+        int found = this.findFirst(this.lefts[x], below, from, after, limit, within);
+        if (found != NONE){
+            return found;
+        }
+        if (within == (this.usages[x] + added <= limit)){
+            return x;
+        }
+        return this.findFirst(this.rights[x], below, from, after, limit, within);
+    }
+
+    /**
+     * Makes sure there is a step at a time, giving a new step the usage already in force at the time.
+     * @param time The time.
+     */
+    private void addStep(float time) {
+        if (this.floorTime(time) == time){
+            return;
+        }
+        int step = this.createStep(time, this.getUsage(time));
+        this.split(this.root, time);
+        int right = this.splitRight;
+        this.root = this.merge(this.merge(this.splitLeft, step), right);
+    }
+
+    /**
+     * Creates a step that isn't in the tree yet.
+     * @param time The time of the step.
+     * @param usage The usage from the time on.
+     * @return The new step.
+     */
+    private int createStep(float time, float usage) {
+        if (this.count == this.times.length){
+            int capacity = this.count * 2;
+            this.times = Arrays.copyOf(this.times, capacity);
+            this.usages = Arrays.copyOf(this.usages, capacity);
+            this.minimums = Arrays.copyOf(this.minimums, capacity);
+            this.maximums = Arrays.copyOf(this.maximums, capacity);
+            this.pending = Arrays.copyOf(this.pending, capacity);
+            this.lefts = Arrays.copyOf(this.lefts, capacity);
+            this.rights = Arrays.copyOf(this.rights, capacity);
+            this.priorities = Arrays.copyOf(this.priorities, capacity);
+        }
+        int x = this.count++;
+        this.times[x] = time;
+        this.usages[x] = usage;
+        this.minimums[x] = usage;
+        this.maximums[x] = usage;
+        this.pending[x] = 0;
+        this.lefts[x] = NONE;
+        this.rights[x] = NONE;
+        // xorshift, so the shape of the tree is the same every run
+        this.seed ^= this.seed << 13;
+        this.seed ^= this.seed >>> 17;
+        this.seed ^= this.seed << 5;
+        this.priorities[x] = this.seed;
+        return x;
+    }
+
+    /**
+     * Adds usage to every step of a subtree.
+     * @param x The root of the subtree.
+     * @param demand The usage to add.
+     */
+    private void apply(int x, float demand) {
+        if (x == NONE){
+            return;
+        }
+        this.usages[x] += demand;
+        this.minimums[x] += demand;
+        this.maximums[x] += demand;
+        this.pending[x] += demand;
+    }
+
+    /**
+     * Passes the usage waiting at a node on to its children.
+     * @param x The node.
+     */
+    private void pushDown(int x) {
+        if (this.pending[x] != 0){
+            this.apply(this.lefts[x], this.pending[x]);
+            this.apply(this.rights[x], this.pending[x]);
+            this.pending[x] = 0;
+        }
+    }
+
+    /**
+     * Works out the least and greatest usage of a subtree from its root and children.
+     * @param x The root of the subtree.
+     */
+    private void pullUp(int x) {
+        float minimum = this.usages[x];
+        float maximum = this.usages[x];
+        int left = this.lefts[x];
+        int right = this.rights[x];
+        if (left != NONE){
+            minimum = Math.min(minimum, this.minimums[left]);
+            maximum = Math.max(maximum, this.maximums[left]);
+        }
+        if (right != NONE){
+            minimum = Math.min(minimum, this.minimums[right]);
+            maximum = Math.max(maximum, this.maximums[right]);
+        }
+        this.minimums[x] = minimum;
+        this.maximums[x] = maximum;
+    }
+
+    /**
+     * Splits a subtree into the steps before a time (splitLeft) and the steps at or after it (splitRight).
+     * @param x The root of the subtree.
+     * @param time The time to split at.
+     */
+    private void split(int x, float time) {
+        if (x == NONE){
+            this.splitLeft = NONE;
+            this.splitRight = NONE;
+            return;
+        }
+        this.pushDown(x);
+        if (this.times[x] < time){
+            this.split(this.rights[x], time);
+            this.rights[x] = this.splitLeft;
+            this.pullUp(x);
+            this.splitLeft = x;
+        }
+        else {
+            this.split(this.lefts[x], time);
+            this.lefts[x] = this.splitRight;
+            this.pullUp(x);
+            this.splitRight = x;
+        }
+    }
+
+    /**
+     * Joins two subtrees, where every step of the first is before every step of the second.
+     * @param a The root of the earlier subtree.
+     * @param b The root of the later subtree.
+     * @return The root of the joined tree.
+     */
+    private int merge(int a, int b) {
+        if (a == NONE){
+            return b;
+        }
+        if (b == NONE){
+            return a;
+        }
+        if (this.priorities[a] > this.priorities[b]){
+            this.pushDown(a);
+            this.rights[a] = this.merge(this.rights[a], b);
+            this.pullUp(a);
+            return a;
+        }
+        this.pushDown(b);
+        this.lefts[b] = this.merge(a, this.lefts[b]);
+        this.pullUp(b);
+        return b;
+    }
+}
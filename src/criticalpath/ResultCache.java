@@ -0,0 +1,179 @@
+package criticalpath;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the results worked out from a critical path network, such as its critical paths, so asking for them again
+ * costs nothing until the network changes. Each result is only worked out the first time it is asked for, and all of
+ * them are thrown away together once the version of the network has moved on. The results are shared between callers,
+ * so the lists returned can't be changed.
+ * @author Cameron Sabuda
+ */
+public class ResultCache {
+
+    private final CriticalPathGraph graph;
+
+    /**
+     * The version of the network the results were worked out for.
+     */
+    private long version = -1;
+
+    private CriticalSubgraph criticalSubgraph;
+    private BigInteger criticalPathCount;
+    private float projectDuration;
+
+    /**
+     * The most critical paths asked for so far, and how many were asked for. Fewer paths than the limit means they
+     * are all there.
+     */
+    private List<List<Task>> criticalPaths;
+    private int criticalPathLimit;
+
+    /**
+     * The most tasks with the least float asked for so far, and how many were asked for.
+     */
+    private List<Task> leastFloatTasks;
+    private int leastFloatLimit;
+
+    private Map<String, String> precedenceTable;
+
+    /**
+     * Creates an empty cache for a network.
+     * @param graph The network whose results are kept.
+     */
+    public ResultCache(CriticalPathGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Throws the results away if the network has changed since they were worked out.
+     */
+    private void checkVersion() {
+        if (this.version == this.graph.getVersion()){
+            return;
+        }
+        this.version = this.graph.getVersion();
+        this.criticalSubgraph = null;
+        this.criticalPathCount = null;
+        this.criticalPaths = null;
+        this.criticalPathLimit = 0;
+        this.leastFloatTasks = null;
+        this.leastFloatLimit = 0;
+        this.precedenceTable = null;
+        this.projectDuration = this.graph.getEndTask().getLatestFinishTime();
+    }
+
+    /**
+     * Gets the critical subgraph of the network, which is shared and must not be changed.
+     * @return The critical subgraph of the network.
+     */
+    public CriticalSubgraph getCriticalSubgraph() {
+        this.checkVersion();
+        if (this.criticalSubgraph == null){
+            this.criticalSubgraph = this.graph.getCriticalSubgraph();
+        }
+        return this.criticalSubgraph;
+    }
+
+    /**
+     * Counts the critical paths in the network.
+     * @return The number of critical paths in the network.
+     */
+    public BigInteger countCriticalPaths() {
+        this.checkVersion();
+        if (this.criticalPathCount == null){
+            this.criticalPathCount = this.getCriticalSubgraph().countPaths();
+        }
+        return this.criticalPathCount;
+    }
+
+    /**
+     * Gets up to a given number of the critical paths in the network. The paths are always listed in the same order,
+     * so once a number of them has been found any smaller number is taken from the front.
+     * @param limit The most critical paths to get.
+     * @return A list of list of tasks that each represent a critical path, without _START_ and _END_.
+     */
+    public List<List<Task>> getCriticalPaths(int limit) {
+        this.checkVersion();
+        if (limit < 0){
+            throw new IllegalArgumentException(" an invalid limit: " + limit);
+        }
+        if (this.criticalPaths == null
+                || (limit > this.criticalPathLimit && this.criticalPaths.size() == this.criticalPathLimit)){
+            ArrayList<List<Task>> paths = new ArrayList<>();
+            for (ArrayList<Task> path : this.getCriticalSubgraph().getPaths(limit)){
+                paths.add(Collections.unmodifiableList(path));
+            }
+            this.criticalPaths = Collections.unmodifiableList(paths);
+            this.criticalPathLimit = limit;
+        }
+        return limit >= this.criticalPaths.size() ? this.criticalPaths : this.criticalPaths.subList(0, limit);
+    }
+
+    /**
+     * Gets the length of the project.
+     * @return The latest finish time of _END_.
+     */
+    public float getProjectDuration() {
+        this.checkVersion();
+        return this.projectDuration;
+    }
+
+    /**
+     * Gets the tasks with the least total float, which are the tasks closest to becoming critical. As with the
+     * critical paths, a smaller number is taken from the front of the most asked for so far.
+     * @param count The most tasks to return.
+     * @return Up to the given number of tasks, other than _START_ and _END_, starting with the least float.
+     */
+    public List<Task> getLeastFloatTasks(int count) {
+        this.checkVersion();
+        if (count < 0){
+            throw new IllegalArgumentException(" an invalid count: " + count);
+        }
+        if (this.leastFloatTasks == null
+                || (count > this.leastFloatLimit && this.leastFloatTasks.size() == this.leastFloatLimit)){
+            this.leastFloatTasks = Collections.unmodifiableList(this.graph.getLeastFloatTasks(count));
+            this.leastFloatLimit = count;
+        }
+        return count >= this.leastFloatTasks.size() ? this.leastFloatTasks : this.leastFloatTasks.subList(0, count);
+    }
+
+    /**
+     * Gets the precedence table of the network: the predecessors of each task, in the order the tasks were added.
+     * @return The ids of the tasks other than _START_ and _END_, each mapped to the ids of its predecessors separated
+     * by commas, or "None" if it only depends on _START_.
+     */
+    public Map<String, String> getPrecedenceTable() {
+        this.checkVersion();
+        if (this.precedenceTable == null){
+            LinkedHashMap<String, String> table = new LinkedHashMap<>();
+            // the network doesn't keep its tasks in order, but their serial numbers go up as they are added
+            ArrayList<Task> tasks = new ArrayList<>(this.graph.getTasks());
+            tasks.sort(Comparator.comparingInt(task -> task.serial));
+            for (Task task : tasks){
+                if (task == this.graph.getStartTask() || task == this.graph.getEndTask()){
+                    continue;
+                }
+                StringBuilder predecessors = new StringBuilder();
+                for (Task tsk : task.getPredecessors()){
+                    if (tsk == this.graph.getStartTask()){
+                        continue;
+                    }
+                    if (predecessors.length() > 0){
+                        predecessors.append(", ");
+                    }
+                    predecessors.append(tsk.getId());
+                }
+                table.put(task.getId(), predecessors.length() > 0 ? predecessors.toString() : "None");
+            }
+            this.precedenceTable = Collections.unmodifiableMap(table);
+        }
+        return this.precedenceTable;
+    }
+}
@@ -0,0 +1,224 @@
+package criticalpath;
+
+/**
+ * A what-if version of a network snapshot where some tasks take a different time. A scenario only holds the one change
+ * it was made with and a link to the scenario it was made from, so chains of scenarios share everything they have in
+ * common, and the snapshot itself is never copied. The start/finish times of a scenario are worked out the first time
+ * they are needed and kept, and nothing else is ever changed, so scenarios can be made and scheduled on any thread.
+ * @author Cameron Sabuda
+ */
+public final class Scenario {
+
+    private final NetworkSnapshot snapshot;
+
+    /**
+     * The scenario this one was made from, or null if it was made straight from the snapshot.
+     */
+    private final Scenario parent;
+
+    /**
+     * The task whose duration this scenario changes, and its new duration.
+     */
+    private final int task;
+    private final float duration;
+
+    /**
+     * The first task whose duration differs from the snapshot in this scenario or any it was made from. Tasks before
+     * it keep the early start times of the snapshot.
+     */
+    private final int firstChanged;
+
+    /**
+     * The start/finish times of the tasks in this scenario, or null until it is scheduled.
+     */
+    private volatile float[] earlyStartTimes;
+    private volatile float[] latestFinishTimes;
+
+    /**
+     * Creates a scenario. Use NetworkSnapshot.withDuration() or withDuration() on another scenario.
+     * @param snapshot The snapshot the scenario is made from.
+     * @param parent The scenario this one is made from, or null.
+     * @param task The number of the task whose duration is changed.
+     * @param duration The new duration of the task.
+     */
+    Scenario(NetworkSnapshot snapshot, Scenario parent, int task, float duration) {
+        if (task == 0 || task == snapshot.size() - 1){
+            throw new IllegalArgumentException(" an invalid task, _START_ and _END_ can't be changed");
+        }
+        if (!(duration >= 0)){
+            throw new IllegalArgumentException(" an invalid duration on task");
+        }
+        this.snapshot = snapshot;
+        this.parent = parent;
+        this.task = task;
+        this.duration = duration;
+        this.firstChanged = parent == null ? task : Math.min(task, parent.firstChanged);
+    }
+
+    /**
+     * Gets the snapshot the scenario was made from.
+     * @return The snapshot.
+     */
+    public NetworkSnapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Gets the scenario this one was made from.
+     * @return The parent scenario, or null if this one was made straight from the snapshot.
+     */
+    public Scenario getParent() {
+        return this.parent;
+    }
+
+    /**
+     * Creates a scenario with all the changes of this one where another task also takes a different time.
+     * @param id The id of the task.
+     * @param duration The duration of the task in the new scenario.
+     * @return The new scenario.
+     * @throws TaskNotFoundException Thrown if no task in the snapshot has the id.
+     */
+    public Scenario withDuration(String id, float duration) throws TaskNotFoundException {
+        return new Scenario(this.snapshot, this, this.snapshot.indexOf(id), duration);
+    }
+
+    /**
+     * Creates a scenario with all the changes of this one where another task also takes longer, or shorter if the
+     * delay is negative.
+     * @param id The id of the task.
+     * @param delay How much longer the task takes than it does in this scenario.
+     * @return The new scenario.
+     * @throws TaskNotFoundException Thrown if no task in the snapshot has the id.
+     */
+    public Scenario withDelay(String id, float delay) throws TaskNotFoundException {
+        int index = this.snapshot.indexOf(id);
+        return new Scenario(this.snapshot, this, index, this.getDuration(index) + delay);
+    }
+
+    /**
+     * Gets the duration of a task in this scenario.
+     * @param index The number of the task.
+     * @return The duration of the task.
+     */
+    public float getDuration(int index) {
+        for (Scenario scenario = this; scenario != null; scenario = scenario.parent){
+            if (scenario.task == index){
+                return scenario.duration;
+            }
+        }
+        return this.snapshot.getDuration(index);
+    }
+
+    /**
+     * Gets the early start time of a task in this scenario.
+     * @param index The number of the task.
+     * @return The early start time of the task.
+     */
+    public float getEarlyStartTime(int index) {
+        this.schedule();
+        return this.earlyStartTimes[index];
+    }
+
+    /**
+     * Gets the latest finish time of a task in this scenario.
+     * @param index The number of the task.
+     * @return The latest finish time of the task.
+     */
+    public float getLatestFinishTime(int index) {
+        this.schedule();
+        return this.latestFinishTimes[index];
+    }
+
+    /**
+     * Gets the total float of a task in this scenario.
+     * @param index The number of the task.
+     * @return The total float of the task.
+     */
+    public float getTotalFloat(int index) {
+        this.schedule();
+        return this.latestFinishTimes[index] - (this.earlyStartTimes[index] + this.getDuration(index));
+    }
+
+    /**
+     * Gets the minimum time the whole project can be completed in in this scenario.
+     * @return The early start time of _END_.
+     */
+    public float getProjectDuration() {
+        this.schedule();
+        return this.earlyStartTimes[this.earlyStartTimes.length - 1];
+    }
+
+    /**
+     * Gets how much later the project finishes in this scenario than in the snapshot.
+     * @return The difference in project duration, which is negative if the project finishes earlier.
+     */
+    public float getProjectDelay() {
+        return this.getProjectDuration() - this.snapshot.getProjectDuration();
+    }
+
+    /**
+     * Checks if a task is on a critical path in this scenario, allowing for the rounding of its float.
+     * @param index The number of the task.
+     * @return True if the total float of the task is no more than a few units in the last place of the project
+     * duration.
+     */
+    public boolean isCritical(int index) {
+        return this.getTotalFloat(index)
+                <= CriticalPathGraph.CRITICAL_TOLERANCE_ULPS * Math.ulp(this.getProjectDuration());
+    }
+
+    /**
+     * Checks if the scenario has been scheduled yet.
+     * @return True if the start/finish times have been worked out.
+     */
+    public boolean isScheduled() {
+        return this.latestFinishTimes != null;
+    }
+
+    /**
+     * Works out the start/finish times of the tasks in this scenario, if they haven't been already. The durations are
+     * put together in an array that is thrown away afterwards, so only the times are kept.
+     */
+    public void schedule() {
+        if (this.latestFinishTimes != null){
+            return;
+        }
+        synchronized (this){
+            if (this.latestFinishTimes != null){
+                return;
+            }
+            CompactNetwork network = this.snapshot.network();
+            float[] durations = new float[network.size()];
+            this.snapshot.durations().copyTo(durations, durations.length);
+            // the oldest change is applied first, so newer changes to the same task win
+            this.applyDurations(durations);
+
+            float[] earlyStartTimes = new float[durations.length];
+            float[] latestFinishTimes = new float[durations.length];
+            // a task's early start time only depends on the tasks before it
+            this.snapshot.earlyStartTimes().copyTo(earlyStartTimes, this.firstChanged + 1);
+            network.forwardPass(durations, earlyStartTimes, this.firstChanged + 1);
+            network.backwardPass(durations, earlyStartTimes, latestFinishTimes);
+            this.earlyStartTimes = earlyStartTimes;
+            this.latestFinishTimes = latestFinishTimes;
+        }
+    }
+
+    /**
+     * Writes the durations changed by this scenario and the ones it was made from into an array.
+     * @param durations The durations of the snapshot, which are overwritten.
+     */
+    private void applyDurations(float[] durations) {
+        int depth = 0;
+        for (Scenario scenario = this; scenario != null; scenario = scenario.parent){
+            depth++;
+        }
+        Scenario[] chain = new Scenario[depth];
+        for (Scenario scenario = this; scenario != null; scenario = scenario.parent){
+            chain[--depth] = scenario;
+        }
+        for (Scenario scenario : chain){
+            durations[scenario.task] = scenario.duration;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package criticalpath;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything that changed in a network's schedule during one change to the network: the tasks added and deleted, the
+ * dependencies added and removed, and the tasks whose duration, start/finish times or floats are now different. A
+ * task or dependency that was added and taken away again in the same change isn't included, nor is a task whose
+ * values ended up the same as they were.
+ * @author Cameron Sabuda
+ */
+public class ScheduleChange {
+
+    private final List<Task> addedTasks;
+    private final List<Task> deletedTasks;
+    private final List<Dependency> addedDependencies;
+    private final List<Dependency> removedDependencies;
+    private final List<TaskChange> taskChanges;
+
+    /**
+     * Creates the change.
+     * @param addedTasks The tasks added to the network.
+     * @param deletedTasks The tasks deleted from the network.
+     * @param addedDependencies The dependencies added to the network.
+     * @param removedDependencies The dependencies removed from the network.
+     * @param taskChanges The tasks already in the network whose values changed.
+     */
+    ScheduleChange(List<Task> addedTasks, List<Task> deletedTasks, List<Dependency> addedDependencies,
+                   List<Dependency> removedDependencies, List<TaskChange> taskChanges) {
+        this.addedTasks = Collections.unmodifiableList(addedTasks);
+        this.deletedTasks = Collections.unmodifiableList(deletedTasks);
+        this.addedDependencies = Collections.unmodifiableList(addedDependencies);
+        this.removedDependencies = Collections.unmodifiableList(removedDependencies);
+        this.taskChanges = Collections.unmodifiableList(taskChanges);
+    }
+
+    /**
+     * Gets the tasks added to the network.
+     * @return The added tasks, in the order they were added.
+     */
+    public List<Task> getAddedTasks() {
+        return this.addedTasks;
+    }
+
+    /**
+     * Gets the tasks deleted from the network.
+     * @return The deleted tasks, in the order they were deleted.
+     */
+    public List<Task> getDeletedTasks() {
+        return this.deletedTasks;
+    }
+
+    /**
+     * Gets the dependencies added to the network, including those to _START_ and _END_.
+     * @return The added dependencies.
+     */
+    public List<Dependency> getAddedDependencies() {
+        return this.addedDependencies;
+    }
+
+    /**
+     * Gets the dependencies removed from the network, including those to _START_ and _END_.
+     * @return The removed dependencies.
+     */
+    public List<Dependency> getRemovedDependencies() {
+        return this.removedDependencies;
+    }
+
+    /**
+     * Gets the tasks that were in the network before the change and have a different duration, start/finish time or
+     * float after it.
+     * @return The changes to the tasks.
+     */
+    public List<TaskChange> getTaskChanges() {
+        return this.taskChanges;
+    }
+
+    /**
+     * Checks if nothing changed.
+     * @return True if there are no tasks, dependencies or task changes.
+     */
+    public boolean isEmpty() {
+        return this.addedTasks.isEmpty() && this.deletedTasks.isEmpty() && this.addedDependencies.isEmpty()
+                && this.removedDependencies.isEmpty() && this.taskChanges.isEmpty();
+    }
+}
@@ -0,0 +1,14 @@
+package criticalpath;
+
+/**
+ * Something that is told about the changes to a network's schedule, once for each change made to the network.
+ * @author Cameron Sabuda
+ */
+public interface ScheduleChangeListener {
+
+    /**
+     * Called after a change to the network, once the start/finish times have been recalculated.
+     * @param change The tasks, times and dependencies that changed.
+     */
+    void scheduleChanged(ScheduleChange change);
+}
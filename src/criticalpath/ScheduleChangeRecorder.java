@@ -0,0 +1,142 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects what changes in a network while it is being changed, so that it can be handed to the listeners as one
+ * ScheduleChange once the change is finished. Tasks tell the recorder before their values change, so only the first
+ * change to each task has to be remembered.
+ * @author Cameron Sabuda
+ */
+class ScheduleChangeRecorder {
+
+    /**
+     * Nothing is recorded while nobody is listening.
+     */
+    boolean enabled;
+
+    /**
+     * The values of each changed task from before the change, in the order the tasks first changed.
+     */
+    private final LinkedHashMap<Task, TaskChange> taskChanges = new LinkedHashMap<>();
+
+    /**
+     * True for each task added and false for each task deleted.
+     */
+    private final LinkedHashMap<Task, Boolean> tasks = new LinkedHashMap<>();
+
+    /**
+     * True for each dependency added and false for each dependency removed.
+     */
+    private final LinkedHashMap<Dependency, Boolean> dependencies = new LinkedHashMap<>();
+
+    /**
+     * Remembers the values of a task before they change, if they haven't changed already.
+     * @param task The task that is about to change.
+     */
+    void taskChanging(Task task) {
+        if (this.enabled && !this.taskChanges.containsKey(task)){
+            this.taskChanges.put(task, new TaskChange(task));
+        }
+    }
+
+    /**
+     * Records a task being added to the network, along with the dependencies it already has.
+     * @param task The new task.
+     */
+    void taskAdded(Task task) {
+        if (this.enabled){
+            this.toggle(this.tasks, task, true);
+            for (Task predecessor : task.getPredecessors()){
+                this.dependencyAdded(predecessor, task);
+            }
+        }
+    }
+
+    /**
+     * Records a task being deleted from the network. The dependencies it had are recorded as they are removed.
+     * @param task The deleted task.
+     */
+    void taskDeleted(Task task) {
+        if (this.enabled){
+            this.toggle(this.tasks, task, false);
+        }
+    }
+
+    /**
+     * Records a task starting to depend on another.
+     * @param predecessor The predecessor.
+     * @param task The task that depends on it.
+     */
+    void dependencyAdded(Task predecessor, Task task) {
+        if (this.enabled){
+            this.toggle(this.dependencies, new Dependency(predecessor, task), true);
+        }
+    }
+
+    /**
+     * Records a task no longer depending on another.
+     * @param predecessor The predecessor.
+     * @param task The task that no longer depends on it.
+     */
+    void dependencyRemoved(Task predecessor, Task task) {
+        if (this.enabled){
+            this.toggle(this.dependencies, new Dependency(predecessor, task), false);
+        }
+    }
+
+    /**
+     * Records something being added or taken away, cancelling out the opposite if it was already recorded.
+     * @param map The things recorded.
+     * @param key The thing added or taken away.
+     * @param added True if it was added.
+     * @param <K> The type of thing.
+     */
+    private <K> void toggle(Map<K, Boolean> map, K key, boolean added) {
+        Boolean recorded = map.get(key);
+        if (recorded != null && recorded != added){
+            map.remove(key);
+        }
+        else {
+            map.put(key, added);
+        }
+    }
+
+    /**
+     * Gets everything recorded since the last time and starts recording afresh.
+     * @return The change, which may be empty.
+     */
+    ScheduleChange take() {
+        ArrayList<Task> addedTasks = new ArrayList<>();
+        ArrayList<Task> deletedTasks = new ArrayList<>();
+        for (Map.Entry<Task, Boolean> entry : this.tasks.entrySet()){
+            (entry.getValue() ? addedTasks : deletedTasks).add(entry.getKey());
+        }
+        ArrayList<Dependency> addedDependencies = new ArrayList<>();
+        ArrayList<Dependency> removedDependencies = new ArrayList<>();
+        for (Map.Entry<Dependency, Boolean> entry : this.dependencies.entrySet()){
+            (entry.getValue() ? addedDependencies : removedDependencies).add(entry.getKey());
+        }
+        ArrayList<TaskChange> taskChanges = new ArrayList<>();
+        for (TaskChange change : this.taskChanges.values()){
+            // added or deleted tasks are reported as such rather than as changed
+            Task task = change.getTask();
+            if (task.recorder == this && !this.tasks.containsKey(task) && change.isChanged()){
+                taskChanges.add(change);
+            }
+        }
+        this.clear();
+        return new ScheduleChange(addedTasks, deletedTasks, addedDependencies, removedDependencies, taskChanges);
+    }
+
+    /**
+     * Forgets everything recorded.
+     */
+    void clear() {
+        this.taskChanges.clear();
+        this.tasks.clear();
+        this.dependencies.clear();
+    }
+}
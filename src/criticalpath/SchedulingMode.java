@@ -0,0 +1,29 @@
+package criticalpath;
+
+/**
+ * The different ways a critical path network can calculate the early start and latest finish times of its tasks.
+ * @author Cameron Sabuda
+ */
+public enum SchedulingMode {
+
+    /**
+     * Visits the tasks in topological order, found by counting how many predecessors of each task are still to be
+     * visited, so every task and edge is only looked at once in each pass. When a task is added or deleted only the
+     * tasks whose times are affected by the change are recalculated.
+     */
+    TOPOLOGICAL,
+
+    /**
+     * The same as the topological mode, except that when the whole network is scheduled the tasks are grouped into
+     * levels that don't depend on each other and each level is split between several threads. Gives exactly the same
+     * times as the topological mode. Small networks are still scheduled on one thread.
+     */
+    PARALLEL,
+
+    /**
+     * The original queue based passes that recheck all of a task's predecessors/successors every time it is visited.
+     * The whole network is recalculated after every change. Kept so the results of the other modes can be compared
+     * against it.
+     */
+    REFERENCE
+}
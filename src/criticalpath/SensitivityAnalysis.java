@@ -0,0 +1,204 @@
+package criticalpath;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Works out how much later the project would finish if tasks slipped, without changing and rescheduling the network
+ * for each one. The longest path through a task is the longest path to its start plus the longest path from its start
+ * to the end of the project, so once both are known for every task a slip of any size on any task is answered with a
+ * couple of additions.
+ * @author Cameron Sabuda
+ */
+public class SensitivityAnalysis {
+
+    private final CompactNetwork network;
+    private final float projectDuration;
+
+    /**
+     * Slips that leave a task within this much of being critical are treated as critical, so rounding in the times
+     * doesn't show up as a tiny delay.
+     */
+    private final float tolerance;
+
+    /**
+     * The longest path from the start of the project to the start of each task, which is its early start time.
+     */
+    private final float[] longestPathTo;
+
+    /**
+     * The longest path from the start of each task to the end of the project, including the task itself.
+     */
+    private final float[] longestPathFrom;
+
+    /**
+     * Prepares an analysis of a network as it is now. The network must be scheduled.
+     * @param graph The network to analyse.
+     */
+    public SensitivityAnalysis(CriticalPathGraph graph) {
+        this(new CompactNetwork(graph));
+    }
+
+    /**
+     * Prepares an analysis of a compact network as it is now. Later changes to the network don't affect the analysis.
+     * @param network The network to analyse, which must be scheduled.
+     */
+    public SensitivityAnalysis(CompactNetwork network) {
+        int size = network.size();
+        this.network = network;
+        this.projectDuration = network.getProjectDuration();
+        this.tolerance = CriticalPathGraph.CRITICAL_TOLERANCE_ULPS * Math.ulp(this.projectDuration);
+        this.longestPathTo = network.earlyStartTimes().clone();
+        this.longestPathFrom = new float[size];
+        float[] durations = network.durations();
+        float[] latestFinishTimes = network.latestFinishTimes();
+        for (int i = 0; i < size; i++){
+            this.longestPathFrom[i] = this.projectDuration - (latestFinishTimes[i] - durations[i]);
+        }
+    }
+
+    /**
+     * Gets the number of tasks in the analysis, including _START_ and _END_.
+     * @return The number of tasks.
+     */
+    public int size() {
+        return this.longestPathTo.length;
+    }
+
+    /**
+     * Gets the number of a task from its id.
+     * @param id The id of the task.
+     * @return The number of the task.
+     * @throws TaskNotFoundException Thrown if no task in the analysis has the id.
+     */
+    public int indexOf(String id) throws TaskNotFoundException {
+        return this.network.indexOf(id);
+    }
+
+    /**
+     * Gets the id of a task.
+     * @param index The number of the task.
+     * @return The id of the task.
+     */
+    public String getId(int index) {
+        return this.network.getId(index);
+    }
+
+    /**
+     * Gets the length of the project before any task slips.
+     * @return The project duration.
+     */
+    public float getProjectDuration() {
+        return this.projectDuration;
+    }
+
+    /**
+     * Gets how much later the project would finish if one task slipped.
+     * @param index The number of the task.
+     * @param slip How much longer the task takes, which can't be negative.
+     * @return How much later the project finishes, which is 0 if the task has enough float to absorb the slip.
+     */
+    public float getImpact(int index, float slip) {
+        if (!(slip >= 0)){
+            throw new IllegalArgumentException(" an invalid slip: " + slip);
+        }
+        float totalFloat = this.projectDuration - (this.longestPathTo[index] + this.longestPathFrom[index]);
+        if (totalFloat <= this.tolerance){
+            totalFloat = 0;
+        }
+        return Math.max(0, slip - totalFloat);
+    }
+
+    /**
+     * Gets how much later the project would finish if one task slipped.
+     * @param id The id of the task.
+     * @param slip How much longer the task takes, which can't be negative.
+     * @return How much later the project finishes, which is 0 if the task has enough float to absorb the slip.
+     * @throws TaskNotFoundException Thrown if no task in the analysis has the id.
+     */
+    public float getImpact(String id, float slip) throws TaskNotFoundException {
+        return this.getImpact(this.indexOf(id), slip);
+    }
+
+    /**
+     * Gets the length of the project if one task slipped.
+     * @param index The number of the task.
+     * @param slip How much longer the task takes, which can't be negative.
+     * @return The project duration with the slip.
+     */
+    public float getProjectDuration(int index, float slip) {
+        return this.projectDuration + this.getImpact(index, slip);
+    }
+
+    /**
+     * Works out the impact of every slip on every task at once, using the common pool.
+     * @param slips The slips to try on each task, which can't be negative.
+     * @return The impacts, by task and slip.
+     */
+    public SensitivityTable run(float... slips) {
+        return this.run(ForkJoinPool.commonPool(), slips);
+    }
+
+    /**
+     * Works out the impact of every slip on every task at once, splitting the tasks between the threads of a pool.
+     * @param pool The pool whose threads are used.
+     * @param slips The slips to try on each task, which can't be negative.
+     * @return The impacts, by task and slip.
+     */
+    public SensitivityTable run(ForkJoinPool pool, float... slips) {
+        for (float slip : slips){
+            if (!(slip >= 0)){
+                throw new IllegalArgumentException(" an invalid slip: " + slip);
+            }
+        }
+        float[] impacts = new float[this.size() * slips.length];
+        pool.invoke(new Batch(this, slips, impacts, 0, this.size()));
+        return new SensitivityTable(this, slips.clone(), impacts);
+    }
+
+    /**
+     * Works out the impacts for a range of tasks, splitting the range in half until it is small. Batches are never
+     * serialized.
+     */
+    @SuppressWarnings("serial")
+    private static class Batch extends RecursiveAction {
+
+        private final SensitivityAnalysis analysis;
+        private final float[] slips;
+        private final float[] impacts;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a batch for a range of tasks.
+         * @param analysis The analysis.
+         * @param slips The slips to try on each task.
+         * @param impacts Where the impacts are written, slips.length to a task.
+         * @param from The number of the first task in the range.
+         * @param to The number after the last task in the range.
+         */
+        private Batch(SensitivityAnalysis analysis, float[] slips, float[] impacts, int from, int to) {
+            this.analysis = analysis;
+            this.slips = slips;
+            this.impacts = impacts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > CompactNetwork.PARALLEL_THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new Batch(this.analysis, this.slips, this.impacts, this.from, middle),
+                          new Batch(this.analysis, this.slips, this.impacts, middle, this.to));
+                return;
+            }
+            int columns = this.slips.length;
+            for (int i = this.from; i < this.to; i++){
+                for (int k = 0; k < columns; k++){
+                    this.impacts[i * columns + k] = this.analysis.getImpact(i, this.slips[k]);
+                }
+            }
+        }
+    }
+}
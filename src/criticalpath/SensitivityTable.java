@@ -0,0 +1,102 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The results of a SensitivityAnalysis batch: how much later the project finishes for each slip on each task.
+ * @author Cameron Sabuda
+ */
+public class SensitivityTable {
+
+    private final SensitivityAnalysis analysis;
+    private final float[] slips;
+
+    /**
+     * The impact of slip k on task i is impacts[i * slips.length + k].
+     */
+    private final float[] impacts;
+
+    /**
+     * Creates a table of results.
+     * @param analysis The analysis the results came from.
+     * @param slips The slips that were tried.
+     * @param impacts The impacts, slips.length to a task.
+     */
+    SensitivityTable(SensitivityAnalysis analysis, float[] slips, float[] impacts) {
+        this.analysis = analysis;
+        this.slips = slips;
+        this.impacts = impacts;
+    }
+
+    /**
+     * Gets the number of tasks in the table, including _START_ and _END_.
+     * @return The number of tasks.
+     */
+    public int size() {
+        return this.analysis.size();
+    }
+
+    /**
+     * Gets the slips that were tried.
+     * @return A copy of the slips, in the order of the table's columns.
+     */
+    public float[] getSlips() {
+        return this.slips.clone();
+    }
+
+    /**
+     * Gets how much later the project finishes if a task slips.
+     * @param index The number of the task.
+     * @param column The position of the slip in getSlips().
+     * @return The delay to the end of the project.
+     */
+    public float getImpact(int index, int column) {
+        if (column < 0 || column >= this.slips.length){
+            throw new IndexOutOfBoundsException(" an invalid column: " + column);
+        }
+        return this.impacts[index * this.slips.length + column];
+    }
+
+    /**
+     * Gets how much later the project finishes if a task slips.
+     * @param id The id of the task.
+     * @param column The position of the slip in getSlips().
+     * @return The delay to the end of the project.
+     * @throws TaskNotFoundException Thrown if no task in the table has the id.
+     */
+    public float getImpact(String id, int column) throws TaskNotFoundException {
+        return this.getImpact(this.analysis.indexOf(id), column);
+    }
+
+    /**
+     * Gets the length of the project if a task slips.
+     * @param index The number of the task.
+     * @param column The position of the slip in getSlips().
+     * @return The project duration with the slip.
+     */
+    public float getProjectDuration(int index, int column) {
+        return this.analysis.getProjectDuration() + this.getImpact(index, column);
+    }
+
+    /**
+     * Gets the ids of the tasks whose slips delay the project the most.
+     * @param column The position of the slip in getSlips().
+     * @param count The most ids to return.
+     * @return The ids of the tasks other than _START_ and _END_, from the greatest impact to the least.
+     */
+    public ArrayList<String> getMostSensitiveTasks(int column, int count) {
+        Integer[] order = new Integer[this.size() - 2];
+        for (int i = 0; i < order.length; i++){
+            order[i] = i + 1;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -this.getImpact(i, column))
+                .thenComparingInt(i -> i));
+        ArrayList<String> ids = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, order.length); i++){
+            ids.add(this.analysis.getId(order[i]));
+        }
+        return ids;
+    }
+}
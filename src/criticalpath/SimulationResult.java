@@ -0,0 +1,142 @@
+package criticalpath;
+
+import java.util.Arrays;
+
+/**
+ * The results of a Monte Carlo simulation: how long the project took on each run, and how many runs each task was
+ * critical in.
+ * @author Cameron Sabuda
+ */
+public class SimulationResult {
+
+    private final CompactNetwork network;
+
+    /**
+     * The duration of the project on each run, from shortest to longest.
+     */
+    private final float[] projectDurations;
+    private final int[] criticalCounts;
+
+    /**
+     * Creates the results of a simulation.
+     * @param network The network that was simulated.
+     * @param projectDurations The duration of the project on each run, which is sorted in place.
+     * @param criticalCounts The number of runs each task was critical in, by task number.
+     */
+    SimulationResult(CompactNetwork network, float[] projectDurations, int[] criticalCounts) {
+        Arrays.sort(projectDurations);
+        this.network = network;
+        this.projectDurations = projectDurations;
+        this.criticalCounts = criticalCounts;
+    }
+
+    /**
+     * Gets the number of times the project was simulated.
+     * @return The number of runs.
+     */
+    public int getIterations() {
+        return this.projectDurations.length;
+    }
+
+    /**
+     * Gets the duration of the project on each run.
+     * @return A copy of the durations, from shortest to longest.
+     */
+    public float[] getProjectDurations() {
+        return this.projectDurations.clone();
+    }
+
+    /**
+     * Gets the duration the project finished within on a given share of the runs.
+     * @param percentile The share of the runs, from 0 to 100. 50 gives the median and 90 gives the P90 duration.
+     * @return The shortest duration that at least that share of the runs finished within.
+     */
+    public float getPercentile(double percentile) {
+        if (!(percentile >= 0) || percentile > 100){
+            throw new IllegalArgumentException(" an invalid percentile: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100 * this.projectDurations.length);
+        return this.projectDurations[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Gets the share of the runs that finished within a duration.
+     * @param duration The duration.
+     * @return The probability, from 0 to 1, of the project finishing within the duration.
+     */
+    public double getProbabilityOfFinishingBy(float duration) {
+        // the first run that took longer than the duration
+        int low = 0;
+        int high = this.projectDurations.length;
+        while (low < high){
+            int middle = (low + high) >>> 1;
+            if (this.projectDurations[middle] <= duration){
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return (double) low / this.projectDurations.length;
+    }
+
+    /**
+     * Gets the shortest the project took.
+     * @return The least project duration.
+     */
+    public float getMinimum() {
+        return this.projectDurations[0];
+    }
+
+    /**
+     * Gets the longest the project took.
+     * @return The greatest project duration.
+     */
+    public float getMaximum() {
+        return this.projectDurations[this.projectDurations.length - 1];
+    }
+
+    /**
+     * Gets the average duration of the project.
+     * @return The mean project duration.
+     */
+    public double getMean() {
+        double total = 0;
+        for (float duration : this.projectDurations){
+            total += duration;
+        }
+        return total / this.projectDurations.length;
+    }
+
+    /**
+     * Gets how spread out the durations of the project are.
+     * @return The standard deviation of the project duration.
+     */
+    public double getStandardDeviation() {
+        double mean = this.getMean();
+        double total = 0;
+        for (float duration : this.projectDurations){
+            total += (duration - mean) * (duration - mean);
+        }
+        return Math.sqrt(total / this.projectDurations.length);
+    }
+
+    /**
+     * Gets the criticality index of a task: the share of the runs it was critical in.
+     * @param index The number of the task in the simulated network.
+     * @return The criticality index, from 0 to 1.
+     */
+    public double getCriticalityIndex(int index) {
+        return (double) this.criticalCounts[index] / this.projectDurations.length;
+    }
+
+    /**
+     * Gets the criticality index of a task: the share of the runs it was critical in.
+     * @param id The id of the task.
+     * @return The criticality index, from 0 to 1.
+     * @throws TaskNotFoundException The task isn't in the simulated network.
+     */
+    public double getCriticalityIndex(String id) throws TaskNotFoundException {
+        return this.getCriticalityIndex(this.network.indexOf(id));
+    }
+}
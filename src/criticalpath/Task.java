@@ -1,99 +1,150 @@
 package criticalpath;
 
-import javafx.beans.property.FloatProperty;
-import javafx.beans.property.SimpleFloatProperty;
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Represents a task/activity to be stored in a critical path network.
+ * Represents a task/activity to be stored in a critical path network. Tasks only hold plain values so the network
+ * can be used without a user interface; the user interface follows the changes through a ScheduleChangeListener.
  * @author Cameron Sabuda
  */
-public class Task implements Comparable{
+public class Task implements Comparable<Task>{
 
-    private FloatProperty earlyStartTime;
-    private FloatProperty latestFinishTime;
-    private StringProperty id;
-    private FloatProperty duration;
+    private float earlyStartTime;
+    private float latestFinishTime;
+    private float totalFloat;
+    private float freeFloat;
+    private String id;
+    private float duration;
     private ArrayList<Task> predecessors = new ArrayList<>();
+    private ArrayList<Task> successors = new ArrayList<>();
+
+    /**
+     * What is told before the task changes, set by the network the task is in so it can report the changes to its
+     * listeners. Null while the task isn't in a network.
+     */
+    ScheduleChangeRecorder recorder;
+
+    /**
+     * The spread of durations the task might take, or null if it always takes its duration.
+     */
+    private DurationDistribution durationDistribution;
+
+    /**
+     * How much of each resource pool the task uses while it is running, or null if it uses none.
+     */
+    private LinkedHashMap<ResourcePool, Float> resourceDemands;
+
+    /**
+     * The position of the task in its network's list of tasks, set by the network before a pass so it can keep
+     * information about each task in arrays.
+     */
+    int index;
+
+    /**
+     * Where the task is in its network's list of tasks, kept up to date by the network so the task can be taken out
+     * of the list without searching for it.
+     */
+    int position;
+
+    /**
+     * The rank of the task in its network. Every task has a higher rank than all of its predecessors.
+     */
+    int rank;
+
+    /**
+     * A number given to the task when it is added to a network, which never changes while it is in the network. Used
+     * to order tasks with the same float.
+     */
+    int serial;
 
     /**
-     * Creates a task with a given id, duration and predecessors.
+     * Creates a task with a given id, duration and predecessors. The predecessors are only recorded on the new task,
+     * and the network links the task to them as their successor when the task is added to it.
      * @param id The id/name of a task in the form of a string.
      * @param duration The duration of the task.
      * @param predecessors A list of all the tasks that will be the predecessors of this task.
      */
-    public Task(String id, Float duration, ArrayList<Task> predecessors) {
+    public Task(String id, float duration, ArrayList<Task> predecessors) {
         if (duration < 0){
             throw new RuntimeException(" an invalid duration on task");
         }
 
-        this.setId(id);
-        this.setDuration(duration);
+        this.id = id;
+        this.duration = duration;
         this.addPredecessors(predecessors);
-        this.setEarlyStartTime((float)0);
-        this.setLatestFinishTime((float)0);
     }
 
     /**
      * Compares tasks based on their early start times.
      * @param t Task to be compared to.
-     * @return 0 - the other task's early start time.
+     * @return A negative number if this task starts earlier than the other task, 0 if they start at the same time and a
+     * positive number if this task starts later.
      */
     @Override
-    public int compareTo(Object t) {
-        return -Math.round(((Task) t).getEarlyStartTime());
+    public int compareTo(Task t) {
+        return Float.compare(this.getEarlyStartTime(), t.getEarlyStartTime());
     }
 
     /**
-     * Get the durationProperty variable used to store the duration.
-     * @return The durationProperty used to store the duration.
+     * Tells the network's recorder, if there is one, that the task is about to change.
      */
-    public FloatProperty durationProperty() {
-        if (duration == null) duration = new SimpleFloatProperty(this, "duration");
-        return duration;
+    private void changing() {
+        if (this.recorder != null){
+            this.recorder.taskChanging(this);
+        }
     }
 
     /**
-     * Get the earlyStartTimeProperty variable used to store the early start time.
-     * @return The EarlyStartTimeProperty used to store the early start time.
+     * Adds a predecessor to the task. Tasks that are already in a network should be linked with
+     * CriticalPathGraph.addDependency() instead, which checks for cycles and updates the start/finish times. The
+     * successors of the predecessor are only changed while this task is in a network, so a task that is never added
+     * to one leaves no trace on the tasks it was going to depend on.
+     * @param task The new task of which you want this task to be a predecessor of.
      */
-    public FloatProperty earlyStartTimeProperty() {
-        if (earlyStartTime == null) earlyStartTime = new SimpleFloatProperty(this, "earlyStartTime");
-        return earlyStartTime;
-    }
+    public void addPredecessor(Task task){
 
-    /**
-     * Get the latestStartTimeProperty variable used to store the latest start time.
-     * @return The latestStartTimeProperty used to store the latest start time.
-     */
-    public FloatProperty latestFinishTimeProperty() {
-        if (latestFinishTime == null) latestFinishTime = new SimpleFloatProperty(this, "latestFinishTime");
-        return latestFinishTime;
+        if (!this.predecessors.isEmpty() //This condition needed because otherwise outOfBounds exception
+         && this.predecessors.get(0).getId().equals("_START_")){
+            Task start = this.predecessors.remove(0);
+            if (this.recorder != null){
+                start.successors.remove(this);
+                this.recorder.dependencyRemoved(start, this);
+            }
+        }
+        this.predecessors.add(task);
+        if (this.recorder != null){
+            task.successors.add(this);
+            this.recorder.dependencyAdded(task, this);
+        }
     }
 
     /**
-     * Get the idProperty variable used to store the id.
-     * @return The idProperty used to store the id.
+     * Removes a predecessor from the task. As with addPredecessor(), the successors of the predecessor are only
+     * changed while this task is in a network.
+     * @param task The task that should no longer be a predecessor of this task.
+     * @return True if the task was a predecessor of this task, false if not.
      */
-    public StringProperty idProperty() {
-        if (id == null) id = new SimpleStringProperty(this, "id");
-        return id;
+    public boolean removePredecessor(Task task){
+        if (this.predecessors.remove(task)){
+            if (this.recorder != null){
+                task.successors.remove(this);
+                this.recorder.dependencyRemoved(task, this);
+            }
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Adds a predecessor to the task.
-     * @param task The new task of which you want this task to be a predecessor of.
+     * Links the task to its predecessors as their successor, when it is added to a network.
      */
-    public void addPredecessor(Task task){
-
-        if (!this.predecessors.isEmpty() //This condition needed because otherwise outOfBounds exception
-         && this.predecessors.get(0).getId().equals("_START_")){
-            this.predecessors.remove(0);
+    void linkToPredecessors() {
+        for (Task task : this.predecessors){
+            task.successors.add(this);
         }
-        this.predecessors.add(task);
     }
 
     /**
@@ -107,64 +158,193 @@ public class Task implements Comparable{
     }
 
     /**
-     * Gets the predecessors of this task.
+     * Gets the predecessors of this task. The list shouldn't be changed directly, use addPredecessor() and
+     * removePredecessor() so the successors of the tasks are kept up to date.
      * @return A list of all the tasks that are a predecessor of this task.
      */
     public ArrayList<Task> getPredecessors(){ return this.predecessors; }
 
+    /**
+     * Gets the successors of this task, which are kept up to date whenever a predecessor is added or removed.
+     * @return A list of all the tasks that have this task as a predecessor.
+     */
+    public ArrayList<Task> getSuccessors(){ return this.successors; }
+
     /**
      * Gets the task's id.
      * @return The task's id.
      */
     public String getId() {
-        return this.id.get();
+        return this.id;
     }
 
     /**
      * Gets the early start time of the task.
      * @return The early start time of the task.
      */
-    public Float getEarlyStartTime() {
-        return earlyStartTimeProperty().get();
+    public float getEarlyStartTime() {
+        return this.earlyStartTime;
     }
 
     /**
      * Sets the early start time of the task.
      * @param earlyStartTime The value to set the early start time to.
      */
-    public void setEarlyStartTime(Float earlyStartTime){ earlyStartTimeProperty().set(earlyStartTime); }
+    public void setEarlyStartTime(float earlyStartTime){
+        if (this.earlyStartTime != earlyStartTime){
+            this.changing();
+            this.earlyStartTime = earlyStartTime;
+        }
+    }
 
     /**
      * Gets the latest start time of the task.
      * @return The latest start time of the task.
      */
-    public Float getLatestFinishTime() {
-        return this.latestFinishTime.get();
+    public float getLatestFinishTime() {
+        return this.latestFinishTime;
     }
 
     /**
      * Sets the latest start time of the task.
      * @param latestFinishTime The value to set the latest finish time to.
      */
-    public void setLatestFinishTime(Float latestFinishTime){ latestFinishTimeProperty().set(latestFinishTime); }
+    public void setLatestFinishTime(float latestFinishTime){
+        if (this.latestFinishTime != latestFinishTime){
+            this.changing();
+            this.latestFinishTime = latestFinishTime;
+        }
+    }
+
+    /**
+     * Gets the total float of the task, which is how long it can be delayed without delaying the whole project.
+     * Calculated by the network along with the start/finish times.
+     * @return The total float of the task.
+     */
+    public float getTotalFloat() {
+        return this.totalFloat;
+    }
+
+    /**
+     * Sets the total float of the task. Only the network sets this, as it keeps its tasks ordered by their float.
+     * @param totalFloat The value to set the total float to.
+     */
+    void setTotalFloat(float totalFloat){
+        if (this.totalFloat != totalFloat){
+            this.changing();
+            this.totalFloat = totalFloat;
+        }
+    }
+
+    /**
+     * Gets the free float of the task, which is how long it can be delayed without delaying any of its successors.
+     * Calculated by the network along with the start/finish times.
+     * @return The free float of the task.
+     */
+    public float getFreeFloat() {
+        return this.freeFloat;
+    }
+
+    /**
+     * Sets the free float of the task.
+     * @param freeFloat The value to set the free float to.
+     */
+    void setFreeFloat(float freeFloat){
+        if (this.freeFloat != freeFloat){
+            this.changing();
+            this.freeFloat = freeFloat;
+        }
+    }
 
     /**
-     * Sets the task's id.
+     * Sets the task's id. Tasks that are already in a network should be renamed with CriticalPathGraph.renameTask()
+     * instead so that the network's index of ids stays correct.
      * @param id The new id of the task.
      */
-    public void setId(String id){ idProperty().set(id); }
+    public void setId(String id){
+        this.changing();
+        this.id = id;
+    }
 
     /**
      * Sets the duration of the task.
      * @param duration The new duration of the task.
      */
-    public void setDuration(Float duration){ durationProperty().set(duration);}
+    public void setDuration(float duration){
+        if (this.duration != duration){
+            this.changing();
+            this.duration = duration;
+        }
+    }
 
     /**
      * Gets the duration of the task.
      * @return The duration of the task.
      */
-    public Float getDuration(){ return durationProperty().get();}
+    public float getDuration(){ return this.duration; }
+
+    /**
+     * Gets the spread of durations the task might take, which is used by MonteCarloSimulation in place of the duration.
+     * @return The duration distribution of the task, or null if it always takes its duration.
+     */
+    public DurationDistribution getDurationDistribution() {
+        return this.durationDistribution;
+    }
+
+    /**
+     * Sets the spread of durations the task might take, such as a ThreePointEstimate. The duration of the task, which
+     * the network is scheduled with, isn't changed.
+     * @param durationDistribution The new duration distribution, or null if the task always takes its duration.
+     */
+    public void setDurationDistribution(DurationDistribution durationDistribution) {
+        this.durationDistribution = durationDistribution;
+    }
+
+    /**
+     * Gets how much of a resource pool the task uses while it is running.
+     * @param pool The resource pool.
+     * @return The amount of the pool the task uses, or 0 if it doesn't use the pool.
+     */
+    public float getResourceDemand(ResourcePool pool) {
+        if (this.resourceDemands == null){
+            return 0;
+        }
+        Float demand = this.resourceDemands.get(pool);
+        return demand == null ? 0 : demand;
+    }
+
+    /**
+     * Sets how much of a resource pool the task uses while it is running, which is used by ResourceLeveler. The
+     * times of the task in its network aren't changed, as the network is scheduled with unlimited resources.
+     * @param pool The resource pool.
+     * @param demand The amount of the pool the task uses, or 0 to stop it using the pool.
+     */
+    public void setResourceDemand(ResourcePool pool, float demand) {
+        if (!(demand >= 0)){
+            throw new IllegalArgumentException(" an invalid resource demand: " + demand);
+        }
+        if (demand == 0){
+            if (this.resourceDemands != null){
+                this.resourceDemands.remove(pool);
+            }
+            return;
+        }
+        if (this.resourceDemands == null){
+            this.resourceDemands = new LinkedHashMap<>();
+        }
+        this.resourceDemands.put(pool, demand);
+    }
+
+    /**
+     * Gets every resource pool the task uses and how much of each it uses.
+     * @return An unmodifiable map from each pool to the amount of it the task uses.
+     */
+    public Map<ResourcePool, Float> getResourceDemands() {
+        if (this.resourceDemands == null){
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(this.resourceDemands);
+    }
 
 
 }
@@ -0,0 +1,107 @@
+package criticalpath;
+
+/**
+ * How one task's id, duration, start/finish times and floats changed during a change to its network.
+ * @author Cameron Sabuda
+ */
+public final class TaskChange {
+
+    private final Task task;
+    private final String oldId;
+    private final float oldDuration;
+    private final float oldEarlyStartTime;
+    private final float oldLatestFinishTime;
+    private final float oldTotalFloat;
+    private final float oldFreeFloat;
+
+    /**
+     * Creates the change of a task just before it changes, keeping its values as the old values. The new values are
+     * read from the task itself.
+     * @param task The task that is about to change.
+     */
+    TaskChange(Task task) {
+        this.task = task;
+        this.oldId = task.getId();
+        this.oldDuration = task.getDuration();
+        this.oldEarlyStartTime = task.getEarlyStartTime();
+        this.oldLatestFinishTime = task.getLatestFinishTime();
+        this.oldTotalFloat = task.getTotalFloat();
+        this.oldFreeFloat = task.getFreeFloat();
+    }
+
+    /**
+     * Checks if any of the values of the task are different from before.
+     * @return True if the task really changed.
+     */
+    boolean isChanged() {
+        return !this.oldId.equals(this.task.getId())
+                || this.oldDuration != this.task.getDuration()
+                || this.oldEarlyStartTime != this.task.getEarlyStartTime()
+                || this.oldLatestFinishTime != this.task.getLatestFinishTime()
+                || this.oldTotalFloat != this.task.getTotalFloat()
+                || this.oldFreeFloat != this.task.getFreeFloat();
+    }
+
+    /**
+     * Gets the task that changed.
+     * @return The task, which has the new values.
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    /**
+     * Gets the id of the task before the change, which is different from its id if it was renamed.
+     * @return The old id.
+     */
+    public String getOldId() {
+        return this.oldId;
+    }
+
+    /**
+     * Gets the duration of the task before the change.
+     * @return The old duration.
+     */
+    public float getOldDuration() {
+        return this.oldDuration;
+    }
+
+    /**
+     * Gets the early start time of the task before the change.
+     * @return The old early start time.
+     */
+    public float getOldEarlyStartTime() {
+        return this.oldEarlyStartTime;
+    }
+
+    /**
+     * Gets the latest finish time of the task before the change.
+     * @return The old latest finish time.
+     */
+    public float getOldLatestFinishTime() {
+        return this.oldLatestFinishTime;
+    }
+
+    /**
+     * Gets the total float of the task before the change.
+     * @return The old total float.
+     */
+    public float getOldTotalFloat() {
+        return this.oldTotalFloat;
+    }
+
+    /**
+     * Gets the free float of the task before the change.
+     * @return The old free float.
+     */
+    public float getOldFreeFloat() {
+        return this.oldFreeFloat;
+    }
+
+    @Override
+    public String toString() {
+        return this.task.getId() + ": ES " + this.oldEarlyStartTime + " -> " + this.task.getEarlyStartTime()
+                + ", LF " + this.oldLatestFinishTime + " -> " + this.task.getLatestFinishTime()
+                + ", TF " + this.oldTotalFloat + " -> " + this.task.getTotalFloat();
+    }
+}
@@ -0,0 +1,146 @@
+package criticalpath;
+
+import java.util.SplittableRandom;
+
+/**
+ * A PERT three point estimate of a task's duration: the optimistic, most likely and pessimistic durations. Durations
+ * are picked from the PERT beta distribution between the optimistic and pessimistic durations, which peaks at the most
+ * likely duration and has a mean of (optimistic + 4 * most likely + pessimistic) / 6.
+ * @author Cameron Sabuda
+ */
+public class ThreePointEstimate implements DurationDistribution {
+
+    private final float optimistic;
+    private final float mostLikely;
+    private final float pessimistic;
+
+    /**
+     * The two shapes of the beta distribution, and the constants each one needs for picking gamma variates with
+     * Marsaglia and Tsang's method.
+     */
+    private final double alphaD;
+    private final double alphaC;
+    private final double betaD;
+    private final double betaC;
+
+    /**
+     * Creates a three point estimate.
+     * @param optimistic The shortest the task could take.
+     * @param mostLikely The most likely time the task will take.
+     * @param pessimistic The longest the task could take.
+     */
+    public ThreePointEstimate(float optimistic, float mostLikely, float pessimistic) {
+        if (!(optimistic >= 0) || !(mostLikely >= optimistic) || !(pessimistic >= mostLikely)){
+            throw new IllegalArgumentException(" an invalid three point estimate: " + optimistic + ", " + mostLikely
+                    + ", " + pessimistic);
+        }
+        this.optimistic = optimistic;
+        this.mostLikely = mostLikely;
+        this.pessimistic = pessimistic;
+
+        double range = pessimistic - optimistic;
+        double alpha = range == 0 ? 1 : 1 + 4 * (mostLikely - optimistic) / range;
+        double beta = range == 0 ? 1 : 1 + 4 * (pessimistic - mostLikely) / range;
+        this.alphaD = alpha - 1.0 / 3;
+        this.alphaC = 1 / Math.sqrt(9 * this.alphaD);
+        this.betaD = beta - 1.0 / 3;
+        this.betaC = 1 / Math.sqrt(9 * this.betaD);
+    }
+
+    /**
+     * Gets the shortest the task could take.
+     * @return The optimistic duration.
+     */
+    public float getOptimistic() {
+        return this.optimistic;
+    }
+
+    /**
+     * Gets the most likely time the task will take.
+     * @return The most likely duration.
+     */
+    public float getMostLikely() {
+        return this.mostLikely;
+    }
+
+    /**
+     * Gets the longest the task could take.
+     * @return The pessimistic duration.
+     */
+    public float getPessimistic() {
+        return this.pessimistic;
+    }
+
+    /**
+     * Gets the average duration of the task.
+     * @return The PERT mean, (optimistic + 4 * most likely + pessimistic) / 6.
+     */
+    public float getMean() {
+        return (this.optimistic + 4 * this.mostLikely + this.pessimistic) / 6;
+    }
+
+    /**
+     * Gets how spread out the durations of the task are.
+     * @return The PERT standard deviation, (pessimistic - optimistic) / 6.
+     */
+    public float getStandardDeviation() {
+        return (this.pessimistic - this.optimistic) / 6;
+    }
+
+    @Override
+    public float getMaximum() {
+        return this.pessimistic;
+    }
+
+    @Override
+    public float sample(SplittableRandom random) {
+        if (this.pessimistic == this.optimistic){
+            return this.optimistic;
+        }
+        // a beta variate is the first of two gamma variates over their total
+        double x = gamma(random, this.alphaD, this.alphaC);
+        double y = gamma(random, this.betaD, this.betaC);
+        float duration = (float) (this.optimistic + x / (x + y) * (this.pessimistic - this.optimistic));
+        return Math.min(this.pessimistic, Math.max(this.optimistic, duration));
+    }
+
+    /**
+     * Picks a gamma variate with a shape of at least 1 (Marsaglia and Tsang's method).
+     * @param random Where to get the random numbers from.
+     * @param d The shape less a third.
+     * @param c One over the square root of 9d.
+     * @return The gamma variate.
+     */
+    private static double gamma(SplittableRandom random, double d, double c) {
+        while (true){
+            double x = gaussian(random);
+            double v = 1 + c * x;
+            if (v <= 0){
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (u < 1 - 0.0331 * x * x * x * x || Math.log(u) < 0.5 * x * x + d * (1 - v + Math.log(v))){
+                return d * v;
+            }
+        }
+    }
+
+    /**
+     * Picks a standard normal variate (Marsaglia's polar method, throwing away the second variate it makes so nothing
+     * has to be kept between calls).
+     * @param random Where to get the random numbers from.
+     * @return The normal variate.
+     */
+    private static double gaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+}
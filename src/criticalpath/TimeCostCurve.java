@@ -0,0 +1,101 @@
+package criticalpath;
+
+import java.util.Arrays;
+
+/**
+ * How much it costs to shorten a project to each length, as found by CrashOptimizer. The curve is made of points
+ * joined by straight lines, from the normal length of the project at no cost down to the shortest length found.
+ * @author Cameron Sabuda
+ */
+public class TimeCostCurve {
+
+    private float[] projectDurations = new float[8];
+    private double[] costs = new double[8];
+    private int count;
+
+    /**
+     * Creates a curve starting at the normal length of the project.
+     * @param projectDuration The length of the project before any task is shortened.
+     */
+    TimeCostCurve(float projectDuration) {
+        this.addPoint(projectDuration, 0);
+    }
+
+    /**
+     * Adds the next point of the curve.
+     * @param projectDuration The length of the project, which is shorter than the last point.
+     * @param cost The total cost of shortening the project to that length.
+     */
+    void addPoint(float projectDuration, double cost) {
+        if (this.count == this.projectDurations.length){
+            this.projectDurations = Arrays.copyOf(this.projectDurations, this.count * 2);
+            this.costs = Arrays.copyOf(this.costs, this.count * 2);
+        }
+        this.projectDurations[this.count] = projectDuration;
+        this.costs[this.count] = cost;
+        this.count++;
+    }
+
+    /**
+     * Gets the number of points on the curve, which is one more than the number of steps the project was shortened
+     * in.
+     * @return The number of points.
+     */
+    public int getPointCount() {
+        return this.count;
+    }
+
+    /**
+     * Gets the length of the project at a point of the curve.
+     * @param point The number of the point, where 0 is the normal length of the project.
+     * @return The length of the project.
+     */
+    public float getProjectDuration(int point) {
+        if (point < 0 || point >= this.count){
+            throw new IndexOutOfBoundsException(" an invalid point: " + point);
+        }
+        return this.projectDurations[point];
+    }
+
+    /**
+     * Gets the total cost of shortening the project at a point of the curve.
+     * @param point The number of the point, where 0 is the normal length of the project.
+     * @return The total cost.
+     */
+    public double getCost(int point) {
+        if (point < 0 || point >= this.count){
+            throw new IndexOutOfBoundsException(" an invalid point: " + point);
+        }
+        return this.costs[point];
+    }
+
+    /**
+     * Gets the shortest length of the project on the curve.
+     * @return The length of the project at the last point.
+     */
+    public float getShortestDuration() {
+        return this.projectDurations[this.count - 1];
+    }
+
+    /**
+     * Gets the least cost of finishing the project within a length of time, following the line between the points on
+     * either side of it.
+     * @param projectDuration The length of time.
+     * @return The cost, which is 0 if the project already finishes in time or infinite if it can't be shortened that
+     * much.
+     */
+    public double getCostToFinishBy(float projectDuration) {
+        if (projectDuration >= this.projectDurations[0]){
+            return 0;
+        }
+        for (int i = 1; i < this.count; i++){
+            if (projectDuration >= this.projectDurations[i]){
+                float longer = this.projectDurations[i - 1];
+                float shorter = this.projectDurations[i];
+                double share = (longer - projectDuration) / (double) (longer - shorter);
+                return this.costs[i - 1] + share * (this.costs[i] - this.costs[i - 1]);
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+}
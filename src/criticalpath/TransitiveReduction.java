@@ -0,0 +1,116 @@
+package criticalpath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Finds the dependencies of a network that are implied by other dependencies, such as C depending on A when it also
+ * depends on B and B depends on A. Removing them doesn't change any start/finish time or float, as the longer way
+ * round is never shorter when no duration is negative.
+ * <p>
+ * Tasks are numbered in topological order, so a task can only reach tasks with higher numbers. Going backwards
+ * through the order, the tasks reachable from each task are the union of those reachable from its successors, kept as
+ * a row of bits. A link to a successor is redundant when that successor is already reachable through another one.
+ * Rows for every task would take n squared bits, so the reachable tasks are worked out a chunk of columns at a time,
+ * with the rows only as wide as the chunk.
+ * @author Cameron Sabuda
+ */
+final class TransitiveReduction {
+
+    /**
+     * The most longs kept for the rows at once, which is 32MB. Fewer tasks mean wider chunks and fewer passes.
+     */
+    static final int WORD_BUDGET = 1 << 22;
+
+    private TransitiveReduction() {
+    }
+
+    /**
+     * Finds the redundant dependencies of a network.
+     * @param order Every task of the network in topological order, starting with _START_ and ending with _END_.
+     * @return The redundant dependencies, which never involve _START_ or _END_.
+     */
+    static ArrayList<Dependency> find(ArrayList<Task> order) {
+        return find(order, WORD_BUDGET);
+    }
+
+    /**
+     * Finds the redundant dependencies of a network, keeping the rows within a given number of longs.
+     * @param order Every task of the network in topological order, starting with _START_ and ending with _END_.
+     * @param wordBudget The most longs kept for the rows at once. Rows are always at least one long wide.
+     * @return The redundant dependencies, which never involve _START_ or _END_.
+     */
+    static ArrayList<Dependency> find(ArrayList<Task> order, int wordBudget) {
+        int size = order.size();
+        for (int i = 0; i < size; i++){
+            order.get(i).index = i;
+        }
+
+        // the successors of each task packed into one array, each task's in order so the nearest comes first
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++){
+            offsets[i + 1] = offsets[i] + order.get(i).getSuccessors().size();
+        }
+        int[] successors = new int[offsets[size]];
+        for (int i = 0; i < size; i++){
+            int k = offsets[i];
+            for (Task task : order.get(i).getSuccessors()){
+                successors[k++] = task.index;
+            }
+            Arrays.sort(successors, offsets[i], k);
+        }
+
+        // _END_ is left out of the columns, as a link to it is only there when a task has no other successors
+        int columns = size - 1;
+        int words = Math.max(1, Math.min((columns + 63) >>> 6, wordBudget / Math.max(1, size)));
+        int width = words << 6;
+        long[] rows = new long[size * words];
+        boolean[] empty = new boolean[size];
+        long[] union = new long[words];
+        boolean[] redundant = new boolean[successors.length];
+
+        for (int first = 1; first < columns; first += width){
+            int last = Math.min(columns, first + width);
+            // tasks after the chunk can't reach into it
+            for (int task = last - 1; task >= 0; task--){
+                Arrays.fill(union, 0);
+                boolean unionEmpty = true;
+                for (int k = offsets[task]; k < offsets[task + 1]; k++){
+                    int successor = successors[k];
+                    if (successor < last && !empty[successor]){
+                        int row = successor * words;
+                        for (int w = 0; w < words; w++){
+                            union[w] |= rows[row + w];
+                        }
+                        unionEmpty = false;
+                    }
+                }
+
+                int row = task * words;
+                System.arraycopy(union, 0, rows, row, words);
+                boolean rowEmpty = unionEmpty;
+                for (int k = offsets[task]; k < offsets[task + 1]; k++){
+                    int column = successors[k] - first;
+                    if (column >= 0 && successors[k] < last){
+                        if (!unionEmpty && (union[column >>> 6] & (1L << column)) != 0){
+                            redundant[k] = true;
+                        }
+                        rows[row + (column >>> 6)] |= 1L << column;
+                        rowEmpty = false;
+                    }
+                }
+                empty[task] = rowEmpty;
+            }
+        }
+
+        ArrayList<Dependency> dependencies = new ArrayList<>();
+        for (int i = 0; i < size; i++){
+            for (int k = offsets[i]; k < offsets[i + 1]; k++){
+                if (redundant[k]){
+                    dependencies.add(new Dependency(order.get(i), order.get(successors[k])));
+                }
+            }
+        }
+        return dependencies;
+    }
+}
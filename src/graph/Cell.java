@@ -1,9 +1,9 @@
 package graph;
 
 import criticalpath.Task;
-import javafx.beans.property.FloatProperty;
-import javafx.beans.property.Property;
-import javafx.beans.property.StringProperty;
+import javafx.beans.binding.NumberExpression;
+import javafx.beans.binding.StringExpression;
+import javafx.beans.value.ObservableValue;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
@@ -21,6 +21,10 @@ public class Cell extends Pane {
 
     private String cellId;
 
+    /**
+     * The properties of the task that the cell displays.
+     */
+    private ObservableTask observableTask;
 
     /**
      * Creates a cell out of a given task, displaying its id, early start time, duration and latest finish time.
@@ -29,6 +33,7 @@ public class Cell extends Pane {
     public Cell(Task task) {
         // gives the cell a unique id based on the task's id
         this.cellId = task.getId();
+        this.observableTask = new ObservableTask(task);
 
         /**
          * Represents a box to be displayed in the program's frame.
@@ -40,7 +45,7 @@ public class Cell extends Pane {
              * @param height Height of the box.
              * @param txt The property to display in the centre.
              */
-            private Box(int width, int height, Property txt) {
+            private Box(int width, int height, ObservableValue<?> txt) {
                 super();
 
                 Rectangle border = new Rectangle(width, height);
@@ -49,12 +54,12 @@ public class Cell extends Pane {
                 inside.setFill(Color.LIGHTGREY);
 
                 Text text = new Text();
-                if(txt instanceof StringProperty) {
-                    text.textProperty().bind(txt);
+                if(txt instanceof StringExpression) {
+                    text.textProperty().bind((StringExpression) txt);
                 }
                 else {
-                    if (txt instanceof FloatProperty) {
-                    text.textProperty().bind(((FloatProperty) txt).asString());
+                    if (txt instanceof NumberExpression) {
+                    text.textProperty().bind(((NumberExpression) txt).asString());
                     }
                 }
 
@@ -69,15 +74,15 @@ public class Cell extends Pane {
         VBox wholeCell = new VBox();
 
         // make a box to contain the id that is the width of the whole cell and half the height
-        Box idBox = new Box(120, 40, task.idProperty());
+        Box idBox = new Box(120, 40, this.observableTask.idProperty());
 
         // create a HBox to store the duration, early start and latest finish
         HBox cellInfo = new HBox();
 
         // create boxes displaying duration, early start and latest finish
-        Box estBox = new Box(40,40, task.earlyStartTimeProperty());//EST = Early Start Time
-        Box durationBox = new Box(40,40,task.durationProperty());
-        Box lftBox = new Box(40,40, task.latestFinishTimeProperty());
+        Box estBox = new Box(40,40, this.observableTask.earlyStartTimeProperty());//EST = Early Start Time
+        Box durationBox = new Box(40,40,this.observableTask.durationProperty());
+        Box lftBox = new Box(40,40, this.observableTask.latestFinishTimeProperty());
 
         // put the above 3 boxes in the HBox
         cellInfo.getChildren().addAll(estBox, durationBox, lftBox);
@@ -98,4 +103,19 @@ public class Cell extends Pane {
         return cellId;
     }
 
+    /**
+     * Changes the cell's id after its task has been renamed.
+     * @param cellId The new id of the cell.
+     */
+    void setCellId(String cellId) {
+        this.cellId = cellId;
+    }
+
+    /**
+     * Shows the latest values of the cell's task, after the network has reported that it changed.
+     */
+    public void refresh() {
+        this.observableTask.refresh();
+    }
+
 }
\ No newline at end of file
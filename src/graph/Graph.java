@@ -38,12 +38,10 @@ public class Graph {
     public void endUpdate() {
         // add components to graph pane
         getCellLayer().getChildren().addAll(model.getAddedEdges());
-        try{
-            Cell newCell = getModel().getAddedCells().get(0);
+        // new cells start in the middle of the pane, however many are added in one update
+        for (Cell newCell : getModel().getAddedCells()){
             newCell.setTranslateX(640);
             newCell.setTranslateY(360);
-        } catch(Exception e){
-
         }
 
         for (Edge edge : model.getAddedEdges()){
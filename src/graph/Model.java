@@ -1,7 +1,10 @@
 package graph;
 
 import criticalpath.CriticalPathGraph;
+import criticalpath.ScheduleChange;
+import criticalpath.ScheduleChangeListener;
 import criticalpath.Task;
+import criticalpath.TaskChange;
 import javafx.beans.property.FloatProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.SimpleStringProperty;
@@ -18,10 +21,11 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Contains and handles all the data for the graph, including all the edges and cells.
+ * Contains and handles all the data for the graph, including all the edges and cells. Listens to the critical path
+ * graph so that only the cells of tasks that really changed are redrawn.
  * @author Cameron Sabuda
  */
-public class Model {
+public class Model implements ScheduleChangeListener {
 
     private List<Cell> allCells;
     private List<Cell> addedCells;
@@ -170,6 +174,57 @@ public class Model {
         cellMap.remove(cell.getCellId());
     }
 
+    /**
+     * Removes the cell of a task from the model, leaving its edges to be removed separately.
+     * @param id The id of the task.
+     */
+    public void removeCell(String id) {
+        Cell cell = cellMap.get(id);
+        if (cell != null) {
+            removeCell(cell);
+        }
+    }
+
+    /**
+     * Removes the edge from the cell with the sourceId to the cell with the targetId, if there is one.
+     * @param sourceId The id of the cell that the edge goes from.
+     * @param targetId The id of the cell that the edge goes to.
+     */
+    public void removeEdge(String sourceId, String targetId) {
+        for (Edge edge : this.allEdges) {
+            if (edge.getSource().getCellId().equals(sourceId) && edge.getTarget().getCellId().equals(targetId)) {
+                this.removedEdges.add(edge);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the cells of the tasks whose values changed, leaving every other cell alone. The cells of renamed
+     * tasks are filed under their new ids, so they can still be found after the next change.
+     * @param change What changed in the critical path graph.
+     */
+    @Override
+    public void scheduleChanged(ScheduleChange change) {
+        // take out every renamed cell before putting any back, in case tasks swapped ids
+        List<Cell> renamed = new ArrayList<>();
+        for (TaskChange taskChange : change.getTaskChanges()) {
+            Cell cell = cellMap.get(taskChange.getOldId());
+            if (cell == null) {
+                continue;
+            }
+            String id = taskChange.getTask().getId();
+            if (!id.equals(taskChange.getOldId())) {
+                cellMap.remove(taskChange.getOldId());
+                cell.setCellId(id);
+                renamed.add(cell);
+            }
+            cell.refresh();
+        }
+        for (Cell cell : renamed) {
+            cellMap.put(cell.getCellId(), cell);
+        }
+    }
+
     /**
      * Adds an edge from a cell with the sourceId to the cell with the targetId
      * @param sourceId The id of the cell that the edge is to go from.
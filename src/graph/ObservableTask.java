@@ -0,0 +1,101 @@
+package graph;
+
+import criticalpath.Task;
+import javafx.beans.property.ReadOnlyFloatProperty;
+import javafx.beans.property.ReadOnlyFloatWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+/**
+ * The JavaFX properties of a task, for cells on screen to bind to. Tasks themselves only hold plain values, so one of
+ * these is only made for a task when it is shown, and the task's values are copied into its properties when the
+ * network reports that the task has changed.
+ * @author Cameron Sabuda
+ */
+public class ObservableTask {
+
+    private final Task task;
+    private final ReadOnlyStringWrapper id = new ReadOnlyStringWrapper(this, "id");
+    private final ReadOnlyFloatWrapper duration = new ReadOnlyFloatWrapper(this, "duration");
+    private final ReadOnlyFloatWrapper earlyStartTime = new ReadOnlyFloatWrapper(this, "earlyStartTime");
+    private final ReadOnlyFloatWrapper latestFinishTime = new ReadOnlyFloatWrapper(this, "latestFinishTime");
+    private final ReadOnlyFloatWrapper totalFloat = new ReadOnlyFloatWrapper(this, "totalFloat");
+    private final ReadOnlyFloatWrapper freeFloat = new ReadOnlyFloatWrapper(this, "freeFloat");
+
+    /**
+     * Creates the properties of a task, holding its current values.
+     * @param task The task.
+     */
+    public ObservableTask(Task task) {
+        this.task = task;
+        this.refresh();
+    }
+
+    /**
+     * Copies the values of the task into the properties, after the task has changed.
+     */
+    public void refresh() {
+        this.id.set(this.task.getId());
+        this.duration.set(this.task.getDuration());
+        this.earlyStartTime.set(this.task.getEarlyStartTime());
+        this.latestFinishTime.set(this.task.getLatestFinishTime());
+        this.totalFloat.set(this.task.getTotalFloat());
+        this.freeFloat.set(this.task.getFreeFloat());
+    }
+
+    /**
+     * Gets the task the properties belong to.
+     * @return The task.
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    /**
+     * Get the idProperty variable used to show the id.
+     * @return The idProperty used to show the id.
+     */
+    public ReadOnlyStringProperty idProperty() {
+        return this.id.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the durationProperty variable used to show the duration.
+     * @return The durationProperty used to show the duration.
+     */
+    public ReadOnlyFloatProperty durationProperty() {
+        return this.duration.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the earlyStartTimeProperty variable used to show the early start time.
+     * @return The earlyStartTimeProperty used to show the early start time.
+     */
+    public ReadOnlyFloatProperty earlyStartTimeProperty() {
+        return this.earlyStartTime.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the latestFinishTimeProperty variable used to show the latest finish time.
+     * @return The latestFinishTimeProperty used to show the latest finish time.
+     */
+    public ReadOnlyFloatProperty latestFinishTimeProperty() {
+        return this.latestFinishTime.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the totalFloatProperty variable used to show the total float.
+     * @return The totalFloatProperty used to show the total float.
+     */
+    public ReadOnlyFloatProperty totalFloatProperty() {
+        return this.totalFloat.getReadOnlyProperty();
+    }
+
+    /**
+     * Get the freeFloatProperty variable used to show the free float.
+     * @return The freeFloatProperty used to show the free float.
+     */
+    public ReadOnlyFloatProperty freeFloatProperty() {
+        return this.freeFloat.getReadOnlyProperty();
+    }
+}
@@ -0,0 +1,182 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks CrashOptimizer against trying every whole-number amount of crashing on every task of small networks. With
+ * whole-number durations and costs there is always a cheapest plan that only crashes by whole numbers, so the two
+ * must agree on the cost.
+ * @author Cameron Sabuda
+ */
+class CrashOptimizerTest {
+
+    private static final int NETWORKS = 5000;
+    private static final double COST_TOLERANCE = 1e-3;
+
+    /**
+     * A small network, where task i can only depend on tasks before it.
+     */
+    private static class Network {
+
+        private final int[] durations;
+        private final int[] minimumDurations;
+        private final int[] costs;
+        private final boolean[][] dependsOn;
+
+        private Network(int[] durations, int[] minimumDurations, int[] costs, boolean[][] dependsOn) {
+            this.durations = durations;
+            this.minimumDurations = minimumDurations;
+            this.costs = costs;
+            this.dependsOn = dependsOn;
+        }
+
+        private static Network random(Random random) {
+            int size = 1 + random.nextInt(8);
+            int[] durations = new int[size];
+            int[] minimumDurations = new int[size];
+            int[] costs = new int[size];
+            boolean[][] dependsOn = new boolean[size][size];
+            for (int i = 0; i < size; i++){
+                durations[i] = random.nextInt(5);
+                minimumDurations[i] = random.nextInt(durations[i] + 1);
+                costs[i] = 1 + random.nextInt(5);
+                for (int j = 0; j < i; j++){
+                    dependsOn[i][j] = random.nextInt(2) == 0;
+                }
+            }
+            return new Network(durations, minimumDurations, costs, dependsOn);
+        }
+
+        private int size() {
+            return this.durations.length;
+        }
+
+        private int getProjectDuration(int[] durations) {
+            int[] finishes = new int[this.size()];
+            int projectDuration = 0;
+            for (int i = 0; i < this.size(); i++){
+                int start = 0;
+                for (int j = 0; j < i; j++){
+                    if (this.dependsOn[i][j]){
+                        start = Math.max(start, finishes[j]);
+                    }
+                }
+                finishes[i] = start + durations[i];
+                projectDuration = Math.max(projectDuration, finishes[i]);
+            }
+            return projectDuration;
+        }
+
+        /**
+         * Tries every way of crashing the tasks.
+         * @param projectDuration The length the project has to be finished within.
+         * @return The least cost, or infinity if the project can't be made that short.
+         */
+        private double findCheapestCost(int projectDuration) {
+            int[] durations = this.minimumDurations.clone();
+            double cheapest = Double.POSITIVE_INFINITY;
+            while (true){
+                if (this.getProjectDuration(durations) <= projectDuration){
+                    double cost = 0;
+                    for (int i = 0; i < this.size(); i++){
+                        cost += (this.durations[i] - durations[i]) * this.costs[i];
+                    }
+                    cheapest = Math.min(cheapest, cost);
+                }
+                int i = 0;
+                while (i < this.size() && durations[i] == this.durations[i]){
+                    durations[i] = this.minimumDurations[i];
+                    i++;
+                }
+                if (i == this.size()){
+                    return cheapest;
+                }
+                durations[i]++;
+            }
+        }
+
+        private CrashOptimizer createOptimizer() throws Exception {
+            CriticalPathGraph graph = new CriticalPathGraph();
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (int i = 0; i < this.size(); i++){
+                ArrayList<Task> predecessors = new ArrayList<>();
+                for (int j = 0; j < i; j++){
+                    if (this.dependsOn[i][j]){
+                        predecessors.add(tasks.get(j));
+                    }
+                }
+                Task task = new Task("T" + i, this.durations[i], predecessors);
+                graph.addTask(task);
+                tasks.add(task);
+            }
+            CrashOptimizer optimizer = new CrashOptimizer(graph);
+            for (int i = 0; i < this.size(); i++){
+                optimizer.setCrashOption("T" + i, this.minimumDurations[i], this.costs[i]);
+            }
+            return optimizer;
+        }
+    }
+
+    @Test
+    void matchesEveryWholeNumberPlan() throws Exception {
+        Random random = new Random(42);
+        for (int n = 0; n < NETWORKS; n++){
+            Network network = Network.random(random);
+            int normal = network.getProjectDuration(network.durations);
+            int shortest = network.getProjectDuration(network.minimumDurations);
+            CrashOptimizer optimizer = network.createOptimizer();
+            for (int reduction = 0; reduction <= normal - shortest + 1; reduction++){
+                TimeCostCurve curve = optimizer.crash(reduction);
+                int target = Math.max(normal - reduction, shortest);
+                String message = "network " + n + ", reduction " + reduction;
+                assertEquals(target, curve.getShortestDuration(), 1e-4, message);
+                double cost = curve.getCost(curve.getPointCount() - 1);
+                assertEquals(network.findCheapestCost(target), cost, COST_TOLERANCE, message);
+
+                // the durations given back must really make the project that short for that cost
+                int[] durations = network.durations.clone();
+                double crashedCost = 0;
+                for (Map.Entry<String, Float> entry : optimizer.getCrashedDurations().entrySet()){
+                    int i = Integer.parseInt(entry.getKey().substring(1));
+                    durations[i] = Math.round(entry.getValue());
+                    assertEquals(durations[i], entry.getValue(), 1e-4, message);
+                    crashedCost += (network.durations[i] - entry.getValue()) * network.costs[i];
+                }
+                assertEquals(target, network.getProjectDuration(durations), message);
+                assertEquals(cost, crashedCost, COST_TOLERANCE, message);
+
+                // every point of the curve is the cheapest way to reach its length
+                for (int point = 0; point < curve.getPointCount(); point++){
+                    float length = curve.getProjectDuration(point);
+                    if (length == Math.rint(length)){
+                        assertEquals(network.findCheapestCost((int) length), curve.getCost(point), COST_TOLERANCE,
+                                     message + ", point " + point);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void lengthensCrashedTasksWhenThatIsCheaper() throws Exception {
+        // 0 -> 2 -> 3, 1 -> 3, 0 -> 4, 1 -> 4: shortening by 3 costs 13 if task 1 is crashed first and then lengthened
+        // again while 2 and 4 are crashed, rather than 15
+        Network network = new Network(new int[]{1, 3, 1, 4, 4}, new int[5], new int[]{5, 2, 3, 2, 5}, new boolean[][]{
+                {false, false, false, false, false},
+                {false, false, false, false, false},
+                {true, false, false, false, false},
+                {false, true, true, false, false},
+                {true, true, false, false, false}});
+        CrashOptimizer optimizer = network.createOptimizer();
+        TimeCostCurve curve = optimizer.crash(3);
+        assertEquals(4, curve.getShortestDuration(), 0);
+        assertEquals(13, curve.getCost(curve.getPointCount() - 1), COST_TOLERANCE);
+        assertEquals(network.findCheapestCost(4), 13, 0);
+    }
+}
@@ -0,0 +1,129 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the cycle detection and reordering of addDependency() against a plain search of the network, over random
+ * links and unlinks.
+ * @author Cameron Sabuda
+ */
+class CyclicDependencyTest {
+
+    private static final int NETWORKS = 300;
+    private static final int EDITS = 40;
+
+    @Test
+    void matchesPlainSearch() throws Exception {
+        Random random = new Random(9);
+        int cycles = 0;
+        for (int n = 0; n < NETWORKS; n++){
+            CriticalPathGraph graph = Networks.random(random, 2 + random.nextInt(40));
+            for (int edit = 0; edit < EDITS; edit++){
+                Task predecessor = Networks.randomTask(random, graph);
+                Task task = Networks.randomTask(random, graph);
+                String message = "network " + n + ", edit " + edit;
+                // the link closes a cycle exactly when the predecessor can already be reached from the task
+                int distance = Networks.distance(task, predecessor);
+                boolean linked = task.getPredecessors().contains(predecessor);
+                try {
+                    graph.addDependency(predecessor, task);
+                    assertTrue(distance < 0 || linked, message + ": missed a cycle");
+                    assertTrue(task.getPredecessors().contains(predecessor), message);
+                }
+                catch (CyclicDependencyException e) {
+                    cycles++;
+                    assertTrue(distance >= 0 && !linked, message + ": found a cycle that isn't there");
+                    assertTrue(!task.getPredecessors().contains(predecessor), message);
+                    checkCycle(graph, e.getCycle(), predecessor, task, distance, message);
+                }
+                Networks.check(graph);
+
+                if (random.nextInt(3) == 0){
+                    Task unlinked = Networks.randomTask(random, graph);
+                    Task first = unlinked.getPredecessors().get(0);
+                    if (first != graph.getStartTask()){
+                        graph.removeDependency(first, unlinked);
+                        Networks.check(graph);
+                    }
+                }
+            }
+        }
+        assertTrue(cycles > 0);
+    }
+
+    /**
+     * Checks a cycle goes round from the task through existing links back to the predecessor, and is a shortest one.
+     */
+    private static void checkCycle(CriticalPathGraph graph, ArrayList<String> cycle, Task predecessor, Task task,
+                                   int distance, String message) throws TaskNotFoundException {
+        assertEquals(distance + 1, cycle.size(), message);
+        for (int i = 0; i < cycle.size(); i++){
+            Task from = graph.getTask(cycle.get(i));
+            Task to = graph.getTask(cycle.get((i + 1) % cycle.size()));
+            assertTrue((from == predecessor && to == task) || to.getPredecessors().contains(from),
+                       message + ": " + cycle);
+        }
+    }
+
+    @Test
+    void rejectsLinksToItselfAndEnd() throws Exception {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        Task task = new Task("A", 1, new ArrayList<>());
+        graph.addTask(task);
+        assertThrows(CyclicDependencyException.class, () -> graph.addDependency(task, task));
+        ArrayList<Task> afterEnd = new ArrayList<>(Collections.singletonList(graph.getEndTask()));
+        assertThrows(CyclicDependencyException.class, () -> graph.addTask(new Task("B", 1, afterEnd)));
+        assertTrue(graph.getEndTask().getSuccessors().isEmpty());
+
+        Task p = new Task("P", 1, new ArrayList<>());
+        Task q = new Task("Q", 1, new ArrayList<>(Collections.singletonList(p)));
+        p.addPredecessor(q);
+        assertThrows(CyclicDependencyException.class, () -> graph.addTasks(Arrays.asList(p, q)));
+        assertEquals(3, graph.getTasks().size());
+        Networks.check(graph);
+    }
+
+    @Test
+    void tasksThatArentAddedLeaveNoTrace() throws Exception {
+        Random random = new Random(2);
+        CriticalPathGraph graph = Networks.random(random, 50);
+        Task predecessor = Networks.randomTask(random, graph);
+        int successors = predecessor.getSuccessors().size();
+        ArrayList<Task> predecessors = new ArrayList<>(Collections.singletonList(predecessor));
+
+        // made and never added, rejected as a duplicate, and rejected for depending on _END_
+        new Task("X", 1, predecessors);
+        assertThrows(DuplicateTaskException.class, () -> graph.addTask(new Task("T0", 1, predecessors)));
+        Task afterEnd = new Task("Y", 1, new ArrayList<>(Arrays.asList(predecessor, graph.getEndTask())));
+        assertThrows(CyclicDependencyException.class, () -> graph.addTask(afterEnd));
+        assertEquals(successors, predecessor.getSuccessors().size());
+        Networks.check(graph);
+
+        Task added = new Task("Z", 1, predecessors);
+        graph.addTask(added);
+        assertTrue(predecessor.getSuccessors().contains(added));
+        Networks.check(graph);
+    }
+
+    @Test
+    void concurrentNetworkRejectsEndAsPredecessor() throws Exception {
+        ConcurrentCriticalPathGraph graph = new ConcurrentCriticalPathGraph();
+        graph.addTask("A", 1);
+        NetworkSnapshot before = graph.getSnapshot();
+        assertThrows(CyclicDependencyException.class, () -> graph.addTask("B", 1, "A", "_END_"));
+        assertThrows(TaskNotFoundException.class, () -> graph.addTask("C", 1, "C"));
+        NetworkSnapshot after = graph.getSnapshot();
+        assertEquals(before.size(), after.size());
+        assertThrows(TaskNotFoundException.class, () -> after.indexOf("B"));
+        assertEquals(1, after.getProjectDuration(), 0);
+    }
+}
@@ -0,0 +1,133 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the snapshots published by ConcurrentCriticalPathGraph against scheduling their tasks and links again, over
+ * random edits, and checks that earlier snapshots never change when later ones share their pages.
+ * @author Cameron Sabuda
+ */
+class NetworkSnapshotTest {
+
+    private static final int EDITS = 2000;
+
+    /**
+     * The values of a snapshot by task id, so they can be compared after later snapshots are published.
+     */
+    private static HashMap<String, float[]> values(NetworkSnapshot snapshot) {
+        HashMap<String, float[]> values = new HashMap<>();
+        for (int i = 0; i < snapshot.size(); i++){
+            values.put(snapshot.getId(i), new float[]{snapshot.getDuration(i), snapshot.getEarlyStartTime(i),
+                                                      snapshot.getLatestFinishTime(i), snapshot.getTotalFloat(i)});
+        }
+        return values;
+    }
+
+    @Test
+    void matchesRescheduleThroughEdits() throws Exception {
+        Random random = new Random(20);
+        ConcurrentCriticalPathGraph graph = new ConcurrentCriticalPathGraph(Networks.random(random, 3000));
+        ArrayList<String> ids = new ArrayList<>();
+        for (int i = 1; i < graph.getSnapshot().size() - 1; i++){
+            ids.add(graph.getSnapshot().getId(i));
+        }
+        int serial = ids.size();
+        int shared = 0;
+        for (int edit = 0; edit < EDITS; edit++){
+            NetworkSnapshot before = graph.getSnapshot();
+            HashMap<String, float[]> beforeValues = edit % 50 == 0 ? values(before) : null;
+            String id = ids.get(random.nextInt(ids.size()));
+            int kind = random.nextInt(20);
+            if (kind < 14){
+                graph.setTaskDuration(id, random.nextInt(10));
+            }
+            else if (kind == 14){
+                String newId = "T" + serial++;
+                graph.addTask(newId, random.nextInt(10), id);
+                ids.add(newId);
+            }
+            else if (kind == 15){
+                try {
+                    graph.addDependency(ids.get(random.nextInt(ids.size())), id);
+                }
+                catch (CyclicDependencyException e) {
+                    // the link is left out and the snapshot is published anyway
+                }
+            }
+            else if (kind == 16 && ids.size() > 10){
+                graph.deleteTask(id);
+                ids.remove(id);
+            }
+            else if (kind == 17){
+                String newId = "T" + serial++;
+                graph.update(g -> g.renameTask(g.getTask(id), newId));
+                ids.set(ids.indexOf(id), newId);
+            }
+            else {
+                // several durations in one update
+                graph.update(g -> {
+                    g.beginUpdate();
+                    for (int k = 0; k < 5; k++){
+                        g.setTaskDuration(g.getTask(ids.get(random.nextInt(ids.size()))), random.nextInt(10));
+                    }
+                    g.endUpdate();
+                });
+            }
+
+            NetworkSnapshot after = graph.getSnapshot();
+            check(after, "edit " + edit);
+            if (kind < 14 || kind >= 18){
+                assertSame(before.network(), after.network(), "edit " + edit);
+                shared++;
+            }
+            if (beforeValues != null){
+                HashMap<String, float[]> stillBefore = values(before);
+                for (String taskId : beforeValues.keySet()){
+                    assertEquals(0, Float.compare(beforeValues.get(taskId)[0], stillBefore.get(taskId)[0]));
+                    assertEquals(0, Float.compare(beforeValues.get(taskId)[1], stillBefore.get(taskId)[1]));
+                    assertEquals(0, Float.compare(beforeValues.get(taskId)[2], stillBefore.get(taskId)[2]));
+                }
+            }
+        }
+        assertTrue(shared > EDITS / 2);
+    }
+
+    /**
+     * Schedules the tasks and links of a snapshot again with its durations, and checks it has exactly the same times,
+     * and that a scenario that changes nothing has them too.
+     */
+    private static void check(NetworkSnapshot snapshot, String message) throws TaskNotFoundException {
+        CompactNetwork network = snapshot.network();
+        int size = snapshot.size();
+        float[] durations = new float[size];
+        for (int i = 0; i < size; i++){
+            durations[i] = snapshot.getDuration(i);
+        }
+        float[] earlyStartTimes = new float[size];
+        float[] latestFinishTimes = new float[size];
+        network.forwardPass(durations, earlyStartTimes, 1);
+        network.backwardPass(durations, earlyStartTimes, latestFinishTimes);
+        for (int i = 0; i < size; i++){
+            assertEquals(earlyStartTimes[i], snapshot.getEarlyStartTime(i), 0, message + ", " + snapshot.getId(i));
+            if (i > 0){
+                assertEquals(latestFinishTimes[i], snapshot.getLatestFinishTime(i), 0,
+                             message + ", " + snapshot.getId(i));
+            }
+        }
+
+        String id = snapshot.getId(1 + (size - 2) / 2);
+        Scenario scenario = snapshot.withDelay(id, 0);
+        for (int i = 1; i < size; i++){
+            assertEquals(snapshot.getEarlyStartTime(i), scenario.getEarlyStartTime(i), 0, message);
+            assertEquals(snapshot.getLatestFinishTime(i), scenario.getLatestFinishTime(i), 0, message);
+        }
+    }
+}
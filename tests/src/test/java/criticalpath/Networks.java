@@ -0,0 +1,177 @@
+package criticalpath;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Random networks for the tests, and plain versions of what the engine works out to check it against. Durations are
+ * whole numbers so the times add up exactly.
+ * @author Cameron Sabuda
+ */
+final class Networks {
+
+    private Networks() {
+    }
+
+    /**
+     * Makes a random network, where each task depends on up to three of the tasks added before it.
+     * @param random Where the random numbers come from.
+     * @param size The number of tasks, not counting _START_ and _END_.
+     * @return The network.
+     */
+    static CriticalPathGraph random(Random random, int size) throws Exception {
+        CriticalPathGraph graph = new CriticalPathGraph();
+        ArrayList<Task> added = new ArrayList<>();
+        for (int i = 0; i < size; i++){
+            ArrayList<Task> predecessors = new ArrayList<>();
+            int count = added.isEmpty() ? 0 : random.nextInt(Math.min(4, added.size() + 1));
+            for (int j = 0; j < count; j++){
+                Task predecessor = added.get(random.nextInt(added.size()));
+                if (!predecessors.contains(predecessor)){
+                    predecessors.add(predecessor);
+                }
+            }
+            Task task = new Task("T" + i, random.nextInt(10), predecessors);
+            graph.addTask(task);
+            added.add(task);
+        }
+        return graph;
+    }
+
+    /**
+     * Picks a random task other than _START_ and _END_.
+     * @param random Where the random numbers come from.
+     * @param graph The network, which must have such a task.
+     * @return The task.
+     */
+    static Task randomTask(Random random, CriticalPathGraph graph) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Task task : graph.getTasks()){
+            if (task != graph.getStartTask() && task != graph.getEndTask()){
+                tasks.add(task);
+            }
+        }
+        return tasks.get(random.nextInt(tasks.size()));
+    }
+
+    /**
+     * Finds how many links the shortest path from one task to another has, following successors.
+     * @param from The task to start from.
+     * @param to The task to reach.
+     * @return The number of links, or -1 if the task can't be reached.
+     */
+    static int distance(Task from, Task to) {
+        HashMap<Task, Integer> distances = new HashMap<>();
+        ArrayDeque<Task> queue = new ArrayDeque<>();
+        distances.put(from, 0);
+        queue.add(from);
+        while (!queue.isEmpty()){
+            Task task = queue.poll();
+            if (task == to){
+                return distances.get(task);
+            }
+            for (Task successor : task.getSuccessors()){
+                if (!distances.containsKey(successor)){
+                    distances.put(successor, distances.get(task) + 1);
+                    queue.add(successor);
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks everything the network keeps up to date as it changes against a plain recalculation: the positions of
+     * the tasks in the list, the links in both directions, the links to _START_ and _END_, the ranks, the times and
+     * floats of every task and the float index.
+     * @param graph The network to check.
+     */
+    static void check(CriticalPathGraph graph) {
+        Task startTask = graph.getStartTask();
+        Task endTask = graph.getEndTask();
+        ArrayList<Task> tasks = graph.getTasks();
+        HashSet<Task> inNetwork = new HashSet<>(tasks);
+        assertEquals(tasks.size(), inNetwork.size());
+        assertTrue(tasks.get(0) == startTask && tasks.get(1) == endTask);
+        for (int i = 0; i < tasks.size(); i++){
+            assertEquals(i, tasks.get(i).position, tasks.get(i).getId());
+        }
+        for (Task task : tasks){
+            assertTrue(graph.containsTask(task.getId()), task.getId());
+            for (Task predecessor : task.getPredecessors()){
+                assertTrue(inNetwork.contains(predecessor), task.getId());
+                assertTrue(predecessor.getSuccessors().contains(task), task.getId());
+                if (predecessor != startTask && task != endTask){
+                    assertTrue(predecessor.rank < task.rank, predecessor.getId() + " -> " + task.getId());
+                }
+            }
+            for (Task successor : task.getSuccessors()){
+                assertTrue(successor.getPredecessors().contains(task), task.getId());
+            }
+            if (task != startTask){
+                assertFalse(task.getPredecessors().isEmpty(), task.getId());
+                assertTrue(!task.getPredecessors().contains(startTask) || task.getPredecessors().size() == 1,
+                           task.getId());
+            }
+            if (task != endTask){
+                assertFalse(task.getSuccessors().isEmpty(), task.getId());
+                assertTrue(!task.getSuccessors().contains(endTask) || task.getSuccessors().size() == 1,
+                           task.getId());
+            }
+        }
+
+        HashMap<Task, Float> earlyStarts = new HashMap<>();
+        for (Task task : graph.getTopologicalOrder()){
+            float earlyStart = 0;
+            for (Task predecessor : task.getPredecessors()){
+                earlyStart = Math.max(earlyStart, earlyStarts.get(predecessor) + predecessor.getDuration());
+            }
+            earlyStarts.put(task, earlyStart);
+        }
+        assertEquals(tasks.size(), earlyStarts.size());
+        float projectDuration = earlyStarts.get(endTask);
+        HashMap<Task, Float> latestFinishes = new HashMap<>();
+        ArrayList<Task> order = graph.getTopologicalOrder();
+        for (int i = order.size() - 1; i >= 0; i--){
+            Task task = order.get(i);
+            float latestFinish = task == endTask ? projectDuration : Float.MAX_VALUE;
+            for (Task successor : task.getSuccessors()){
+                latestFinish = Math.min(latestFinish, latestFinishes.get(successor) - successor.getDuration());
+            }
+            latestFinishes.put(task, latestFinish);
+        }
+        for (Task task : tasks){
+            assertEquals(earlyStarts.get(task), task.getEarlyStartTime(), 0, "early start of " + task.getId());
+            if (task == startTask){
+                continue;
+            }
+            assertEquals(latestFinishes.get(task), task.getLatestFinishTime(), 0, "latest finish of " + task.getId());
+            float earlyFinish = task.getEarlyStartTime() + task.getDuration();
+            assertEquals(task.getLatestFinishTime() - earlyFinish, task.getTotalFloat(), 0, task.getId());
+            float freeFloat = task.getSuccessors().isEmpty() ? task.getLatestFinishTime() - earlyFinish
+                                                              : Float.MAX_VALUE;
+            for (Task successor : task.getSuccessors()){
+                freeFloat = Math.min(freeFloat, successor.getEarlyStartTime() - earlyFinish);
+            }
+            assertEquals(freeFloat, task.getFreeFloat(), 0, "free float of " + task.getId());
+        }
+
+        ArrayList<Task> byFloat = graph.getLeastFloatTasks(Integer.MAX_VALUE);
+        assertEquals(tasks.size() - 2, byFloat.size());
+        assertEquals(new HashSet<>(byFloat).size(), byFloat.size());
+        for (int i = 0; i < byFloat.size(); i++){
+            assertTrue(inNetwork.contains(byFloat.get(i)));
+            if (i > 0 && byFloat.get(i - 1).getTotalFloat() > byFloat.get(i).getTotalFloat()){
+                fail("float index out of order at " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks ReachabilityIndex against a breadth-first search of the network, while random edits, batches and undos
+ * change the network under it.
+ * @author Cameron Sabuda
+ */
+class ReachabilityIndexTest {
+
+    private static final int EDITS = 3000;
+
+    /**
+     * Finds every task that can be reached from a task, other than _START_ and _END_.
+     */
+    private static HashSet<Task> search(CriticalPathGraph graph, Task task, boolean forwards) {
+        HashSet<Task> reached = new HashSet<>();
+        ArrayDeque<Task> queue = new ArrayDeque<>();
+        queue.add(task);
+        while (!queue.isEmpty()){
+            Task next = queue.poll();
+            for (Task tsk : forwards ? next.getSuccessors() : next.getPredecessors()){
+                if (reached.add(tsk)){
+                    queue.add(tsk);
+                }
+            }
+        }
+        reached.remove(graph.getStartTask());
+        reached.remove(graph.getEndTask());
+        return reached;
+    }
+
+    private static ArrayList<Task> liveTasks(CriticalPathGraph graph) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (Task task : graph.getTasks()){
+            if (task != graph.getStartTask() && task != graph.getEndTask()){
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    @Test
+    void matchesSearchThroughEdits() throws Exception {
+        Random random = new Random(3);
+        CriticalPathGraph graph = new CriticalPathGraph();
+        ReachabilityIndex index = new ReachabilityIndex(graph);
+        EditHistory history = new EditHistory(graph);
+        int serial = 0;
+        for (int edit = 0; edit < EDITS; edit++){
+            ArrayList<Task> tasks = liveTasks(graph);
+            int kind = random.nextInt(10);
+            if (kind < 4 || tasks.size() < 5){
+                // mostly depend on recent tasks, so chains build up
+                ArrayList<Task> predecessors = new ArrayList<>();
+                int count = tasks.isEmpty() ? 0 : random.nextInt(3);
+                for (int k = 0; k < count; k++){
+                    Task predecessor = tasks.get(Math.max(0, tasks.size() - 1 - random.nextInt(30)));
+                    if (!predecessors.contains(predecessor)){
+                        predecessors.add(predecessor);
+                    }
+                }
+                graph.addTask(new Task("T" + serial++, random.nextInt(10), predecessors));
+            }
+            else if (kind == 4){
+                Task predecessor = tasks.get(random.nextInt(tasks.size()));
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                try {
+                    graph.addDependency(predecessor, task);
+                }
+                catch (CyclicDependencyException e) {
+                    assertTrue(predecessor == task || index.dependsOn(predecessor, task));
+                }
+            }
+            else if (kind == 5 || kind == 6){
+                graph.deleteTask(tasks.get(random.nextInt(tasks.size())));
+            }
+            else if (kind == 7){
+                Task task = tasks.get(random.nextInt(tasks.size()));
+                Task predecessor = task.getPredecessors().get(0);
+                if (predecessor != graph.getStartTask()){
+                    graph.removeDependency(predecessor, task);
+                }
+            }
+            else if (kind == 8){
+                if (history.canUndo()){
+                    history.undo();
+                }
+            }
+            else {
+                graph.beginUpdate();
+                for (int k = 0; k < 2; k++){
+                    ArrayList<Task> predecessors = new ArrayList<>();
+                    predecessors.add(tasks.get(random.nextInt(tasks.size())));
+                    graph.addTask(new Task("T" + serial++, 1, predecessors));
+                }
+                graph.endUpdate();
+            }
+
+            if (edit % 7 == 0){
+                check(graph, index, random, "edit " + edit);
+            }
+        }
+        check(graph, index, random, "end");
+    }
+
+    private static void check(CriticalPathGraph graph, ReachabilityIndex index, Random random, String message)
+            throws TaskNotFoundException {
+        Networks.check(graph);
+        ArrayList<Task> tasks = liveTasks(graph);
+        for (int k = 0; k < Math.min(20, tasks.size()); k++){
+            Task task = tasks.get(random.nextInt(tasks.size()));
+            HashSet<Task> descendants = search(graph, task, true);
+            HashSet<Task> ancestors = search(graph, task, false);
+            ArrayList<Task> indexDescendants = index.getDescendants(task);
+            ArrayList<Task> indexAncestors = index.getAncestors(task);
+            assertEquals(descendants, new HashSet<>(indexDescendants), message);
+            assertEquals(descendants.size(), indexDescendants.size(), message);
+            assertEquals(ancestors, new HashSet<>(indexAncestors), message);
+            assertEquals(ancestors.size(), indexAncestors.size(), message);
+            for (Task other : tasks){
+                assertEquals(descendants.contains(other), index.dependsOn(other, task), message);
+            }
+            assertTrue(index.dependsOn(task, graph.getStartTask()), message);
+            assertTrue(index.dependsOn(graph.getEndTask(), task), message);
+            assertFalse(index.dependsOn(task, task), message);
+        }
+    }
+}
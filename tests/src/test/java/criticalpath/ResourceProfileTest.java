@@ -0,0 +1,122 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the treap of a ResourceProfile against a plain list of the tasks added to it. Times, durations and demands
+ * are whole numbers, so both sides add up exactly.
+ * @author Cameron Sabuda
+ */
+class ResourceProfileTest {
+
+    private static final int RUNS = 300;
+
+    /**
+     * The tasks added to a profile, kept as a list and searched one by one.
+     */
+    private static class Reference {
+
+        private final float capacity;
+        private final ArrayList<float[]> tasks = new ArrayList<>();
+
+        private Reference(float capacity) {
+            this.capacity = capacity;
+        }
+
+        private void add(float start, float finish, float demand) {
+            this.tasks.add(new float[]{start, finish, demand});
+        }
+
+        private float getUsage(float time) {
+            float usage = 0;
+            for (float[] task : this.tasks){
+                if (task[0] <= time && time < task[1]){
+                    usage += task[2];
+                }
+            }
+            return usage;
+        }
+
+        /**
+         * The usage only goes up where a task starts, so a task fits if there is room when it starts and at every
+         * start of another task while it runs, and the only places worth trying are its earliest start and the
+         * finishes after it.
+         */
+        private float findEarliestStart(float earliest, float duration, float demand) {
+            ArrayList<Float> candidates = new ArrayList<>();
+            candidates.add(earliest);
+            for (float[] task : this.tasks){
+                if (task[1] > earliest){
+                    candidates.add(task[1]);
+                }
+            }
+            candidates.sort(null);
+            for (float start : candidates){
+                if (this.fits(start, duration, demand)){
+                    return start;
+                }
+            }
+            throw new AssertionError("no start found");
+        }
+
+        private boolean fits(float start, float duration, float demand) {
+            if (this.getUsage(start) + demand > this.capacity){
+                return false;
+            }
+            for (float[] task : this.tasks){
+                if (task[0] > start && task[0] < start + duration && this.getUsage(task[0]) + demand > this.capacity){
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Test
+    void matchesPlainList() {
+        Random random = new Random(17);
+        for (int run = 0; run < RUNS; run++){
+            float capacity = 1 + random.nextInt(6);
+            ResourceProfile profile = new ResourceProfile(new ResourcePool("pool", capacity));
+            Reference reference = new Reference(capacity);
+            int adds = 1 + random.nextInt(60);
+            for (int i = 0; i < adds; i++){
+                float earliest = random.nextInt(40);
+                float duration = random.nextInt(8);
+                float demand = random.nextInt((int) capacity + 1);
+
+                float start = profile.findEarliestStart(earliest, duration, demand);
+                assertEquals(reference.findEarliestStart(earliest, duration, demand), start, 0,
+                             "run " + run + ", task " + i);
+
+                // mostly add the task where it fits, but sometimes overload the pool as the leveler never does
+                if (random.nextInt(5) == 0){
+                    start = earliest;
+                }
+                profile.add(start, start + duration, demand);
+                reference.add(start, start + duration, demand);
+
+                for (float time = 0; time < 60; time += 0.5f){
+                    assertEquals(reference.getUsage(time), profile.getUsage(time), 0, "run " + run + ", time " + time);
+                }
+            }
+            assertTrue(profile.size() <= 2 * adds + 1);
+        }
+    }
+
+    @Test
+    void addingNothingLeavesNoSteps() {
+        ResourceProfile profile = new ResourceProfile(new ResourcePool("pool", 2));
+        profile.add(3, 3, 1);
+        profile.add(3, 5, 0);
+        assertEquals(1, profile.size());
+        assertEquals(0, profile.getUsage(4), 0);
+        assertEquals(0, profile.findEarliestStart(0, 10, 2), 0);
+    }
+}
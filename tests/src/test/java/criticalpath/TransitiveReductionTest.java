@@ -0,0 +1,102 @@
+package criticalpath;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks TransitiveReduction against the full closure of the network kept in BitSets, with word budgets small enough
+ * that the columns are worked out in many chunks.
+ * @author Cameron Sabuda
+ */
+class TransitiveReductionTest {
+
+    private static final int NETWORKS = 300;
+    private static final int[] WORD_BUDGETS = {1, 7, 64, TransitiveReduction.WORD_BUDGET};
+
+    /**
+     * Finds the redundant dependencies from the tasks each task can reach, kept whole.
+     */
+    private static HashSet<String> findPlainly(CriticalPathGraph graph) {
+        ArrayList<Task> order = graph.getTopologicalOrder();
+        HashMap<Task, BitSet> reachable = new HashMap<>();
+        HashMap<Task, Integer> numbers = new HashMap<>();
+        for (int i = 0; i < order.size(); i++){
+            numbers.put(order.get(i), i);
+        }
+        HashSet<String> redundant = new HashSet<>();
+        for (int i = order.size() - 1; i >= 0; i--){
+            Task task = order.get(i);
+            BitSet reach = new BitSet();
+            for (Task successor : task.getSuccessors()){
+                reach.or(reachable.get(successor));
+                reach.set(numbers.get(successor));
+            }
+            reachable.put(task, reach);
+            for (Task successor : task.getSuccessors()){
+                for (Task other : task.getSuccessors()){
+                    if (other != successor && reachable.get(other).get(numbers.get(successor))){
+                        redundant.add(task.getId() + " -> " + successor.getId());
+                        break;
+                    }
+                }
+            }
+        }
+        return redundant;
+    }
+
+    private static HashSet<String> names(ArrayList<Dependency> dependencies) {
+        HashSet<String> names = new HashSet<>();
+        for (Dependency dependency : dependencies){
+            names.add(dependency.toString());
+        }
+        return names;
+    }
+
+    @Test
+    void matchesFullClosure() throws Exception {
+        Random random = new Random(23);
+        int found = 0;
+        for (int n = 0; n < NETWORKS; n++){
+            CriticalPathGraph graph = Networks.random(random, random.nextInt(200));
+            HashSet<String> expected = findPlainly(graph);
+            for (int wordBudget : WORD_BUDGETS){
+                assertEquals(expected, names(TransitiveReduction.find(graph.getTopologicalOrder(), wordBudget)),
+                             "network " + n + ", budget " + wordBudget);
+            }
+            found += expected.size();
+        }
+        assertTrue(found > 0);
+    }
+
+    @Test
+    void removingLeavesTheScheduleAlone() throws Exception {
+        Random random = new Random(29);
+        for (int n = 0; n < 100; n++){
+            CriticalPathGraph graph = Networks.random(random, random.nextInt(100));
+            HashMap<Task, float[]> times = new HashMap<>();
+            for (Task task : graph.getTasks()){
+                times.put(task, new float[]{task.getEarlyStartTime(), task.getLatestFinishTime(),
+                                            task.getTotalFloat(), task.getFreeFloat()});
+            }
+            HashSet<String> expected = findPlainly(graph);
+            assertEquals(expected, names(graph.removeRedundantDependencies()));
+            assertTrue(graph.getRedundantDependencies().isEmpty());
+            Networks.check(graph);
+            for (Task task : graph.getTasks()){
+                float[] before = times.get(task);
+                assertEquals(before[0], task.getEarlyStartTime(), 0);
+                assertEquals(before[1], task.getLatestFinishTime(), 0);
+                assertEquals(before[2], task.getTotalFloat(), 0);
+                assertEquals(before[3], task.getFreeFloat(), 0);
+            }
+        }
+    }
+}